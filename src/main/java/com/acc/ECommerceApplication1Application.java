@@ -6,6 +6,7 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.elasticsearch.repository.config.EnableElasticsearchRepositories;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.acc.elasticsearch.serviceimpl.ProductDocumentService;
@@ -13,6 +14,7 @@ import com.acc.elasticsearch.serviceimpl.ProductDocumentService;
 @SpringBootApplication
 @EnableJpaRepositories(basePackages = "com.acc.repository")
 @EnableElasticsearchRepositories(basePackages = "com.acc.elasticsearch.repository")
+@EnableScheduling
 
 public class ECommerceApplication1Application {
 
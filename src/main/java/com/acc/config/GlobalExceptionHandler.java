@@ -1,11 +1,14 @@
 package com.acc.config;
 
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import com.acc.exception.ForbiddenException;
+import com.acc.exception.IdempotencyKeyReuseException;
+import com.acc.exception.RequestInProgressException;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -23,4 +26,21 @@ public class GlobalExceptionHandler {
     public ResponseEntity<String> handleEntityNotFoundException(EntityNotFoundException ex) {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
     }
+
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<String> handleIdempotencyKeyReuseException(IdempotencyKeyReuseException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    // Two requests edited the same row at once, seen as a stale version or a deadlock victim;
+    // this one lost and can simply be retried.
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<String> handleConcurrencyFailureException(ConcurrencyFailureException ex) {
+        return new ResponseEntity<>("The resource was changed by a concurrent request; retry.", HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(RequestInProgressException.class)
+    public ResponseEntity<String> handleRequestInProgressException(RequestInProgressException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.CONFLICT);
+    }
 }
\ No newline at end of file
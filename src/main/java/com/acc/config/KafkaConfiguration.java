@@ -1,9 +1,20 @@
 package com.acc.config;
+import com.acc.serviceImpl.CheckoutKafkaConsumer;
+import com.acc.serviceImpl.CheckoutServiceImpl;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.Properties;
 
 @Configuration
 public class KafkaConfiguration {
@@ -16,4 +27,46 @@ public class KafkaConfiguration {
         
         return factory;
     }
-}
\ No newline at end of file
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> batchKafkaListenerContainerFactory(
+            ConsumerFactory<String, String> consumerFactory,
+            @Value("${product.ingest.batch-size:500}") int batchSize,
+            @Value("${product.ingest.concurrency:3}") int concurrency) {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+
+        Properties consumerProperties = new Properties();
+        consumerProperties.setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(batchSize));
+        factory.getContainerProperties().setKafkaConsumerProperties(consumerProperties);
+        return factory;
+    }
+
+    // Checkout throughput scales with partitions: each is consumed by one thread across the group.
+    @Bean
+    public NewTopic checkoutTopic(@Value("${checkout.topic.partitions:6}") int partitions) {
+        return TopicBuilder.name(CheckoutServiceImpl.CHECKOUT_TOPIC).partitions(partitions).build();
+    }
+
+    // The consumer's @KafkaListener looks this factory up while the consumer bean is still being
+    // created, so the recoverer resolves the consumer when a record first fails, not here.
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> checkoutKafkaListenerContainerFactory(
+            ConsumerFactory<String, String> consumerFactory,
+            ObjectProvider<CheckoutKafkaConsumer> checkoutKafkaConsumer,
+            @Value("${checkout.consumer.concurrency:3}") int concurrency,
+            @Value("${checkout.consumer.retry-interval-ms:1000}") long retryIntervalMs,
+            @Value("${checkout.consumer.max-retries:3}") long maxRetries) {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(
+                (record, exception) -> checkoutKafkaConsumer.getObject().recover(record, exception),
+                new FixedBackOff(retryIntervalMs, maxRetries)));
+        return factory;
+    }
+}
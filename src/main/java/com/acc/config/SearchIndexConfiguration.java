@@ -0,0 +1,31 @@
+package com.acc.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class SearchIndexConfiguration {
+
+    // One rebuild at a time; ProductIndexManager refuses a second while one is running.
+    @Bean
+    public ThreadPoolTaskExecutor reindexExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("reindex-");
+        return executor;
+    }
+
+    // One resync at a time; ProductDocumentService refuses a second while one is running.
+    @Bean
+    public ThreadPoolTaskExecutor resyncExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("resync-");
+        return executor;
+    }
+}
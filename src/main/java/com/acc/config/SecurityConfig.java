@@ -91,6 +91,10 @@ public class SecurityConfig {
                 })
 
                 
+                .requestMatchers(HttpMethod.GET, "/api/products/cache-stats").hasAuthority("ROLE_ADMIN")
+                .requestMatchers(HttpMethod.GET, "/api/products/search-cache-stats").hasAuthority("ROLE_ADMIN")
+                .requestMatchers(HttpMethod.GET, "/api/products/upload/jobs/**").hasAuthority("ROLE_ADMIN")
+                .requestMatchers("/api/products/search-index/**").hasAuthority("ROLE_ADMIN")
                 .requestMatchers(HttpMethod.GET, "/api/products/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/categories/**").permitAll()
 
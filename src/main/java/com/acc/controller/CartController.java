@@ -1,7 +1,10 @@
 package com.acc.controller;
 
 import com.acc.dto.AddItemToCartRequestDTO;
+import com.acc.dto.CartBatchRequestDTO;
+import com.acc.dto.CartBatchResponseDTO;
 import com.acc.dto.CartDTO;
+import com.acc.dto.CartPageResponse;
 import com.acc.service.CartService;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,8 +12,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 @RequestMapping("/api/carts")
@@ -34,6 +36,13 @@ public class CartController {
         return ResponseEntity.ok(updatedCart); 
     }
 
+    @PostMapping("/{customerId}/items/batch")
+    public ResponseEntity<CartBatchResponseDTO> applyCartBatch(
+            @PathVariable Long customerId,
+            @RequestBody CartBatchRequestDTO request) {
+        return ResponseEntity.ok(cartService.applyCartBatch(customerId, request));
+    }
+
     
     @PutMapping("/{customerId}/items/{productId}")
     public ResponseEntity<CartDTO> updateProductQuantityInCart(
@@ -69,8 +78,13 @@ public class CartController {
 
     
     @GetMapping
-    public ResponseEntity<List<CartDTO>> getAllCarts() {
-        List<CartDTO> carts = cartService.getAllCarts();
-        return ResponseEntity.ok(carts);
+    public ResponseEntity<CartPageResponse> getAllCarts(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(cartService.getAllCarts(after, limit));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
     }
 }
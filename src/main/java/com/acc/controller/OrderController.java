@@ -1,13 +1,23 @@
 
 package com.acc.controller;
+import com.acc.dto.CheckoutTicketDTO;
 import com.acc.dto.OrderDTO;
+import com.acc.dto.OrderPageResponse;
+import com.acc.dto.OrderSummaryPageResponse;
+import com.acc.service.CheckoutService;
+import com.acc.service.IdempotencyService;
 import com.acc.service.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -16,26 +26,78 @@ public class OrderController {
 	@Autowired
 	private OrderService orderService;
 
+	@Autowired
+	private IdempotencyService idempotencyService;
+
+	@Autowired
+	private CheckoutService checkoutService;
+
 	@PostMapping("/from-cart/{cartId}")
-	public ResponseEntity<OrderDTO> createOrderFromCart(@PathVariable Long cartId) {
-	    OrderDTO savedOrder = orderService.createOrderFromCart(cartId);
+	public ResponseEntity<OrderDTO> createOrderFromCart(
+	        @PathVariable Long cartId,
+	        @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+	    OrderDTO savedOrder = idempotencyService.execute("order.from-cart", idempotencyKey, cartId, OrderDTO.class,
+	            () -> orderService.createOrderFromCart(cartId));
 	    return new ResponseEntity<>(savedOrder, HttpStatus.CREATED);
 	}
 
 	@PostMapping("/customer/{customerId}/partial")
 	public ResponseEntity<OrderDTO> createPartialOrder(
 	        @PathVariable Long customerId,
-	        @RequestBody OrderDTO orderDTO) {
-	    OrderDTO createdOrder = orderService.savePartialOrder(customerId, orderDTO);
+	        @RequestBody OrderDTO orderDTO,
+	        @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+	    OrderDTO createdOrder = idempotencyService.execute("order.partial", idempotencyKey, List.of(customerId, orderDTO),
+	            OrderDTO.class, () -> orderService.savePartialOrder(customerId, orderDTO));
 	    return ResponseEntity.ok(createdOrder);
 	}
 
 
 
+	/** Queues the checkout and answers 202 with a ticket to poll at {@code /api/orders/checkout/{ticketId}}. */
+	@PostMapping("/from-cart/{cartId}/async")
+	public ResponseEntity<CheckoutTicketDTO> submitOrderFromCart(
+	        @PathVariable Long cartId,
+	        @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+	    return accepted(() -> idempotencyService.execute("order.from-cart.async", idempotencyKey, cartId,
+	            CheckoutTicketDTO.class, () -> checkoutService.submitFromCart(cartId)));
+	}
+
+	@PostMapping("/customer/{customerId}/partial/async")
+	public ResponseEntity<CheckoutTicketDTO> submitPartialOrder(
+	        @PathVariable Long customerId,
+	        @RequestBody OrderDTO orderDTO,
+	        @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+	    return accepted(() -> idempotencyService.execute("order.partial.async", idempotencyKey,
+	            List.of(customerId, orderDTO), CheckoutTicketDTO.class,
+	            () -> checkoutService.submitPartial(customerId, orderDTO)));
+	}
+
+	@GetMapping("/checkout/{ticketId}")
+	public ResponseEntity<CheckoutTicketDTO> getCheckoutTicket(@PathVariable String ticketId) {
+		return ResponseEntity.ok(checkoutService.getTicket(ticketId));
+	}
+
+	private ResponseEntity<CheckoutTicketDTO> accepted(Supplier<CheckoutTicketDTO> submit) {
+		try {
+			return new ResponseEntity<>(submit.get(), HttpStatus.ACCEPTED);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+		} catch (IllegalStateException e) {
+			throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e);
+		}
+	}
+
 	@GetMapping
-	public ResponseEntity<List<OrderDTO>> getAllOrders() {
-		List<OrderDTO> orders = orderService.getAllOrders();
-		return new ResponseEntity<>(orders, HttpStatus.OK);
+	public ResponseEntity<OrderSummaryPageResponse> getAllOrders(
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+			@RequestParam(required = false) String after,
+			@RequestParam(defaultValue = "20") int limit) {
+		try {
+			return ResponseEntity.ok(orderService.getOrderSummaries(from, to, after, limit));
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+		}
 	}
 
 	@GetMapping("/{id}")
@@ -44,12 +106,34 @@ public class OrderController {
 		return new ResponseEntity<>(order, HttpStatus.OK);
 	}
 	@GetMapping("/customer/{customerId}")
-	public ResponseEntity<List<OrderDTO>> getOrdersByCustomerId(@PathVariable Long customerId) {
-	    List<OrderDTO> orders = orderService.getOrdersByCustomerId(customerId);
-	    return new ResponseEntity<>(orders, HttpStatus.OK);
+	public ResponseEntity<OrderSummaryPageResponse> getOrdersByCustomerId(
+			@PathVariable Long customerId,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+			@RequestParam(required = false) String after,
+			@RequestParam(defaultValue = "20") int limit) {
+		try {
+			return ResponseEntity.ok(orderService.getOrderSummariesForCustomer(customerId, from, to, after, limit));
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+		}
 	}
 
 
+	@GetMapping("/customer/{customerId}/history")
+	public ResponseEntity<OrderPageResponse> getOrderHistory(
+			@PathVariable Long customerId,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+			@RequestParam(required = false) String after,
+			@RequestParam(defaultValue = "20") int limit) {
+		try {
+			return ResponseEntity.ok(orderService.getOrderHistoryForCustomer(customerId, from, to, after, limit));
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+		}
+	}
+
 	@PutMapping("/{id}")
 	public ResponseEntity<OrderDTO> updateOrder(@PathVariable Long id, @Validated @RequestBody OrderDTO orderDTO) {
 		OrderDTO updatedOrder = orderService.updateOrder(id, orderDTO);
@@ -1,6 +1,9 @@
 package com.acc.controller;
 
 import com.acc.dto.PaymentDTO;
+import com.acc.exception.IdempotencyKeyReuseException;
+import com.acc.exception.RequestInProgressException;
+import com.acc.service.IdempotencyService;
 import com.acc.service.PaymentQrCodeService;
 import com.acc.service.PaymentService;
 import com.acc.service.RazorpayService;
@@ -9,6 +12,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import com.google.zxing.WriterException;
 import org.springframework.http.MediaType;
 import java.io.IOException;
@@ -22,6 +26,9 @@ public class PaymentController {
 
 	@Autowired
 	private PaymentService paymentService;
+
+	@Autowired
+	private IdempotencyService idempotencyService;
 	
 	@Autowired
     private RazorpayService razorpayService;
@@ -63,11 +70,17 @@ public class PaymentController {
     }
 
     @PostMapping
-    public ResponseEntity<PaymentDTO> createPayment(@Validated @RequestBody PaymentDTO paymentDTO) {
+    public ResponseEntity<PaymentDTO> createPayment(@Validated @RequestBody PaymentDTO paymentDTO,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         try {
             System.out.println("Received paymentDTO: " + paymentDTO); 
-            PaymentDTO savedPayment = paymentService.savePayment(paymentDTO);
+            PaymentDTO savedPayment = idempotencyService.execute("payment", idempotencyKey, paymentDTO, PaymentDTO.class,
+                    () -> paymentService.savePayment(paymentDTO));
             return new ResponseEntity<>(savedPayment, HttpStatus.CREATED);
+        } catch (IdempotencyKeyReuseException | RequestInProgressException e) {
+            throw e;
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
         } catch (Exception e) {
             e.printStackTrace(); 
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
@@ -1,11 +1,21 @@
 package com.acc.controller;
 
-import com.acc.dto.BulkUploadResponse;
+import com.acc.dto.BulkUploadJobResponse;
+import com.acc.dto.CacheStatsDTO;
 import com.acc.dto.ProductDTO;
+import com.acc.dto.ProductPageResponse;
+import com.acc.dto.ProductSort;
+import com.acc.dto.ProductSuggestionDTO;
+import com.acc.entity.Category;
+import com.acc.exception.ForbiddenException;
 
 import com.acc.elasticsearch.entity.ProductDocument;
+import com.acc.service.BulkUploadJobService;
 import com.acc.service.ProductService;
+import com.acc.service.ProductSuggestService;
+import com.acc.util.SecurityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -14,6 +24,7 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
+import java.net.URI;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,6 +35,15 @@ public class ProductController {
 
     @Autowired
     private ProductService productService;
+
+    @Autowired
+    private BulkUploadJobService bulkUploadJobService;
+
+    @Autowired
+    private ProductSuggestService productSuggestService;
+
+    @Autowired
+    private SecurityUtils securityUtils;
    
 
     @PostMapping
@@ -44,6 +64,17 @@ public class ProductController {
         return new ResponseEntity<>(product, HttpStatus.OK);
     }
 
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestionDTO>> suggest(@RequestParam String prefix,
+                                                              @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productSuggestService.suggest(prefix, limit));
+    }
+
+    @GetMapping("/cache-stats")
+    public ResponseEntity<CacheStatsDTO> getProductCacheStats() {
+        return ResponseEntity.ok(productService.getProductCacheStats());
+    }
+
     @DeleteMapping("/{productId}")
     public ResponseEntity<Map<String, String>> deleteProduct(@PathVariable Long productId) {
         productService.deleteProduct(productId);
@@ -55,44 +86,61 @@ public class ProductController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ProductDTO>> getAllProducts() {
-        List<ProductDTO> products = productService.getAllProducts();
-        return new ResponseEntity<>(products, HttpStatus.OK);
+    public ResponseEntity<ProductPageResponse> getProducts(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) Category category,
+            @RequestParam(defaultValue = "ID") String sort,
+            @RequestParam(defaultValue = "false") boolean all) {
+        if (all) {
+            if (!securityUtils.isAdmin()) {
+                throw new ForbiddenException("Listing the full catalogue is restricted to administrators.");
+            }
+            List<ProductDTO> products = productService.getAllProducts();
+            return new ResponseEntity<>(new ProductPageResponse(products, null, products.size()), HttpStatus.OK);
+        }
+
+        try {
+            ProductSort productSort = ProductSort.valueOf(sort.trim().toUpperCase());
+            ProductPageResponse page = productService.getProductPage(after, limit, category, productSort);
+            return new ResponseEntity<>(page, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
     }
 
     @PostMapping("/upload")
-    public ResponseEntity<BulkUploadResponse> uploadFile(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<BulkUploadJobResponse> uploadFile(@RequestParam("file") MultipartFile file) {
         if (file.isEmpty() || !file.getOriginalFilename().endsWith(".csv")) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid file. Please upload a non-empty CSV file.");
         }
-
-        try {
-            BulkUploadResponse response = productService.saveProductsFromCsv(file);
-
-            String message = String.format("CSV import complete. Total records processed: %d, Added: %d, Skipped: %d.",
-                response.getTotalRecordsProcessed(), response.getRecordsAdded(), response.getRecordsSkipped());
-            response.setMessage(message);
-            
-            return ResponseEntity.ok(response);
-
-        } catch (IOException e) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to import products: " + e.getMessage(), e);
-        }
+        return submitUploadJob(file);
     }
     
     @PostMapping("/upload-kafka")
-    public ResponseEntity<BulkUploadResponse> uploadProductsToKafka(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<BulkUploadJobResponse> uploadProductsToKafka(@RequestParam("file") MultipartFile file) {
         if (file.isEmpty()) {
-            return ResponseEntity.badRequest().body(new BulkUploadResponse("Please select a file to upload.", 0, 0, 0, null));
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Please select a file to upload.");
         }
+        return submitUploadJob(file);
+    }
+
+    @GetMapping("/upload/jobs/{jobId}")
+    public ResponseEntity<BulkUploadJobResponse> getUploadJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(bulkUploadJobService.getJob(jobId));
+    }
 
+    private ResponseEntity<BulkUploadJobResponse> submitUploadJob(MultipartFile file) {
         try {
-            BulkUploadResponse response = productService.saveProductsFromCsv(file);
-            
-            return ResponseEntity.accepted().body(response);
+            BulkUploadJobResponse job = bulkUploadJobService.submit(file);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/products/upload/jobs/" + job.getJobId()))
+                    .body(job);
+        } catch (TaskRejectedException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many uploads in progress. Please retry later.", e);
         } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(new BulkUploadResponse("Failed to process file: " + e.getMessage(), 0, 0, 1, null));
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to import products: " + e.getMessage(), e);
         }
-    }}
+    }
+}
     
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.acc.dto;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live progress of one asynchronous CSV upload. Counters are updated from the parsing
+ * thread, Kafka send callbacks and the ingest consumer, so they are all atomic.
+ *
+ * <p>The job stays {@code RUNNING} after parsing ends until Kafka has acknowledged or
+ * rejected every record sent for it. {@code inFlight} starts at one for the parser and
+ * gains one per send, so whichever of the parser and the last send callback finishes
+ * second completes the job.
+ */
+public class BulkUploadJob {
+
+    public static final String KAFKA_HEADER = "bulk-upload-job-id";
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final String id;
+    private final String fileName;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private volatile LocalDateTime completedAt;
+    private volatile Status status = Status.QUEUED;
+    private volatile String message;
+    private volatile String parseMessage;
+
+    private final AtomicInteger parsed = new AtomicInteger();
+    private final AtomicInteger sent = new AtomicInteger();
+    private final AtomicInteger published = new AtomicInteger();
+    private final AtomicInteger persisted = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicInteger consumerSkipped = new AtomicInteger();
+    private final AtomicInteger publishFailures = new AtomicInteger();
+    private final AtomicInteger errors = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger(1);
+
+    public BulkUploadJob(String id, String fileName) {
+        this.id = id;
+        this.fileName = fileName;
+    }
+
+    public void start() {
+        status = Status.RUNNING;
+    }
+
+    /** Called once the parser has sent its last record; the job completes when those are acknowledged. */
+    public void finishParsing(String message) {
+        this.parseMessage = message;
+        releaseInFlight();
+    }
+
+    public void fail(String message) {
+        finish(Status.FAILED, message);
+    }
+
+    private void releaseInFlight() {
+        if (inFlight.decrementAndGet() == 0) {
+            int failures = publishFailures.get();
+            finish(Status.COMPLETED, failures == 0 ? parseMessage
+                    : parseMessage + " Kafka rejected " + failures + " record(s).");
+        }
+    }
+
+    private synchronized void finish(Status finalStatus, String message) {
+        if (isFinished()) {
+            return;
+        }
+        this.message = message;
+        this.completedAt = LocalDateTime.now();
+        this.status = finalStatus;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public void recordParsed() { parsed.incrementAndGet(); }
+    public void recordSent() { sent.incrementAndGet(); inFlight.incrementAndGet(); }
+    public void recordPublished() { published.incrementAndGet(); releaseInFlight(); }
+    public void recordPublishFailed() { publishFailures.incrementAndGet(); errors.incrementAndGet(); releaseInFlight(); }
+    public void recordPersisted(int count) { persisted.addAndGet(count); }
+    public void recordSkipped(int count) { skipped.addAndGet(count); }
+    public void recordConsumerSkipped(int count) { consumerSkipped.addAndGet(count); }
+    public void recordError() { errors.incrementAndGet(); }
+
+    public String getId() { return id; }
+    public String getFileName() { return fileName; }
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public Status getStatus() { return status; }
+
+    public BulkUploadJobResponse toResponse() {
+        BulkUploadJobResponse response = new BulkUploadJobResponse();
+        response.setJobId(id);
+        response.setFileName(fileName);
+        response.setStatus(status.name());
+        response.setMessage(message);
+        response.setSubmittedAt(submittedAt);
+        response.setCompletedAt(completedAt);
+        response.setTotalRecordsProcessed(parsed.get());
+        response.setRecordsAdded(published.get());
+        response.setRecordsPersisted(persisted.get());
+        response.setRecordsSkipped(skipped.get());
+        response.setRecordsSkippedByConsumer(consumerSkipped.get());
+        response.setRecordsAwaitingAck(isFinished() ? 0 : sent.get() - published.get() - publishFailures.get());
+        response.setErrorCount(errors.get());
+        return response;
+    }
+}
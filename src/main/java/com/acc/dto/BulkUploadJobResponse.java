@@ -0,0 +1,44 @@
+package com.acc.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * {@link BulkUploadResponse} for an asynchronous upload: {@code totalRecordsProcessed} counts
+ * parsed rows, {@code recordsAdded} rows Kafka has acknowledged, {@code recordsAwaitingAck}
+ * rows sent but not yet acknowledged, and {@code recordsPersisted} rows the ingest consumer
+ * has committed so far. {@code recordsSkipped} are rows the parser dropped (bad category or
+ * price, duplicates); {@code recordsSkippedByConsumer} are rows the consumer rejected.
+ */
+public class BulkUploadJobResponse extends BulkUploadResponse {
+    private String jobId;
+    private String fileName;
+    private String status;
+    private int recordsAwaitingAck;
+    private int recordsPersisted;
+    private int recordsSkippedByConsumer;
+    private int errorCount;
+    private LocalDateTime submittedAt;
+    private LocalDateTime completedAt;
+
+    public BulkUploadJobResponse() {
+    }
+
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public int getRecordsAwaitingAck() { return recordsAwaitingAck; }
+    public void setRecordsAwaitingAck(int recordsAwaitingAck) { this.recordsAwaitingAck = recordsAwaitingAck; }
+    public int getRecordsPersisted() { return recordsPersisted; }
+    public void setRecordsPersisted(int recordsPersisted) { this.recordsPersisted = recordsPersisted; }
+    public int getRecordsSkippedByConsumer() { return recordsSkippedByConsumer; }
+    public void setRecordsSkippedByConsumer(int recordsSkippedByConsumer) { this.recordsSkippedByConsumer = recordsSkippedByConsumer; }
+    public int getErrorCount() { return errorCount; }
+    public void setErrorCount(int errorCount) { this.errorCount = errorCount; }
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public void setSubmittedAt(LocalDateTime submittedAt) { this.submittedAt = submittedAt; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
@@ -0,0 +1,42 @@
+package com.acc.dto;
+
+public class CacheStatsDTO {
+    private String name;
+    private int size;
+    private int maxSize;
+    private long ttlMillis;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private double hitRatio;
+
+    public CacheStatsDTO() {}
+
+    public CacheStatsDTO(String name, int size, int maxSize, long ttlMillis, long hits, long misses, long evictions, double hitRatio) {
+        this.name = name;
+        this.size = size;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.hitRatio = hitRatio;
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+    public int getMaxSize() { return maxSize; }
+    public void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+    public long getTtlMillis() { return ttlMillis; }
+    public void setTtlMillis(long ttlMillis) { this.ttlMillis = ttlMillis; }
+    public long getHits() { return hits; }
+    public void setHits(long hits) { this.hits = hits; }
+    public long getMisses() { return misses; }
+    public void setMisses(long misses) { this.misses = misses; }
+    public long getEvictions() { return evictions; }
+    public void setEvictions(long evictions) { this.evictions = evictions; }
+    public double getHitRatio() { return hitRatio; }
+    public void setHitRatio(double hitRatio) { this.hitRatio = hitRatio; }
+}
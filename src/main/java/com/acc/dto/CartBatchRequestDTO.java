@@ -0,0 +1,13 @@
+package com.acc.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CartBatchRequestDTO {
+    private List<CartItemOperationDTO> operations = new ArrayList<>();
+
+    public CartBatchRequestDTO() {}
+
+    public List<CartItemOperationDTO> getOperations() { return operations; }
+    public void setOperations(List<CartItemOperationDTO> operations) { this.operations = operations; }
+}
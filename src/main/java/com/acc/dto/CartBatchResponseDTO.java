@@ -0,0 +1,33 @@
+package com.acc.dto;
+
+import java.util.List;
+
+public class CartBatchResponseDTO {
+    private CartDTO cart;
+    private List<CartItemOperationResultDTO> results;
+    private int applied;
+    private int rejected;
+
+    public CartBatchResponseDTO() {}
+
+    public CartBatchResponseDTO(CartDTO cart, List<CartItemOperationResultDTO> results) {
+        this.cart = cart;
+        this.results = results;
+        for (CartItemOperationResultDTO result : results) {
+            if (result.getStatus() == CartItemOperationResultDTO.Status.APPLIED) {
+                applied++;
+            } else {
+                rejected++;
+            }
+        }
+    }
+
+    public CartDTO getCart() { return cart; }
+    public void setCart(CartDTO cart) { this.cart = cart; }
+    public List<CartItemOperationResultDTO> getResults() { return results; }
+    public void setResults(List<CartItemOperationResultDTO> results) { this.results = results; }
+    public int getApplied() { return applied; }
+    public void setApplied(int applied) { this.applied = applied; }
+    public int getRejected() { return rejected; }
+    public void setRejected(int rejected) { this.rejected = rejected; }
+}
@@ -0,0 +1,25 @@
+package com.acc.dto;
+
+public class CartItemOperationDTO {
+
+    public enum Type { ADD, UPDATE, REMOVE }
+
+    private Type type;
+    private Long productId;
+    private Integer quantity;
+
+    public CartItemOperationDTO() {}
+
+    public CartItemOperationDTO(Type type, Long productId, Integer quantity) {
+        this.type = type;
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+}
@@ -0,0 +1,46 @@
+package com.acc.dto;
+
+public class CartItemOperationResultDTO {
+
+    public enum Status { APPLIED, REJECTED }
+
+    private int index;
+    private CartItemOperationDTO.Type type;
+    private Long productId;
+    private Status status;
+    private Integer quantity;
+    private String message;
+
+    public CartItemOperationResultDTO() {}
+
+    public CartItemOperationResultDTO(int index, CartItemOperationDTO.Type type, Long productId) {
+        this.index = index;
+        this.type = type;
+        this.productId = productId;
+    }
+
+    public void applied(int quantity) {
+        this.status = Status.APPLIED;
+        this.quantity = quantity;
+        this.message = null;
+    }
+
+    public void rejected(Integer quantity, String message) {
+        this.status = Status.REJECTED;
+        this.quantity = quantity;
+        this.message = message;
+    }
+
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+    public CartItemOperationDTO.Type getType() { return type; }
+    public void setType(CartItemOperationDTO.Type type) { this.type = type; }
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
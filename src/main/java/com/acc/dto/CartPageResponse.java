@@ -0,0 +1,24 @@
+package com.acc.dto;
+
+import java.util.List;
+
+public class CartPageResponse {
+    private List<CartDTO> items;
+    private String nextCursor;
+    private int limit;
+
+    public CartPageResponse() {}
+
+    public CartPageResponse(List<CartDTO> items, String nextCursor, int limit) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+
+    public List<CartDTO> getItems() { return items; }
+    public void setItems(List<CartDTO> items) { this.items = items; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+}
@@ -0,0 +1,37 @@
+package com.acc.dto;
+
+/**
+ * Message on the checkout topic. {@code order} carries the selected lines of a partial
+ * checkout and is null for a whole-cart checkout.
+ */
+public class CheckoutCommand {
+
+    public enum Type { FROM_CART, PARTIAL }
+
+    private String ticketId;
+    private Type type;
+    private Long customerId;
+    private Long cartId;
+    private OrderDTO order;
+
+    public CheckoutCommand() {}
+
+    public CheckoutCommand(String ticketId, Type type, Long customerId, Long cartId, OrderDTO order) {
+        this.ticketId = ticketId;
+        this.type = type;
+        this.customerId = customerId;
+        this.cartId = cartId;
+        this.order = order;
+    }
+
+    public String getTicketId() { return ticketId; }
+    public void setTicketId(String ticketId) { this.ticketId = ticketId; }
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+    public Long getCartId() { return cartId; }
+    public void setCartId(Long cartId) { this.cartId = cartId; }
+    public OrderDTO getOrder() { return order; }
+    public void setOrder(OrderDTO order) { this.order = order; }
+}
@@ -0,0 +1,26 @@
+package com.acc.dto;
+
+public class FacetBucket {
+    private String key;
+    private Double from;
+    private Double to;
+    private long count;
+
+    public FacetBucket() {}
+
+    public FacetBucket(String key, Double from, Double to, long count) {
+        this.key = key;
+        this.from = from;
+        this.to = to;
+        this.count = count;
+    }
+
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+    public Double getFrom() { return from; }
+    public void setFrom(Double from) { this.from = from; }
+    public Double getTo() { return to; }
+    public void setTo(Double to) { this.to = to; }
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+}
@@ -0,0 +1,24 @@
+package com.acc.dto;
+
+import java.util.List;
+
+public class OrderPageResponse {
+    private List<OrderDTO> items;
+    private String nextCursor;
+    private int limit;
+
+    public OrderPageResponse() {}
+
+    public OrderPageResponse(List<OrderDTO> items, String nextCursor, int limit) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+
+    public List<OrderDTO> getItems() { return items; }
+    public void setItems(List<OrderDTO> items) { this.items = items; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+}
@@ -0,0 +1,55 @@
+package com.acc.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One row of an order listing, built by a JPQL constructor expression together with the
+ * count of its lines. Items, products, profile and address are only loaded for
+ * {@code GET /api/orders/{id}}.
+ */
+public class OrderSummary {
+    private Long id;
+    private String orderCode;
+    private LocalDateTime orderDate;
+    private String status;
+    private BigDecimal totalAmount;
+    private BigDecimal discountAmount;
+    private BigDecimal discountedAmount;
+    private Long customerId;
+    private long itemCount;
+
+    public OrderSummary() {}
+
+    public OrderSummary(Long id, String orderCode, LocalDateTime orderDate, String status, BigDecimal totalAmount,
+                        BigDecimal discountAmount, BigDecimal discountedAmount, Long customerId, long itemCount) {
+        this.id = id;
+        this.orderCode = orderCode;
+        this.orderDate = orderDate;
+        this.status = status;
+        this.totalAmount = totalAmount;
+        this.discountAmount = discountAmount;
+        this.discountedAmount = discountedAmount;
+        this.customerId = customerId;
+        this.itemCount = itemCount;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getOrderCode() { return orderCode; }
+    public void setOrderCode(String orderCode) { this.orderCode = orderCode; }
+    public LocalDateTime getOrderDate() { return orderDate; }
+    public void setOrderDate(LocalDateTime orderDate) { this.orderDate = orderDate; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+    public BigDecimal getDiscountAmount() { return discountAmount; }
+    public void setDiscountAmount(BigDecimal discountAmount) { this.discountAmount = discountAmount; }
+    public BigDecimal getDiscountedAmount() { return discountedAmount; }
+    public void setDiscountedAmount(BigDecimal discountedAmount) { this.discountedAmount = discountedAmount; }
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+    public long getItemCount() { return itemCount; }
+    public void setItemCount(long itemCount) { this.itemCount = itemCount; }
+}
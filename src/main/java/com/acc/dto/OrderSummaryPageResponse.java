@@ -0,0 +1,24 @@
+package com.acc.dto;
+
+import java.util.List;
+
+public class OrderSummaryPageResponse {
+    private List<OrderSummary> items;
+    private String nextCursor;
+    private int limit;
+
+    public OrderSummaryPageResponse() {}
+
+    public OrderSummaryPageResponse(List<OrderSummary> items, String nextCursor, int limit) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+
+    public List<OrderSummary> getItems() { return items; }
+    public void setItems(List<OrderSummary> items) { this.items = items; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+}
@@ -1,6 +1,8 @@
 package com.acc.dto;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import com.acc.entity.Category;
 
@@ -11,11 +13,31 @@ public class ProductDTO {
     private List<String> images;
     private BigDecimal price;
     private Integer stockQuantity;
+    private Integer availableStock;
     private Category category;
     private Double discountPercentage;
     private BigDecimal discountedPrice;
     private boolean active; 
 
+    public ProductDTO() {}
+
+    // Used by JPQL constructor expressions so catalogue reads skip entity hydration.
+    public ProductDTO(Long id, String name, String description, String imageUrls, BigDecimal price,
+                      Integer stockQuantity, Category category, Double discountPercentage, boolean active) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.images = (imageUrls == null || imageUrls.trim().isEmpty())
+                ? Collections.emptyList() : Arrays.asList(imageUrls.split(","));
+        this.price = price;
+        this.stockQuantity = stockQuantity;
+        this.category = category;
+        this.discountPercentage = discountPercentage;
+        this.active = active;
+        this.discountedPrice = (discountPercentage == null || discountPercentage <= 0)
+                ? price : price.subtract(price.multiply(BigDecimal.valueOf(discountPercentage / 100)));
+    }
+
     public boolean isActive() {
 		return active;
 	}
@@ -34,6 +56,8 @@ public class ProductDTO {
     public void setPrice(BigDecimal price) { this.price = price; }
     public Integer getStockQuantity() { return stockQuantity; }
     public void setStockQuantity(Integer stockQuantity) { this.stockQuantity = stockQuantity; }
+    public Integer getAvailableStock() { return availableStock; }
+    public void setAvailableStock(Integer availableStock) { this.availableStock = availableStock; }
     public Category getCategory() { return category; }
     public void setCategory(Category category) { this.category = category; }
     public Double getDiscountPercentage() { return discountPercentage; }
@@ -0,0 +1,24 @@
+package com.acc.dto;
+
+import java.util.List;
+
+public class ProductPageResponse {
+    private List<ProductDTO> items;
+    private String nextCursor;
+    private int limit;
+
+    public ProductPageResponse() {}
+
+    public ProductPageResponse(List<ProductDTO> items, String nextCursor, int limit) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+
+    public List<ProductDTO> getItems() { return items; }
+    public void setItems(List<ProductDTO> items) { this.items = items; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+}
@@ -0,0 +1,49 @@
+package com.acc.dto;
+
+import com.acc.entity.Category;
+
+import java.math.BigDecimal;
+
+public class ProductSearchCriteria {
+    public static final int MAX_SIZE = 100;
+
+    private String query;
+    private Category category;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private boolean inStock;
+    private ProductSearchSort sort = ProductSearchSort.RELEVANCE;
+    private int size = 20;
+    private String after;
+    private boolean facets = true;
+
+    public ProductSearchCriteria() {}
+
+    public String getQuery() { return query; }
+    public void setQuery(String query) { this.query = query; }
+    public Category getCategory() { return category; }
+    public void setCategory(Category category) { this.category = category; }
+    public BigDecimal getMinPrice() { return minPrice; }
+    public void setMinPrice(BigDecimal minPrice) { this.minPrice = minPrice; }
+    public BigDecimal getMaxPrice() { return maxPrice; }
+    public void setMaxPrice(BigDecimal maxPrice) { this.maxPrice = maxPrice; }
+    public boolean isInStock() { return inStock; }
+    public void setInStock(boolean inStock) { this.inStock = inStock; }
+    public ProductSearchSort getSort() { return sort; }
+    public void setSort(ProductSearchSort sort) { this.sort = sort; }
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+    public String getAfter() { return after; }
+    public void setAfter(String after) { this.after = after; }
+    public boolean isFacets() { return facets; }
+    public void setFacets(boolean facets) { this.facets = facets; }
+
+    /** The page size every backend actually serves: at least 1, at most {@link #MAX_SIZE}. */
+    public int getEffectiveSize() {
+        return Math.min(Math.max(size, 1), MAX_SIZE);
+    }
+
+    public boolean hasQuery() {
+        return query != null && !query.trim().isEmpty();
+    }
+}
@@ -0,0 +1,25 @@
+package com.acc.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductSearchFacets {
+    private List<FacetBucket> categories = new ArrayList<>();
+    private List<FacetBucket> priceRanges = new ArrayList<>();
+    private List<FacetBucket> discountBands = new ArrayList<>();
+    private long inStock;
+    private long outOfStock;
+
+    public ProductSearchFacets() {}
+
+    public List<FacetBucket> getCategories() { return categories; }
+    public void setCategories(List<FacetBucket> categories) { this.categories = categories; }
+    public List<FacetBucket> getPriceRanges() { return priceRanges; }
+    public void setPriceRanges(List<FacetBucket> priceRanges) { this.priceRanges = priceRanges; }
+    public List<FacetBucket> getDiscountBands() { return discountBands; }
+    public void setDiscountBands(List<FacetBucket> discountBands) { this.discountBands = discountBands; }
+    public long getInStock() { return inStock; }
+    public void setInStock(long inStock) { this.inStock = inStock; }
+    public long getOutOfStock() { return outOfStock; }
+    public void setOutOfStock(long outOfStock) { this.outOfStock = outOfStock; }
+}
@@ -0,0 +1,36 @@
+package com.acc.dto;
+
+import com.acc.elasticsearch.entity.ProductDocument;
+
+import java.util.List;
+
+public class ProductSearchResponse {
+    private List<ProductDocument> items;
+    private long totalHits;
+    private String nextCursor;
+    private int size;
+    private ProductSearchFacets facets;
+    private String engine;
+
+    public ProductSearchResponse() {}
+
+    public ProductSearchResponse(List<ProductDocument> items, long totalHits, String nextCursor, int size) {
+        this.items = items;
+        this.totalHits = totalHits;
+        this.nextCursor = nextCursor;
+        this.size = size;
+    }
+
+    public List<ProductDocument> getItems() { return items; }
+    public void setItems(List<ProductDocument> items) { this.items = items; }
+    public long getTotalHits() { return totalHits; }
+    public void setTotalHits(long totalHits) { this.totalHits = totalHits; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+    public ProductSearchFacets getFacets() { return facets; }
+    public void setFacets(ProductSearchFacets facets) { this.facets = facets; }
+    public String getEngine() { return engine; }
+    public void setEngine(String engine) { this.engine = engine; }
+}
@@ -0,0 +1,8 @@
+package com.acc.dto;
+
+public enum ProductSearchSort {
+    RELEVANCE,
+    PRICE_ASC,
+    PRICE_DESC,
+    DISCOUNT_DESC
+}
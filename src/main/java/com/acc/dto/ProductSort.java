@@ -0,0 +1,7 @@
+package com.acc.dto;
+
+public enum ProductSort {
+    ID,
+    PRICE_ASC,
+    PRICE_DESC
+}
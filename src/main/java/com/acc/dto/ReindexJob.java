@@ -0,0 +1,73 @@
+package com.acc.dto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one blue/green rebuild of the products index. Serialized as-is by the
+ * search-index endpoints; counters are written by the reindex thread and read by pollers.
+ */
+public class ReindexJob {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    private final String targetIndex;
+    private final long totalProducts;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong indexed = new AtomicLong();
+    private volatile String previousIndex;
+    private volatile long finishedNanos;
+    private volatile LocalDateTime completedAt;
+    private volatile Status status = Status.RUNNING;
+    private volatile String message;
+
+    public ReindexJob(String targetIndex, long totalProducts) {
+        this.targetIndex = targetIndex;
+        this.totalProducts = totalProducts;
+    }
+
+    public void recordIndexed(int count) { indexed.addAndGet(count); }
+
+    public void complete(String previousIndex) {
+        this.previousIndex = previousIndex;
+        finish(Status.COMPLETED, null);
+    }
+
+    public void fail(String message) {
+        finish(Status.FAILED, message);
+    }
+
+    private void finish(Status status, String message) {
+        this.message = message;
+        this.finishedNanos = System.nanoTime();
+        this.completedAt = LocalDateTime.now();
+        this.status = status;
+    }
+
+    public boolean isRunning() { return status == Status.RUNNING; }
+
+    public String getTargetIndex() { return targetIndex; }
+    public String getPreviousIndex() { return previousIndex; }
+    public Status getStatus() { return status; }
+    public String getMessage() { return message; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public long getTotalProducts() { return totalProducts; }
+    public long getIndexed() { return indexed.get(); }
+
+    public double getPercentComplete() {
+        return totalProducts == 0 ? 100.0 : Math.min(100.0, indexed.get() * 100.0 / totalProducts);
+    }
+
+    public long getElapsedMs() {
+        long end = finishedNanos != 0 ? finishedNanos : System.nanoTime();
+        return Duration.ofNanos(end - startNanos).toMillis();
+    }
+
+    public double getDocsPerSecond() {
+        long elapsed = getElapsedMs();
+        return elapsed == 0 ? 0 : indexed.get() * 1000.0 / elapsed;
+    }
+}
@@ -1,28 +1,142 @@
 package com.acc.elasticsearch.controller;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.stream.Stream;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.acc.dto.CacheStatsDTO;
+import com.acc.dto.ProductSearchCriteria;
+import com.acc.dto.ProductSearchResponse;
+import com.acc.dto.ProductSearchSort;
+import com.acc.dto.ReindexJob;
 import com.acc.elasticsearch.entity.ProductDocument;
 import com.acc.elasticsearch.serviceimpl.ProductDocumentService;
+import com.acc.elasticsearch.serviceimpl.ProductIndexManager;
+import com.acc.entity.Category;
+import com.acc.entity.IndexSyncCheckpoint;
+import com.acc.service.ProductSearchService;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductSearchController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final int EXPORT_FLUSH_EVERY = 500;
+
     @Autowired
     private ProductDocumentService productDocumentService;
 
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private ProductIndexManager productIndexManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping("/search")
-    public List<ProductDocument> searchProducts(@RequestParam String query) {
-        
-        return productDocumentService.searchProducts(query);
+    public ProductSearchResponse searchProducts(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "false") boolean inStock,
+            @RequestParam(defaultValue = "RELEVANCE") String sort,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "true") boolean facets) {
+        try {
+            ProductSearchCriteria criteria = new ProductSearchCriteria();
+            criteria.setQuery(query);
+            if (category != null && !category.trim().isEmpty()) {
+                criteria.setCategory(Category.valueOf(category.trim().toUpperCase()));
+            }
+            criteria.setMinPrice(minPrice);
+            criteria.setMaxPrice(maxPrice);
+            criteria.setInStock(inStock);
+            criteria.setSort(ProductSearchSort.valueOf(sort.trim().toUpperCase()));
+            criteria.setSize(size);
+            criteria.setAfter(after);
+            criteria.setFacets(facets);
+            return productSearchService.search(criteria);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e);
+        }
+    }
+    @GetMapping("/search-cache-stats")
+    public CacheStatsDTO getSearchCacheStats() {
+        return productSearchService.getSearchCacheStats();
+    }
+
+    @PostMapping("/search-index/resync")
+    public ResponseEntity<IndexSyncCheckpoint> resyncSearchIndex(@RequestParam(defaultValue = "false") boolean restart) {
+        try {
+            return ResponseEntity.accepted().body(productDocumentService.startResync(restart));
+        } catch (IllegalStateException | TaskRejectedException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        }
     }
+
+    @GetMapping("/search-index/resync")
+    public IndexSyncCheckpoint getResyncStatus() {
+        return productDocumentService.getResyncStatus();
+    }
+
+    @PostMapping("/search-index/reindex")
+    public ResponseEntity<ReindexJob> reindex() {
+        try {
+            return ResponseEntity.accepted().body(productIndexManager.startReindex());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        }
+    }
+
+    @GetMapping("/search-index/reindex")
+    public ReindexJob getReindexStatus() {
+        ReindexJob job = productIndexManager.getReindexStatus();
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No reindex has run since startup.");
+        }
+        return job;
+    }
+
+    /** Streams the whole index as NDJSON, one product per line, without buffering it. */
     @GetMapping("/products/all")
-    public List<ProductDocument> getAllProducts() {
-        return productDocumentService.getAllProducts();
+    public ResponseEntity<StreamingResponseBody> getAllProducts() {
+        StreamingResponseBody body = this::writeNdjson;
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    private void writeNdjson(OutputStream out) throws IOException {
+        long written = 0;
+        try (Stream<ProductDocument> products = productDocumentService.streamAllProducts()) {
+            Iterator<ProductDocument> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                out.write('\n');
+                // Flush the first line straight away, then in chunks.
+                if (++written == 1 || written % EXPORT_FLUSH_EVERY == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
     }
 }
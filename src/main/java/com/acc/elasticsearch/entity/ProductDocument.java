@@ -1,20 +1,28 @@
 package com.acc.elasticsearch.entity;
 
+import com.acc.entity.Product;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.annotations.InnerField;
+import org.springframework.data.elasticsearch.annotations.MultiField;
+import org.springframework.data.elasticsearch.annotations.Setting;
 
 import java.math.BigDecimal;
 
-@Document(indexName = "products") 
+@Document(indexName = "products", createIndex = false)
+@Setting(settingPath = "/elasticsearch/product-settings.json")
 public class ProductDocument {
 
     @Id
     @Field(type = FieldType.Long)
     private Long id;
 
-    @Field(type = FieldType.Text, analyzer = "english")
+    @MultiField(
+            mainField = @Field(type = FieldType.Text, analyzer = "english"),
+            otherFields = @InnerField(suffix = "autocomplete", type = FieldType.Text,
+                    analyzer = "autocomplete", searchAnalyzer = "standard"))
     private String name;
 
     @Field(type = FieldType.Text, analyzer = "english")
@@ -45,7 +53,19 @@ public class ProductDocument {
         this.discountPercentage = discountPercentage;
     }
 
-   
+    public static ProductDocument fromProduct(Product product) {
+        ProductDocument document = new ProductDocument();
+        document.setId(product.getId());
+        document.setName(product.getName());
+        document.setDescription(product.getDescription());
+        if (product.getCategory() != null) {
+            document.setCategory(product.getCategory().name());
+        }
+        document.setPrice(product.getPrice());
+        document.setStockQuantity(product.getStockQuantity());
+        document.setDiscountPercentage(product.getDiscountPercentage());
+        return document;
+    }
 
     public Long getId() {
         return id;
@@ -1,21 +1,51 @@
 package com.acc.elasticsearch.serviceimpl;
 
+import co.elastic.clients.elasticsearch._types.SortOptions;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.FiltersBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.HistogramBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.json.JsonData;
+import com.acc.dto.FacetBucket;
+import com.acc.dto.ProductSearchCriteria;
+import com.acc.dto.ProductSearchFacets;
+import com.acc.dto.ProductSearchResponse;
 import com.acc.elasticsearch.entity.ProductDocument;
-import com.acc.elasticsearch.repository.ProductDocumentRepository;
+import com.acc.repository.IndexSyncCheckpointRepository;
 import com.acc.repository.ProductRepository;
+import com.acc.util.FacetBands;
+import com.acc.util.SearchCursor;
+import com.acc.entity.Category;
+import com.acc.entity.IndexSyncCheckpoint;
 import com.acc.entity.Product;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregation;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.PageRequest;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
-import java.math.BigDecimal;
-import java.util.stream.StreamSupport;
+import java.util.stream.Stream;
 
 @Service
 public class ProductDocumentService {
@@ -23,55 +53,323 @@ public class ProductDocumentService {
     private static final Logger logger = LoggerFactory.getLogger(ProductDocumentService.class);
 
     @Autowired
-    private ProductDocumentRepository productDocumentRepository;
+    private ProductRepository productRepository;
 
     @Autowired
-    private ProductRepository productRepository;
+    private IndexSyncCheckpointRepository checkpointRepository;
+
+    @Value("${search.resync.page-size:1000}")
+    private int resyncPageSize;
+
+    @Autowired
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Autowired
+    private ProductIndexManager productIndexManager;
+
+    @Autowired
+    @Qualifier("resyncExecutor")
+    private ThreadPoolTaskExecutor resyncExecutor;
+
+    private final AtomicBoolean resyncRunning = new AtomicBoolean();
+
+    private static final String PRODUCTS_INDEX = "products";
+
+    private static final String CATEGORY_FACET = "categories";
+    private static final String PRICE_FACET = "prices";
+    private static final String DISCOUNT_FACET = "discounts";
+    private static final String STOCK_FACET = "stock";
+    private static final String IN_STOCK_BUCKET = "inStock";
+    private static final String OUT_OF_STOCK_BUCKET = "outOfStock";
+
+    @Value("${search.facets.price-interval:50}")
+    private double priceFacetInterval;
+
+    @Value("${search.export.batch-size:1000}")
+    private int exportBatchSize;
 
-    @Transactional(readOnly = true)
     public void saveAllProductsToElasticsearch() {
         try {
-            List<Product> allProducts = productRepository.findAll();
-            List<ProductDocument> elasticProducts = allProducts.stream()
-                .map(this::toProductDocument)
-                .collect(Collectors.toList());
-
-            productDocumentRepository.saveAll(elasticProducts);
-            logger.info("Successfully synchronized {} products to Elasticsearch.", elasticProducts.size());
+            resync(productIndexManager.ensureAliases());
         } catch (Exception e) {
             logger.error("Error during product synchronization to Elasticsearch: {}", e.getMessage(), e);
         }
     }
 
-    
-    public List<ProductDocument> getAllProducts() {
-        
-        Iterable<ProductDocument> allProductsIterable = productDocumentRepository.findAll();
-        List<ProductDocument> allProductsList = StreamSupport.stream(allProductsIterable.spliterator(), false)
-                .collect(Collectors.toList());
-        
-        logger.info("Retrieved {} products from Elasticsearch.", allProductsList.size());
-        return allProductsList;
+    /**
+     * Copies the products table into the index one keyset page at a time, checkpointing the
+     * last indexed id after every page. A resync that dies part-way resumes from that id on
+     * the next run; {@code restart} forces a pass from the beginning.
+     *
+     * @throws IllegalStateException if a resync is already running
+     */
+    public IndexSyncCheckpoint resync(boolean restart) {
+        claimResync();
+        try {
+            return copyProducts(openCheckpoint(restart));
+        } finally {
+            resyncRunning.set(false);
+        }
     }
 
-   
-    public List<ProductDocument> searchProducts(String query) {
-        PageRequest pageRequest = PageRequest.of(0, 100);
-        return productDocumentRepository.findByNameOrDescription(query, query, pageRequest).getContent();
+    /**
+     * Runs {@link #resync} on the resync executor and returns the checkpoint it starts from;
+     * progress is read back through {@link #getResyncStatus}.
+     *
+     * @throws IllegalStateException if a resync is already running
+     */
+    public IndexSyncCheckpoint startResync(boolean restart) {
+        claimResync();
+        try {
+            IndexSyncCheckpoint checkpoint = openCheckpoint(restart);
+            resyncExecutor.execute(() -> {
+                try {
+                    copyProducts(checkpoint);
+                } catch (Exception e) {
+                    logger.error("Product resync failed after ID {}: {}", checkpoint.getLastProductId(), e.getMessage(), e);
+                } finally {
+                    resyncRunning.set(false);
+                }
+            });
+            return checkpoint;
+        } catch (RuntimeException e) {
+            resyncRunning.set(false);
+            throw e;
+        }
     }
 
-    
-    private ProductDocument toProductDocument(Product product) {
-        ProductDocument elasticProduct = new ProductDocument();
-        elasticProduct.setId(product.getId());
-        elasticProduct.setName(product.getName());
-        elasticProduct.setDescription(product.getDescription());
-        if (product.getCategory() != null) {
-            elasticProduct.setCategory(product.getCategory().name());
+    private void claimResync() {
+        if (!resyncRunning.compareAndSet(false, true)) {
+            throw new IllegalStateException("A product resync is already running.");
         }
-        elasticProduct.setPrice(product.getPrice());
-        elasticProduct.setStockQuantity(product.getStockQuantity());
-        elasticProduct.setDiscountPercentage(product.getDiscountPercentage());
-        return elasticProduct;
+    }
+
+    private IndexSyncCheckpoint openCheckpoint(boolean restart) {
+        IndexSyncCheckpoint checkpoint = checkpointRepository.findById(PRODUCTS_INDEX)
+                .orElseGet(() -> new IndexSyncCheckpoint(PRODUCTS_INDEX));
+        if (restart || checkpoint.isCompleted() || checkpoint.getStartedAt() == null) {
+            checkpoint.setLastProductId(0L);
+            checkpoint.setIndexedCount(0L);
+            checkpoint.setCompleted(false);
+            checkpoint.setStartedAt(LocalDateTime.now());
+            return checkpointRepository.save(checkpoint);
+        }
+        logger.info("Resuming product resync after ID {} ({} already indexed).",
+                checkpoint.getLastProductId(), checkpoint.getIndexedCount());
+        return checkpoint;
+    }
+
+    private IndexSyncCheckpoint copyProducts(IndexSyncCheckpoint checkpoint) {
+        long start = System.nanoTime();
+        List<Product> page;
+        while (!(page = productRepository.findByIdGreaterThanOrderByIdAsc(
+                checkpoint.getLastProductId(), PageRequest.of(0, resyncPageSize))).isEmpty()) {
+            List<ProductDocument> documents = page.stream()
+                    .map(ProductDocument::fromProduct)
+                    .collect(Collectors.toList());
+            productIndexManager.index(documents);
+
+            checkpoint.setLastProductId(page.get(page.size() - 1).getId());
+            checkpoint.setIndexedCount(checkpoint.getIndexedCount() + documents.size());
+            checkpoint = checkpointRepository.save(checkpoint);
+            logger.debug("Resync indexed {} products up to ID {}.", checkpoint.getIndexedCount(), checkpoint.getLastProductId());
+        }
+
+        checkpoint.setCompleted(true);
+        checkpoint = checkpointRepository.save(checkpoint);
+        logger.info("Successfully synchronized {} products to Elasticsearch in {} ms.",
+                checkpoint.getIndexedCount(), (System.nanoTime() - start) / 1_000_000);
+        return checkpoint;
+    }
+
+    /** Cheap round trip used by the search health probe; throws when the cluster is unreachable. */
+    public boolean isAvailable() {
+        return elasticsearchOperations.indexOps(ProductDocument.class).exists();
+    }
+
+    public IndexSyncCheckpoint getResyncStatus() {
+        return checkpointRepository.findById(PRODUCTS_INDEX).orElseGet(() -> new IndexSyncCheckpoint(PRODUCTS_INDEX));
+    }
+
+    /**
+     * Walks the whole index through a scroll cursor, holding one batch of hits at a time.
+     * The stream must be closed to release the scroll context.
+     */
+    public Stream<ProductDocument> streamAllProducts() {
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(Query.of(q -> q.matchAll(m -> m)))
+                .withPageable(PageRequest.of(0, exportBatchSize))
+                .build();
+        return elasticsearchOperations.searchForStream(query, ProductDocument.class).stream()
+                .map(SearchHit::getContent);
+    }
+
+    /**
+     * Runs one bool query combining the text match with category, price and stock filters.
+     * Pages are chained with {@code search_after} on the sort values of the last hit (with
+     * the id as tie-breaker), so deep pages cost the same as the first one.
+     */
+    public ProductSearchResponse search(ProductSearchCriteria criteria) {
+        int size = criteria.getEffectiveSize();
+
+        NativeQueryBuilder builder = NativeQuery.builder()
+                .withQuery(buildSearchQuery(criteria))
+                .withSort(sortOptions(criteria))
+                .withPageable(PageRequest.of(0, size))
+                .withTrackTotalHits(true);
+        boolean firstPage = criteria.getAfter() == null || criteria.getAfter().isEmpty();
+        if (!firstPage) {
+            builder.withSearchAfter(SearchCursor.decode(criteria.getAfter()));
+        }
+        // Facets describe the whole result set, so they are only computed for the first page.
+        boolean withFacets = criteria.isFacets() && firstPage;
+        if (withFacets) {
+            addFacetAggregations(builder);
+        }
+
+        SearchHits<ProductDocument> hits = elasticsearchOperations.search(builder.build(), ProductDocument.class);
+        List<ProductDocument> items = new ArrayList<>(hits.getSearchHits().size());
+        List<Object> lastSortValues = null;
+        for (SearchHit<ProductDocument> hit : hits.getSearchHits()) {
+            items.add(hit.getContent());
+            lastSortValues = hit.getSortValues();
+        }
+        String nextCursor = items.size() == size && lastSortValues != null ? SearchCursor.encode(lastSortValues) : null;
+        logger.debug("Search for '{}' matched {} products, returning {}.", criteria.getQuery(), hits.getTotalHits(), items.size());
+        ProductSearchResponse response = new ProductSearchResponse(items, hits.getTotalHits(), nextCursor, size);
+        if (withFacets) {
+            response.setFacets(readFacets(hits));
+        }
+        return response;
+    }
+
+    private void addFacetAggregations(NativeQueryBuilder builder) {
+        builder.withAggregation(CATEGORY_FACET, Aggregation.of(a -> a.terms(t -> t.field("category").size(Category.values().length))));
+        builder.withAggregation(PRICE_FACET, Aggregation.of(a -> a.histogram(h -> h.field("price").interval(priceFacetInterval).minDocCount(1))));
+
+        Map<String, Query> discountBands = new LinkedHashMap<>();
+        for (double[] band : FacetBands.DISCOUNT_BANDS) {
+            discountBands.put(FacetBands.discountBandKey(band), Query.of(q -> q.range(r -> {
+                r.field("discountPercentage").gte(JsonData.of(band[0]));
+                if (band.length > 1) {
+                    r.lt(JsonData.of(band[1]));
+                }
+                return r;
+            })));
+        }
+        builder.withAggregation(DISCOUNT_FACET, Aggregation.of(a -> a.filters(f -> f.filters(b -> b.keyed(discountBands)))));
+
+        Map<String, Query> stock = new LinkedHashMap<>();
+        stock.put(IN_STOCK_BUCKET, Query.of(q -> q.range(r -> r.field("stockQuantity").gt(JsonData.of(0)))));
+        stock.put(OUT_OF_STOCK_BUCKET, Query.of(q -> q.range(r -> r.field("stockQuantity").lte(JsonData.of(0)))));
+        builder.withAggregation(STOCK_FACET, Aggregation.of(a -> a.filters(f -> f.filters(b -> b.keyed(stock)))));
+    }
+
+    private ProductSearchFacets readFacets(SearchHits<ProductDocument> hits) {
+        ProductSearchFacets facets = new ProductSearchFacets();
+        if (!(hits.getAggregations() instanceof ElasticsearchAggregations aggregations)) {
+            return facets;
+        }
+        Map<String, ElasticsearchAggregation> byName = aggregations.aggregationsAsMap();
+
+        ElasticsearchAggregation categories = byName.get(CATEGORY_FACET);
+        if (categories != null) {
+            for (StringTermsBucket bucket : categories.aggregation().getAggregate().sterms().buckets().array()) {
+                facets.getCategories().add(new FacetBucket(bucket.key().stringValue(), null, null, bucket.docCount()));
+            }
+        }
+        ElasticsearchAggregation prices = byName.get(PRICE_FACET);
+        if (prices != null) {
+            for (HistogramBucket bucket : prices.aggregation().getAggregate().histogram().buckets().array()) {
+                double from = bucket.key();
+                double to = from + priceFacetInterval;
+                facets.getPriceRanges().add(new FacetBucket(FacetBands.rangeKey(from, to), from, to, bucket.docCount()));
+            }
+        }
+        ElasticsearchAggregation discounts = byName.get(DISCOUNT_FACET);
+        if (discounts != null) {
+            Map<String, FiltersBucket> buckets = discounts.aggregation().getAggregate().filters().buckets().keyed();
+            for (double[] band : FacetBands.DISCOUNT_BANDS) {
+                FiltersBucket bucket = buckets.get(FacetBands.discountBandKey(band));
+                facets.getDiscountBands().add(new FacetBucket(FacetBands.discountBandKey(band), band[0],
+                        band.length > 1 ? band[1] : null, bucket != null ? bucket.docCount() : 0));
+            }
+        }
+        ElasticsearchAggregation stock = byName.get(STOCK_FACET);
+        if (stock != null) {
+            Map<String, FiltersBucket> buckets = stock.aggregation().getAggregate().filters().buckets().keyed();
+            facets.setInStock(buckets.containsKey(IN_STOCK_BUCKET) ? buckets.get(IN_STOCK_BUCKET).docCount() : 0);
+            facets.setOutOfStock(buckets.containsKey(OUT_OF_STOCK_BUCKET) ? buckets.get(OUT_OF_STOCK_BUCKET).docCount() : 0);
+        }
+        return facets;
+    }
+
+
+    private Query buildSearchQuery(ProductSearchCriteria criteria) {
+        BoolQuery.Builder bool = new BoolQuery.Builder();
+        if (criteria.hasQuery()) {
+            bool.must(Query.of(q -> q.multiMatch(m -> m
+                    .query(criteria.getQuery().trim())
+                    .fields("name^2", "description"))));
+        }
+        if (criteria.getCategory() != null) {
+            bool.filter(Query.of(q -> q.term(t -> t.field("category").value(criteria.getCategory().name()))));
+        }
+        if (criteria.getMinPrice() != null || criteria.getMaxPrice() != null) {
+            bool.filter(Query.of(q -> q.range(r -> {
+                r.field("price");
+                if (criteria.getMinPrice() != null) {
+                    r.gte(JsonData.of(criteria.getMinPrice()));
+                }
+                if (criteria.getMaxPrice() != null) {
+                    r.lte(JsonData.of(criteria.getMaxPrice()));
+                }
+                return r;
+            })));
+        }
+        if (criteria.isInStock()) {
+            bool.filter(Query.of(q -> q.range(r -> r.field("stockQuantity").gt(JsonData.of(0)))));
+        }
+        return Query.of(q -> q.bool(bool.build()));
+    }
+
+    /**
+     * Fuzzy typeahead against the edge-ngram {@code name.autocomplete} subfield; used when
+     * the in-memory suggest trie has no (or too few) exact prefix matches.
+     */
+    public List<ProductDocument> suggest(String prefix, int limit) {
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(Query.of(q -> q.match(m -> m
+                        .field("name.autocomplete")
+                        .query(prefix)
+                        .fuzziness("AUTO")
+                        .operator(Operator.And))))
+                .withPageable(PageRequest.of(0, limit))
+                .build();
+        List<ProductDocument> documents = new ArrayList<>(limit);
+        for (SearchHit<ProductDocument> hit : elasticsearchOperations.search(query, ProductDocument.class)) {
+            documents.add(hit.getContent());
+        }
+        return documents;
+    }
+
+    private List<SortOptions> sortOptions(ProductSearchCriteria criteria) {
+        List<SortOptions> sorts = new ArrayList<>();
+        switch (criteria.getSort()) {
+            case PRICE_ASC -> sorts.add(fieldSort("price", SortOrder.Asc));
+            case PRICE_DESC -> sorts.add(fieldSort("price", SortOrder.Desc));
+            case DISCOUNT_DESC -> sorts.add(fieldSort("discountPercentage", SortOrder.Desc));
+            default -> {
+                if (criteria.hasQuery()) {
+                    sorts.add(SortOptions.of(s -> s.score(sc -> sc.order(SortOrder.Desc))));
+                }
+            }
+        }
+        sorts.add(fieldSort("id", SortOrder.Asc));
+        return sorts;
+    }
+
+    private static SortOptions fieldSort(String field, SortOrder order) {
+        return SortOptions.of(s -> s.field(f -> f.field(field).order(order)));
     }
 }
@@ -0,0 +1,305 @@
+package com.acc.elasticsearch.serviceimpl;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.indices.update_aliases.Action;
+import com.acc.dto.ReindexJob;
+import com.acc.elasticsearch.entity.ProductDocument;
+import com.acc.entity.Product;
+import com.acc.repository.ProductRepository;
+import com.acc.serviceImpl.SearchResultCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Owns the physical layout of the products index. Searches read through the
+ * {@value #READ_ALIAS} alias and all writes go through {@value #WRITE_ALIAS}; both point at
+ * one versioned index ({@code products-v<timestamp>}). A reindex builds the next version
+ * next to the live one and swaps both aliases in a single atomic request, so mapping
+ * changes never take search offline.
+ */
+@Service
+public class ProductIndexManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductIndexManager.class);
+
+    public static final String READ_ALIAS = "products";
+    public static final String WRITE_ALIAS = "products-write";
+    private static final String VERSION_PREFIX = "products-v";
+    private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    @Autowired
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Autowired
+    private ElasticsearchClient elasticsearchClient;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    @Qualifier("reindexExecutor")
+    private ThreadPoolTaskExecutor reindexExecutor;
+
+    @Value("${search.reindex.page-size:2000}")
+    private int pageSize;
+
+    @Value("${search.reindex.replicas:1}")
+    private String replicas;
+
+    @Value("${search.reindex.refresh-interval:1s}")
+    private String refreshInterval;
+
+    private volatile ReindexJob currentJob;
+    // Set while a reindex is copying; live writes are mirrored into it.
+    private volatile String buildingIndex;
+    private final Set<Long> changedWhileBuilding = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Makes sure the aliases exist. A fresh cluster gets a first versioned index; an index
+     * left over from before aliases (a concrete index named {@value #READ_ALIAS}) keeps
+     * serving reads and gets the write alias until the first reindex replaces it.
+     *
+     * @return true when a new, empty index was created and needs a full sync
+     */
+    public synchronized boolean ensureAliases() {
+        try {
+            if (elasticsearchClient.indices().existsAlias(e -> e.name(READ_ALIAS)).value()) {
+                return false;
+            }
+            if (elasticsearchClient.indices().exists(e -> e.index(READ_ALIAS)).value()) {
+                elasticsearchClient.indices().updateAliases(u -> u.actions(List.of(addAlias(READ_ALIAS, WRITE_ALIAS, true))));
+                logger.warn("Index '{}' predates aliases; writes now go through '{}'. Run a reindex to migrate it.",
+                        READ_ALIAS, WRITE_ALIAS);
+                return false;
+            }
+            String index = createIndex();
+            applyServingSettings(index);
+            elasticsearchClient.indices().updateAliases(u -> u.actions(List.of(
+                    addAlias(index, READ_ALIAS, false), addAlias(index, WRITE_ALIAS, true))));
+            logger.info("Created products index '{}' behind aliases '{}' and '{}'.", index, READ_ALIAS, WRITE_ALIAS);
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Bulk-indexes documents through the write alias, and into the index being built if any. */
+    public void index(List<ProductDocument> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        List<Long> ids = documents.stream().map(ProductDocument::getId).collect(Collectors.toList());
+        for (IndexCoordinates target : writeTargets(ids)) {
+            elasticsearchOperations.save(documents, target);
+        }
+        searchResultCache.invalidateProducts(ids);
+    }
+
+    /** Bulk-deletes documents through the write alias, and from the index being built if any. */
+    public void delete(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        for (IndexCoordinates target : writeTargets(ids)) {
+            deleteDocuments(target.getIndexName(), ids);
+        }
+        searchResultCache.invalidateProducts(ids);
+    }
+
+    // One bulk request of delete operations; ids that are already gone come back not_found, not as errors.
+    private void deleteDocuments(String index, Collection<Long> ids) {
+        List<BulkOperation> operations = ids.stream()
+                .map(id -> BulkOperation.of(o -> o.delete(d -> d.index(index).id(String.valueOf(id)))))
+                .collect(Collectors.toList());
+        BulkResponse response;
+        try {
+            response = elasticsearchClient.bulk(b -> b.operations(operations));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (response.errors()) {
+            List<String> failures = response.items().stream()
+                    .filter(item -> item.error() != null)
+                    .map(item -> item.id() + ": " + item.error().reason())
+                    .collect(Collectors.toList());
+            throw new IllegalStateException("Bulk delete from " + index + " failed for " + failures.size()
+                    + " document(s): " + failures);
+        }
+    }
+
+    private List<IndexCoordinates> writeTargets(Collection<Long> ids) {
+        List<IndexCoordinates> targets = new ArrayList<>(2);
+        targets.add(IndexCoordinates.of(WRITE_ALIAS));
+        String building = buildingIndex;
+        if (building != null) {
+            targets.add(IndexCoordinates.of(building));
+            changedWhileBuilding.addAll(ids);
+        }
+        return targets;
+    }
+
+    public ReindexJob getReindexStatus() {
+        return currentJob;
+    }
+
+    /**
+     * Starts a rebuild on the reindex executor and returns its job straight away.
+     *
+     * @throws IllegalStateException if a rebuild is already running
+     */
+    public synchronized ReindexJob startReindex() {
+        if (currentJob != null && currentJob.isRunning()) {
+            throw new IllegalStateException("Reindex into " + currentJob.getTargetIndex() + " is already running.");
+        }
+        ReindexJob job = new ReindexJob(VERSION_PREFIX + LocalDateTime.now().format(VERSION_FORMAT), productRepository.count());
+        currentJob = job;
+        reindexExecutor.execute(() -> runReindex(job));
+        return job;
+    }
+
+    private void runReindex(ReindexJob job) {
+        String target = job.getTargetIndex();
+        try {
+            createIndex(target);
+            applyLoadingSettings(target);
+            changedWhileBuilding.clear();
+            buildingIndex = target;
+
+            long afterId = 0;
+            List<Product> page;
+            while (!(page = productRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, pageSize))).isEmpty()) {
+                elasticsearchOperations.save(toDocuments(page), IndexCoordinates.of(target));
+                afterId = page.get(page.size() - 1).getId();
+                job.recordIndexed(page.size());
+                logger.debug("Reindex into {}: {}/{} products ({} docs/s).", target, job.getIndexed(),
+                        job.getTotalProducts(), Math.round(job.getDocsPerSecond()));
+            }
+
+            // A page read before a concurrent update can land after the mirrored write, so
+            // re-copy everything touched during the bulk load from the database.
+            catchUp(target);
+            applyServingSettings(target);
+            elasticsearchClient.indices().refresh(r -> r.index(target));
+
+            String previous = swapAliases(target);
+            buildingIndex = null;
+            searchResultCache.clear();
+            deleteObsoleteIndices(target, previous);
+            job.complete(previous);
+            logger.info("Reindexed {} products into {} in {} ms ({} docs/s); previous index {}.", job.getIndexed(),
+                    target, job.getElapsedMs(), Math.round(job.getDocsPerSecond()), previous);
+        } catch (Exception e) {
+            buildingIndex = null;
+            job.fail(e.getMessage());
+            logger.error("Reindex into {} failed; search stays on the current index: {}", target, e.getMessage(), e);
+            try {
+                elasticsearchClient.indices().delete(d -> d.index(target));
+            } catch (Exception cleanup) {
+                logger.warn("Could not delete abandoned index {}: {}", target, cleanup.getMessage());
+            }
+        }
+    }
+
+    private void catchUp(String target) {
+        List<Long> ids = new ArrayList<>(changedWhileBuilding);
+        for (int from = 0; from < ids.size(); from += pageSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + pageSize, ids.size()));
+            List<Product> products = productRepository.findAllById(chunk);
+            if (!products.isEmpty()) {
+                elasticsearchOperations.save(toDocuments(products), IndexCoordinates.of(target));
+            }
+            Set<Long> missing = new HashSet<>(chunk);
+            products.forEach(p -> missing.remove(p.getId()));
+            if (!missing.isEmpty()) {
+                deleteDocuments(target, missing);
+            }
+        }
+        if (!ids.isEmpty()) {
+            logger.info("Reindex into {} caught up {} products changed during the bulk load.", target, ids.size());
+        }
+    }
+
+    private String swapAliases(String target) throws IOException {
+        List<Action> actions = new ArrayList<>();
+        String previous = null;
+        if (elasticsearchClient.indices().existsAlias(e -> e.name(READ_ALIAS)).value()) {
+            for (String index : elasticsearchClient.indices().getAlias(g -> g.name(READ_ALIAS)).result().keySet()) {
+                previous = index;
+                actions.add(Action.of(a -> a.remove(r -> r.index(index).alias(READ_ALIAS))));
+                actions.add(Action.of(a -> a.remove(r -> r.index(index).alias(WRITE_ALIAS))));
+            }
+        } else if (elasticsearchClient.indices().exists(e -> e.index(READ_ALIAS)).value()) {
+            // Pre-alias concrete index: it has to go in the same request that claims its name.
+            actions.add(Action.of(a -> a.removeIndex(r -> r.index(READ_ALIAS))));
+        }
+        actions.add(addAlias(target, READ_ALIAS, false));
+        actions.add(addAlias(target, WRITE_ALIAS, true));
+        elasticsearchClient.indices().updateAliases(u -> u.actions(actions));
+        return previous;
+    }
+
+    // Keeps the index just swapped out for rollback and drops anything older.
+    private void deleteObsoleteIndices(String current, String previous) throws IOException {
+        for (String index : elasticsearchClient.indices().get(g -> g.index(VERSION_PREFIX + "*")).result().keySet()) {
+            if (!index.equals(current) && !index.equals(previous)) {
+                elasticsearchClient.indices().delete(d -> d.index(index));
+                logger.info("Deleted obsolete products index {}.", index);
+            }
+        }
+    }
+
+    private String createIndex() {
+        String index = VERSION_PREFIX + LocalDateTime.now().format(VERSION_FORMAT);
+        createIndex(index);
+        return index;
+    }
+
+    private void createIndex(String index) {
+        IndexOperations indexOps = elasticsearchOperations.indexOps(IndexCoordinates.of(index));
+        indexOps.create(indexOps.createSettings(ProductDocument.class), indexOps.createMapping(ProductDocument.class));
+    }
+
+    private void applyLoadingSettings(String index) throws IOException {
+        elasticsearchClient.indices().putSettings(p -> p.index(index)
+                .settings(s -> s.refreshInterval(t -> t.time("-1")).numberOfReplicas("0")));
+    }
+
+    private void applyServingSettings(String index) throws IOException {
+        elasticsearchClient.indices().putSettings(p -> p.index(index)
+                .settings(s -> s.refreshInterval(t -> t.time(refreshInterval)).numberOfReplicas(replicas)));
+    }
+
+    private static Action addAlias(String index, String alias, boolean writeIndex) {
+        return Action.of(a -> a.add(ad -> ad.index(index).alias(alias).isWriteIndex(writeIndex)));
+    }
+
+    private static List<ProductDocument> toDocuments(List<Product> products) {
+        return products.stream().map(ProductDocument::fromProduct).collect(Collectors.toList());
+    }
+}
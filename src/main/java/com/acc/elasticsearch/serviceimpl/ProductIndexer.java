@@ -0,0 +1,92 @@
+package com.acc.elasticsearch.serviceimpl;
+
+import com.acc.elasticsearch.entity.ProductDocument;
+import com.acc.entity.Product;
+import com.acc.event.ProductChangedEvent;
+import com.acc.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the products index current from {@link ProductChangedEvent}s. Changed ids are
+ * collected after commit and flushed on a timer, so a burst of updates to one product
+ * becomes a single document write. Each flush re-reads the rows and sends one bulk
+ * index plus one bulk delete for ids that no longer exist.
+ */
+@Component
+public class ProductIndexer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductIndexer.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductIndexManager productIndexManager;
+
+    @Value("${search.indexer.batch-size:500}")
+    private int batchSize;
+
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        pending.addAll(event.getProductIds());
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${search.indexer.flush-interval-ms:1000}")
+    public void flush() {
+        while (!pending.isEmpty()) {
+            List<Long> ids = drain();
+            try {
+                indexBatch(ids);
+            } catch (Exception e) {
+                // Leave the ids queued; the next tick retries them.
+                pending.addAll(ids);
+                logger.error("Incremental indexing of {} products failed, will retry: {}", ids.size(), e.getMessage(), e);
+                return;
+            }
+        }
+    }
+
+    private List<Long> drain() {
+        List<Long> ids = new ArrayList<>(batchSize);
+        Iterator<Long> iterator = pending.iterator();
+        while (iterator.hasNext() && ids.size() < batchSize) {
+            ids.add(iterator.next());
+            iterator.remove();
+        }
+        return ids;
+    }
+
+    private void indexBatch(List<Long> ids) {
+        List<Product> products = productRepository.findAllById(ids);
+        Set<Long> missing = new HashSet<>(ids);
+        List<ProductDocument> documents = new ArrayList<>(products.size());
+        for (Product product : products) {
+            missing.remove(product.getId());
+            documents.add(ProductDocument.fromProduct(product));
+        }
+        productIndexManager.index(documents);
+        if (!missing.isEmpty()) {
+            productIndexManager.delete(missing);
+        }
+        logger.debug("Indexed {} and removed {} products from Elasticsearch.", documents.size(), missing.size());
+    }
+}
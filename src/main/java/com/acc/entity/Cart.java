@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 
@@ -34,6 +35,12 @@ public class Cart {
     @Column(nullable = false)
     private BigDecimal discountedAmount; 
 
+    // The total moves by read-modify-write deltas, so two concurrent edits of one cart must not
+    // both commit. Bulk updates of the total bump it as well.
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<CartItem> cartItems = new ArrayList<>();
 
@@ -62,6 +69,7 @@ public class Cart {
     public LocalDateTime getCreatedAt() { return createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public BigDecimal getTotalAmount() { return totalAmount; }
+    public long getVersion() { return version; }
     public BigDecimal getDiscountAmount() { return discountAmount; }
     public BigDecimal getDiscountedAmount() { return discountedAmount; }
     public List<CartItem> getCartItems() { return cartItems; }
@@ -97,6 +105,21 @@ public class Cart {
         }
     }
 
+    /** Moves the total by a line's {@link CartItem#reprice} delta. */
+    public void adjustTotal(BigDecimal delta) {
+        totalAmount = (totalAmount != null ? totalAmount : BigDecimal.ZERO).add(delta);
+    }
+
+    /** Drops the given lines and takes their stored line totals off the cart total. */
+    public void removeCartItems(Collection<CartItem> items) {
+        for (CartItem item : new ArrayList<>(items)) {
+            if (item.getLineTotal() != null) {
+                adjustTotal(item.getLineTotal().negate());
+            }
+            removeCartItem(item);
+        }
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -2,6 +2,7 @@ package com.acc.entity;
 
 import jakarta.persistence.*;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.Objects;
 
 @Entity
@@ -26,6 +27,16 @@ public class CartItem {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal price;
 
+    // Pricing snapshot maintained by reprice(); the cart total is the sum of lineTotal.
+    @Column(name = "discount_percentage")
+    private Double discountPercentage;
+
+    @Column(name = "discounted_price", precision = 10, scale = 2)
+    private BigDecimal discountedPrice;
+
+    @Column(name = "line_total", precision = 12, scale = 2)
+    private BigDecimal lineTotal;
+
     public CartItem() {
 
     }
@@ -59,6 +70,39 @@ public class CartItem {
         return price;
     }
 
+    public Double getDiscountPercentage() {
+        return discountPercentage;
+    }
+
+    public BigDecimal getDiscountedPrice() {
+        return discountedPrice;
+    }
+
+    public BigDecimal getLineTotal() {
+        return lineTotal;
+    }
+
+    /**
+     * Re-prices the line from its unit price, quantity and the given discount, and returns
+     * how much the line total moved so the cart total can be adjusted by the same amount.
+     */
+    public BigDecimal reprice(Double discountPercentage) {
+        BigDecimal previous = lineTotal != null ? lineTotal : BigDecimal.ZERO;
+        this.discountPercentage = discountPercentage;
+        this.discountedPrice = discountedUnitPrice(price, discountPercentage);
+        this.lineTotal = discountedPrice.multiply(BigDecimal.valueOf(quantity));
+        return lineTotal.subtract(previous);
+    }
+
+    public static BigDecimal discountedUnitPrice(BigDecimal price, Double discountPercentage) {
+        if (discountPercentage == null || discountPercentage <= 0.0) {
+            return price.setScale(2, RoundingMode.HALF_UP);
+        }
+        BigDecimal discountAmount = price.multiply(BigDecimal.valueOf(discountPercentage))
+                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+        return price.subtract(discountAmount).setScale(2, RoundingMode.HALF_UP);
+    }
+
     @Transient
     public BigDecimal getItemTotal() {
         if (price != null && quantity != null) {
@@ -110,9 +154,4 @@ public class CartItem {
                ", price=" + price +
                '}';
     }
-
-	public BigDecimal getDiscountedPrice() {
-		
-		return null;
-	}
 }
\ No newline at end of file
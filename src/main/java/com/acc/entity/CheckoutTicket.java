@@ -0,0 +1,67 @@
+package com.acc.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One asynchronous checkout, from the moment it is queued until a consumer has created the
+ * order or given up on it. Clients poll it by id; the consumer that processes the command
+ * moves it out of {@code QUEUED} in the same transaction that writes the order.
+ */
+@Entity
+@Table(name = "checkout_tickets",
+       indexes = @Index(name = "idx_checkout_ticket_updated", columnList = "updated_at"))
+public class CheckoutTicket {
+
+    public enum Status { QUEUED, COMPLETED, FAILED }
+
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(name = "cart_id")
+    private Long cartId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 12, nullable = false)
+    private Status status;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "order_code")
+    private String orderCode;
+
+    @Column(name = "message", length = 500)
+    private String message;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public CheckoutTicket() {}
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+    public Long getCartId() { return cartId; }
+    public void setCartId(Long cartId) { this.cartId = cartId; }
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+    public String getOrderCode() { return orderCode; }
+    public void setOrderCode(String orderCode) { this.orderCode = orderCode; }
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,32 @@
+package com.acc.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Next unleased value of a business-code sequence. Nodes lease blocks of values by moving
+ * {@code nextValue} forward, so every value is handed out at most once across the cluster.
+ */
+@Entity
+@Table(name = "code_sequences")
+public class CodeSequence {
+
+    @Id
+    @Column(name = "name", length = 50)
+    private String name;
+
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public CodeSequence() {}
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public Long getNextValue() { return nextValue; }
+    public void setNextValue(Long nextValue) { this.nextValue = nextValue; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
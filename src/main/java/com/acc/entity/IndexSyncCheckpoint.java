@@ -0,0 +1,53 @@
+package com.acc.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "index_sync_checkpoints")
+public class IndexSyncCheckpoint {
+
+    @Id
+    @Column(name = "index_name", length = 100)
+    private String indexName;
+
+    @Column(name = "last_product_id", nullable = false)
+    private Long lastProductId = 0L;
+
+    @Column(name = "indexed_count", nullable = false)
+    private Long indexedCount = 0L;
+
+    @Column(nullable = false)
+    private boolean completed;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public IndexSyncCheckpoint() {}
+
+    public IndexSyncCheckpoint(String indexName) {
+        this.indexName = indexName;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public String getIndexName() { return indexName; }
+    public void setIndexName(String indexName) { this.indexName = indexName; }
+    public Long getLastProductId() { return lastProductId; }
+    public void setLastProductId(Long lastProductId) { this.lastProductId = lastProductId; }
+    public Long getIndexedCount() { return indexedCount; }
+    public void setIndexedCount(Long indexedCount) { this.indexedCount = indexedCount; }
+    public boolean isCompleted() { return completed; }
+    public void setCompleted(boolean completed) { this.completed = completed; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
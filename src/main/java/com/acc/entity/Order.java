@@ -7,8 +7,24 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "customer_order")
+@NamedEntityGraph(name = Order.DETAILS,
+        attributeNodes = {
+                @NamedAttributeNode(value = "orderItems", subgraph = "items"),
+                @NamedAttributeNode(value = "customer", subgraph = "customer"),
+                @NamedAttributeNode("shippingAddress")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode("product")),
+                @NamedSubgraph(name = "customer", attributeNodes = @NamedAttributeNode("profile"))
+        })
+@Table(name = "customer_order", indexes = {
+        @Index(name = "idx_order_date_id", columnList = "order_date, id"),
+        @Index(name = "idx_order_customer_date_id", columnList = "customer_id, order_date, id")
+})
 public class Order {
+    /** Everything an order DTO or invoice reads: lines with products, customer with profile, address. */
+    public static final String DETAILS = "Order.details";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
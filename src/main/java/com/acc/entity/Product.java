@@ -5,7 +5,11 @@ import java.math.BigDecimal;
 import java.util.*;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_product_active_category_id", columnList = "active, category, id"),
+        @Index(name = "idx_product_active_price_id", columnList = "active, price, id"),
+        @Index(name = "idx_product_name_category", columnList = "name, category")
+})
 public class Product {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,38 @@
+package com.acc.event;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published whenever product rows change. Listeners that touch external systems should
+ * react after commit; in-process caches react immediately.
+ */
+public class ProductChangedEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED, STOCK_CHANGED }
+
+    private final Type type;
+    private final Collection<Long> productIds;
+
+    public ProductChangedEvent(Type type, Collection<Long> productIds) {
+        this.type = type;
+        this.productIds = productIds;
+    }
+
+    public static ProductChangedEvent of(Type type, Long productId) {
+        return new ProductChangedEvent(type, List.of(productId));
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Collection<Long> getProductIds() {
+        return productIds;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductChangedEvent{type=" + type + ", productIds=" + productIds + "}";
+    }
+}
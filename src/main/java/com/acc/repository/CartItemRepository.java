@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository; 
+import java.util.Collection;
 import java.util.Optional; 
 @Repository 
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
@@ -19,4 +20,14 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     @Query("DELETE FROM CartItem ci WHERE ci.product.id = :productId")
     void deleteByProductId(Long productId);
     void deleteByProduct(Product product);
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id = :cartId")
+    int deleteAllByCartId(Long cartId);
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id = :cartId AND ci.id IN :itemIds")
+    int deleteByCartIdAndIdIn(Long cartId, Collection<Long> itemIds);
 }
\ No newline at end of file
@@ -1,11 +1,63 @@
 package com.acc.repository;
 import com.acc.entity.Cart;
 import com.acc.entity.Customer; 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional; 
 public interface CartRepository extends JpaRepository<Cart, Long> {
     Optional<Cart> findByCustomer(Customer customer);
     Optional<Cart> findByCustomer_Id(Long customerId);
     Optional<Cart> findByCustomerId(Long customerId);
 
+    // Read paths: the cart, its lines and their products in one select. The customer stays a
+    // proxy; the DTO only needs its id, which the proxy holds without a query.
+    @EntityGraph(attributePaths = {"cartItems", "cartItems.product"})
+    Optional<Cart> findWithItemsById(Long cartId);
+
+    @EntityGraph(attributePaths = {"cartItems", "cartItems.product"})
+    Optional<Cart> findWithItemsByCustomer_Id(Long customerId);
+
+    @Query("SELECT c.customer.id FROM Cart c WHERE c.id = :cartId")
+    Optional<Long> findCustomerIdById(Long cartId);
+
+    // Paging a collection fetch join would happen in memory, so pages select ids first and
+    // then load the whole page of carts, lines and products with one IN query.
+    @Query("SELECT c.id FROM Cart c WHERE c.id > :afterId ORDER BY c.id")
+    List<Long> findIdsAfter(long afterId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"cartItems", "cartItems.product"})
+    List<Cart> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    // Lines never priced, or priced with a discount the product no longer has.
+    @Query("SELECT DISTINCT ci.cart.id FROM CartItem ci WHERE ci.lineTotal IS NULL " +
+           "OR COALESCE(ci.discountPercentage, 0) <> COALESCE(ci.product.discountPercentage, 0)")
+    List<Long> findCartIdsWithStaleLines(Pageable pageable);
+
+    @Query("SELECT c.id FROM Cart c WHERE c.totalAmount <> " +
+           "(SELECT COALESCE(SUM(ci.lineTotal), 0) FROM CartItem ci WHERE ci.cart = c)")
+    List<Long> findCartIdsWithDriftedTotals(Pageable pageable);
+
+    // Bulk updates of the total bump the version, so an edit of the cart loaded before them
+    // fails its version check instead of writing back a stale total.
+    @Transactional
+    @Modifying
+    @Query("UPDATE Cart c SET c.totalAmount = c.totalAmount - :amount, c.updatedAt = :updatedAt, " +
+           "c.version = c.version + 1 WHERE c.id = :cartId")
+    int subtractFromTotal(Long cartId, BigDecimal amount, LocalDateTime updatedAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Cart c SET c.totalAmount = 0, c.updatedAt = :updatedAt, c.version = c.version + 1 " +
+           "WHERE c.id = :cartId")
+    int resetTotal(Long cartId, LocalDateTime updatedAt);
+
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.acc.repository;
+
+import com.acc.entity.CheckoutTicket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface CheckoutTicketRepository extends JpaRepository<CheckoutTicket, String> {
+
+    @Query("SELECT t.status FROM CheckoutTicket t WHERE t.id = :id")
+    Optional<CheckoutTicket.Status> findStatusById(String id);
+
+    // Both transitions only leave QUEUED, so a redelivered command cannot overwrite a result.
+    @Transactional
+    @Modifying
+    @Query("UPDATE CheckoutTicket t SET t.status = com.acc.entity.CheckoutTicket.Status.COMPLETED, " +
+           "t.orderId = :orderId, t.orderCode = :orderCode, t.updatedAt = :now " +
+           "WHERE t.id = :id AND t.status = com.acc.entity.CheckoutTicket.Status.QUEUED")
+    int complete(String id, Long orderId, String orderCode, LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE CheckoutTicket t SET t.status = com.acc.entity.CheckoutTicket.Status.FAILED, " +
+           "t.message = :message, t.updatedAt = :now " +
+           "WHERE t.id = :id AND t.status = com.acc.entity.CheckoutTicket.Status.QUEUED")
+    int fail(String id, String message, LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CheckoutTicket t WHERE t.status <> com.acc.entity.CheckoutTicket.Status.QUEUED " +
+           "AND t.updatedAt < :cutoff")
+    int deleteFinishedBefore(LocalDateTime cutoff);
+}
@@ -0,0 +1,28 @@
+package com.acc.repository;
+
+import com.acc.entity.CodeSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface CodeSequenceRepository extends JpaRepository<CodeSequence, String> {
+
+    @Query(value = "SELECT next_value FROM code_sequences WHERE name = :name FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockNextValue(String name);
+
+    @Modifying
+    @Query("UPDATE CodeSequence s SET s.nextValue = s.nextValue + :blockSize, s.updatedAt = :now WHERE s.name = :name")
+    int advance(String name, long blockSize, LocalDateTime now);
+
+    // Nodes starting together race here; the loser's row is ignored. Never run after lockNextValue
+    // in the same transaction: the gap locks of the two would deadlock across nodes.
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO code_sequences (name, next_value, updated_at) VALUES (:name, :firstValue, :now)",
+           nativeQuery = true)
+    int createIfAbsent(String name, long firstValue, LocalDateTime now);
+}
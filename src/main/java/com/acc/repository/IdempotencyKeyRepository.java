@@ -0,0 +1,42 @@
+package com.acc.repository;
+
+import com.acc.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    // Of concurrent requests with one key exactly one inserts the row; the others get 0.
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO idempotency_keys (id, request_hash, status, created_at, expires_at) " +
+                   "VALUES (:id, :requestHash, 'IN_PROGRESS', :now, :expiresAt)",
+           nativeQuery = true)
+    int claim(String id, String requestHash, LocalDateTime now, LocalDateTime expiresAt);
+
+    // Scalars rather than the entity, so a poll never gets back a stale managed instance.
+    @Query("SELECT k.status, k.requestHash, k.responseBody, k.expiresAt FROM IdempotencyKey k WHERE k.id = :id")
+    List<Object[]> findStateById(String id);
+
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.status = 'COMPLETED', k.responseBody = :responseBody, " +
+           "k.expiresAt = :expiresAt WHERE k.id = :id")
+    int complete(String id, String responseBody, LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.id = :id AND k.status = 'IN_PROGRESS'")
+    int release(String id);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.id = :id AND k.expiresAt < :now")
+    int deleteIfExpired(String id, LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.expiresAt < :now")
+    int deleteExpired(LocalDateTime now);
+}
@@ -0,0 +1,9 @@
+package com.acc.repository;
+
+import com.acc.entity.IndexSyncCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IndexSyncCheckpointRepository extends JpaRepository<IndexSyncCheckpoint, String> {
+}
@@ -20,4 +20,7 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     @EntityGraph(attributePaths = {"order", "product"}) 
     Optional<OrderItem> findByIdWithOrderAndProduct(Long id);
 
+    @Query("SELECT oi.product.id, SUM(oi.quantity) FROM OrderItem oi WHERE oi.product IS NOT NULL GROUP BY oi.product.id")
+    List<Object[]> sumQuantitiesByProduct();
+
 }
\ No newline at end of file
@@ -1,20 +1,61 @@
 package com.acc.repository;
+import com.acc.dto.OrderSummary;
 import com.acc.entity.Order;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
-	List<Order> findByCustomerId(Long customerId);
-	
 	boolean existsByShippingAddress_Id(Long addressId);
 
 	  Optional<Order> findByOrderCode(String orderCode);
-	  
 
+	// Detail reads load the whole Order.DETAILS graph in one select, so building the DTO or
+	// the invoice never touches a lazy association.
+	@EntityGraph(Order.DETAILS)
+	Optional<Order> findWithDetailsById(Long id);
+
+	@EntityGraph(Order.DETAILS)
+	Optional<Order> findWithDetailsByOrderCode(String orderCode);
+
+	// History pages pick their ids with findSummaries and then load those orders here.
+	@EntityGraph(Order.DETAILS)
+	List<Order> findWithDetailsByIdInOrderByOrderDateDescIdDesc(Collection<Long> ids);
+
+	/**
+	 * Newest-first order summaries with their line counts within {@code [from, to)}, strictly
+	 * after the cursor (orderDate, id) of the previous page's last row. Every bound is required
+	 * and there is no GROUP BY, so MySQL walks idx_order_date_id backwards and stops at the
+	 * limit; the line count is a correlated subquery run only for the returned rows.
+	 */
+	@Query("SELECT new com.acc.dto.OrderSummary(o.id, o.orderCode, o.orderDate, o.status, o.totalAmount, " +
+			"o.discountAmount, o.discountedAmount, o.customer.id, " +
+			"(SELECT COUNT(oi) FROM OrderItem oi WHERE oi.order = o)) " +
+			"FROM Order o " +
+			"WHERE o.orderDate >= :from AND o.orderDate < :to " +
+			"AND (o.orderDate < :afterDate OR (o.orderDate = :afterDate AND o.id < :afterId)) " +
+			"ORDER BY o.orderDate DESC, o.id DESC")
+	List<OrderSummary> findSummaries(LocalDateTime from, LocalDateTime to,
+									 LocalDateTime afterDate, Long afterId, Pageable pageable);
+
+	// The same page for one customer, served by idx_order_customer_date_id.
+	@Query("SELECT new com.acc.dto.OrderSummary(o.id, o.orderCode, o.orderDate, o.status, o.totalAmount, " +
+			"o.discountAmount, o.discountedAmount, o.customer.id, " +
+			"(SELECT COUNT(oi) FROM OrderItem oi WHERE oi.order = o)) " +
+			"FROM Order o " +
+			"WHERE o.customer.id = :customerId AND o.orderDate >= :from AND o.orderDate < :to " +
+			"AND (o.orderDate < :afterDate OR (o.orderDate = :afterDate AND o.id < :afterId)) " +
+			"ORDER BY o.orderDate DESC, o.id DESC")
+	List<OrderSummary> findSummariesByCustomer(Long customerId, LocalDateTime from, LocalDateTime to,
+											   LocalDateTime afterDate, Long afterId, Pageable pageable);
 	
-}
\ No newline at end of file
+}
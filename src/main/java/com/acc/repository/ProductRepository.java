@@ -1,10 +1,18 @@
 package com.acc.repository;
 
+import com.acc.dto.ProductDTO;
 import com.acc.entity.Category;
 import com.acc.entity.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +23,59 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     Optional<Product> findByNameAndCategory(String name, Category category);
     Optional<Product> findByName(String name);
 
+    @Query("SELECT p.name FROM Product p WHERE p.name IN :names")
+    List<String> findExistingNames(Collection<String> names);
 
-	
+    @Query("SELECT p.id FROM Product p WHERE p.name IN :names")
+    List<Long> findIdsByNameIn(Collection<String> names);
+
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    @Query("SELECT p.id, p.name FROM Product p WHERE p.active = true AND p.id > :afterId ORDER BY p.id")
+    List<Object[]> findActiveNamesAfterId(Long afterId, Pageable pageable);
+
+    @Query("SELECT p.name, p.category FROM Product p WHERE p.name IN :names")
+    List<Object[]> findNameAndCategoryByNameIn(Collection<String> names);
+
+    String CATALOGUE_ROW = "SELECT new com.acc.dto.ProductDTO(p.id, p.name, p.description, p.imageUrls, p.price, " +
+            "p.stockQuantity, p.category, p.discountPercentage, p.active) FROM Product p " +
+            "WHERE p.active = true AND (:category IS NULL OR p.category = :category) ";
+
+    @Query(CATALOGUE_ROW + "AND p.id > :afterId ORDER BY p.id ASC")
+    List<ProductDTO> findCatalogueAfterId(Category category, Long afterId, Pageable pageable);
+
+    @Query(CATALOGUE_ROW + "AND (:afterPrice IS NULL OR p.price > :afterPrice " +
+            "OR (p.price = :afterPrice AND p.id > :afterId)) ORDER BY p.price ASC, p.id ASC")
+    List<ProductDTO> findCatalogueAfterPriceAsc(Category category, BigDecimal afterPrice, Long afterId, Pageable pageable);
+
+    @Query(CATALOGUE_ROW + "AND (:afterPrice IS NULL OR p.price < :afterPrice " +
+            "OR (p.price = :afterPrice AND p.id > :afterId)) ORDER BY p.price DESC, p.id ASC")
+    List<ProductDTO> findCatalogueAfterPriceDesc(Category category, BigDecimal afterPrice, Long afterId, Pageable pageable);
+
+    /**
+     * Guarded single-statement decrement. Returns 1 when the stock was taken, 0 when
+     * the product does not exist or has fewer than {@code quantity} units that are not
+     * held by live cart reservations.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity " +
+           "WHERE p.id = :productId AND p.stockQuantity - (SELECT COALESCE(SUM(r.quantity), 0) " +
+           "FROM StockReservation r WHERE r.productId = :productId AND r.expiresAt > :now) >= :quantity")
+    int decrementUnreservedStock(Long productId, int quantity, LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :quantity WHERE p.id = :productId")
+    int incrementStock(Long productId, int quantity);
+
+    @Query("SELECT p.stockQuantity FROM Product p WHERE p.id = :productId")
+    Optional<Integer> findStockQuantityById(Long productId);
+
+    @Query(value = "SELECT stock_quantity FROM products WHERE id = :productId FOR UPDATE", nativeQuery = true)
+    Optional<Integer> lockStockQuantity(Long productId);
+
+    // Rows come back locked in id order, so concurrent batches cannot deadlock on each other.
+    @Query(value = "SELECT id, stock_quantity FROM products WHERE id IN (:productIds) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockStockQuantities(Collection<Long> productIds);
 }
@@ -0,0 +1,74 @@
+package com.acc.repository;
+
+import com.acc.entity.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    Optional<StockReservation> findByCartIdAndProductId(Long cartId, Long productId);
+
+    @Query("SELECT COALESCE(SUM(r.quantity), 0) FROM StockReservation r " +
+           "WHERE r.productId = :productId AND r.expiresAt > :now")
+    long sumActiveQuantity(Long productId, LocalDateTime now);
+
+    @Query("SELECT r.productId, SUM(r.quantity) FROM StockReservation r " +
+           "WHERE r.expiresAt > :now GROUP BY r.productId")
+    List<Object[]> sumActiveQuantitiesByProduct(LocalDateTime now);
+
+    @Query("SELECT r.productId, SUM(r.quantity) FROM StockReservation r " +
+           "WHERE r.productId IN :productIds AND r.expiresAt > :now GROUP BY r.productId")
+    List<Object[]> sumActiveQuantitiesForProducts(Collection<Long> productIds, LocalDateTime now);
+
+    /**
+     * Locking read, so it sees reservations committed after this transaction's
+     * snapshot was taken. Callers must already hold the product row lock. Under the
+     * pool's READ COMMITTED isolation it locks only the rows it reads; under REPEATABLE
+     * READ it would also gap-lock the index range, deadlocking concurrent inserts.
+     */
+    @Query(value = "SELECT COALESCE(SUM(quantity), 0) FROM stock_reservations " +
+                   "WHERE product_id = :productId AND cart_id <> :cartId AND expires_at > :now LOCK IN SHARE MODE",
+           nativeQuery = true)
+    long sumActiveQuantityForOtherCarts(Long productId, Long cartId, LocalDateTime now);
+
+    @Query(value = "SELECT product_id, COALESCE(SUM(quantity), 0) FROM stock_reservations " +
+                   "WHERE product_id IN (:productIds) AND cart_id <> :cartId AND expires_at > :now " +
+                   "GROUP BY product_id LOCK IN SHARE MODE",
+           nativeQuery = true)
+    List<Object[]> sumActiveQuantitiesForOtherCarts(Collection<Long> productIds, Long cartId, LocalDateTime now);
+
+    @Query("SELECT DISTINCT r.productId FROM StockReservation r WHERE r.cartId = :cartId")
+    List<Long> findProductIdsByCartId(Long cartId);
+
+    @Query("SELECT DISTINCT r.productId FROM StockReservation r WHERE r.expiresAt <= :now")
+    List<Long> findProductIdsWithExpiredReservations(LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.cartId = :cartId AND r.productId = :productId")
+    int deleteByCartAndProduct(Long cartId, Long productId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.cartId = :cartId AND r.productId IN :productIds")
+    int deleteByCartAndProducts(Long cartId, Collection<Long> productIds);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.cartId = :cartId")
+    int deleteAllByCart(Long cartId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.expiresAt <= :now")
+    int deleteExpired(LocalDateTime now);
+}
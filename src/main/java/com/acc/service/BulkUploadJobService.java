@@ -0,0 +1,12 @@
+package com.acc.service;
+
+import com.acc.dto.BulkUploadJobResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+public interface BulkUploadJobService {
+    BulkUploadJobResponse submit(MultipartFile file) throws IOException;
+    BulkUploadJobResponse getJob(String jobId);
+    void recordConsumed(String jobId, int persisted, int skipped);
+}
@@ -1,14 +1,20 @@
 package com.acc.service;
 import com.acc.dto.AddItemToCartRequestDTO;
+import com.acc.dto.CartBatchRequestDTO;
+import com.acc.dto.CartBatchResponseDTO;
 import com.acc.dto.CartDTO;
+import com.acc.dto.CartPageResponse;
 
-import java.util.List;
 public interface CartService {
     CartDTO getOrCreateCart(Long customerId); 
     CartDTO addProductToCart(Long customerId, AddItemToCartRequestDTO addItemToCartDTO);
     CartDTO updateProductQuantityInCart(Long customerId, Long productId, Integer newQuantity); 
     CartDTO removeProductFromCart(Long customerId, Long productId); 
+    CartBatchResponseDTO applyCartBatch(Long customerId, CartBatchRequestDTO request);
     void clearCart(Long customerId);
     CartDTO getCartById(Long cartId);
-	List<CartDTO> getAllCarts();
+    CartPageResponse getAllCarts(String afterCursor, int limit);
+    boolean repairCartTotals(Long cartId);
+    void prepareCheckout(Long cartId);
+    void prepareCheckoutForCustomer(Long customerId);
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.acc.service;
+
+import com.acc.dto.CheckoutTicketDTO;
+import com.acc.dto.OrderDTO;
+
+public interface CheckoutService {
+    CheckoutTicketDTO submitFromCart(Long cartId);
+    CheckoutTicketDTO submitPartial(Long customerId, OrderDTO orderDTO);
+    CheckoutTicketDTO getTicket(String ticketId);
+    int deleteFinishedTickets();
+}
@@ -0,0 +1,20 @@
+package com.acc.service;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    String HEADER = "Idempotency-Key";
+
+    /**
+     * Runs {@code action} once per {@code scope}, authenticated caller and {@code key} and
+     * returns its result to every call with that key until the key expires. A {@code null} key
+     * just runs the action.
+     *
+     * @param request what identifies the call besides the key (path variables, body); a key
+     *                reused with a different request is rejected
+     */
+    <T> T execute(String scope, String key, Object request, Class<T> responseType, Supplier<T> action);
+
+    int deleteExpired();
+}
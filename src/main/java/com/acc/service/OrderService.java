@@ -1,15 +1,20 @@
 package com.acc.service;
-import java.util.List;
+import java.time.LocalDateTime;
 import com.acc.dto.OrderDTO;
+import com.acc.dto.OrderPageResponse;
+import com.acc.dto.OrderSummaryPageResponse;
 public interface OrderService {
     OrderDTO saveOrder(OrderDTO orderDTO);
     OrderDTO getOrderById(Long id); 
-    List<OrderDTO> getAllOrders();
+    OrderSummaryPageResponse getOrderSummaries(LocalDateTime from, LocalDateTime to, String afterCursor, int limit);
     OrderDTO updateOrder(Long id, OrderDTO orderDTO);
     void deleteOrder(Long id);
 	OrderDTO createOrderFromCart(Long cartId);
 	OrderDTO savePartialOrder(Long customerId, OrderDTO orderDTO);
-	List<OrderDTO> getOrdersByCustomerId(Long customerId);
+	OrderSummaryPageResponse getOrderSummariesForCustomer(Long customerId, LocalDateTime from, LocalDateTime to,
+			String afterCursor, int limit);
+	OrderPageResponse getOrderHistoryForCustomer(Long customerId, LocalDateTime from, LocalDateTime to,
+			String afterCursor, int limit);
 	
 	
 }
\ No newline at end of file
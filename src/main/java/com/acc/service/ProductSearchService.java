@@ -0,0 +1,11 @@
+package com.acc.service;
+
+import com.acc.dto.CacheStatsDTO;
+import com.acc.dto.ProductSearchCriteria;
+import com.acc.dto.ProductSearchResponse;
+
+public interface ProductSearchService {
+    ProductSearchResponse search(ProductSearchCriteria criteria);
+    boolean isElasticsearchHealthy();
+    CacheStatsDTO getSearchCacheStats();
+}
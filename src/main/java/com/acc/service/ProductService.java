@@ -1,11 +1,17 @@
 package com.acc.service;
 
+import com.acc.dto.BulkUploadJob;
 import com.acc.dto.BulkUploadResponse;
+import com.acc.dto.CacheStatsDTO;
 import com.acc.dto.ProductDTO;
+import com.acc.dto.ProductPageResponse;
+import com.acc.dto.ProductSort;
+import com.acc.entity.Category;
 import com.acc.entity.Product;
 import com.acc.elasticsearch.entity.ProductDocument;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,11 +21,15 @@ public interface ProductService {
     ProductDTO addProduct(ProductDTO productDto);
     ProductDTO updateProduct(ProductDTO productDto, Long productId);
     ProductDTO getProductByProductId(Long productId);
+    CacheStatsDTO getProductCacheStats();
     void deleteProduct(Long productId);
     List<ProductDTO> getAllProducts();
+    ProductPageResponse getProductPage(String afterCursor, int limit, Category category, ProductSort sort);
     List<ProductDocument> searchProducts(String query);
     List<ProductDocument> searchProductsByCategory(String categoryName, String query);
     BulkUploadResponse saveProductsFromCsv(MultipartFile file) throws IOException;
+    BulkUploadResponse importProductsFromCsv(InputStream inputStream) throws IOException;
+    BulkUploadResponse importProductsFromCsv(InputStream inputStream, BulkUploadJob job) throws IOException;
     Optional<Product> findById(Long id);
     List<Product> findAll();
     Product save(Product product);
@@ -0,0 +1,10 @@
+package com.acc.service;
+
+import com.acc.dto.ProductSuggestionDTO;
+
+import java.util.List;
+
+public interface ProductSuggestService {
+    List<ProductSuggestionDTO> suggest(String prefix, int limit);
+    void rebuild();
+}
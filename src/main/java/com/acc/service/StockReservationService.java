@@ -0,0 +1,19 @@
+package com.acc.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+public interface StockReservationService {
+    void reserve(Long cartId, Long productId, int quantity);
+    Set<Long> reserveAll(Long cartId, Map<Long, Integer> quantities);
+    void release(Long cartId, Long productId);
+    void releaseAll(Long cartId, Collection<Long> productIds);
+    void releaseAll(Long cartId);
+    boolean commit(Long cartId, Long productId, int quantity);
+    Set<Long> commitAll(Long cartId, Map<Long, Integer> quantities);
+    int getAvailableStock(Long productId, int stockQuantity);
+    Map<Long, Long> getReservedQuantities();
+    Map<Long, Long> getReservedQuantities(Collection<Long> productIds);
+    int releaseExpired();
+}
@@ -0,0 +1,113 @@
+package com.acc.serviceImpl;
+
+import com.acc.dto.BulkUploadJob;
+import com.acc.dto.BulkUploadJobResponse;
+import com.acc.dto.BulkUploadResponse;
+import com.acc.exception.ResourceNotFoundException;
+import com.acc.service.BulkUploadJobService;
+import com.acc.service.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class BulkUploadJobServiceImpl implements BulkUploadJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkUploadJobServiceImpl.class);
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    @Qualifier("bulkUploadExecutor")
+    private TaskExecutor bulkUploadExecutor;
+
+    @Value("${product.upload.job-retention-minutes:60}")
+    private long jobRetentionMinutes;
+
+    private final Map<String, BulkUploadJob> jobs = new ConcurrentHashMap<>();
+
+    @Override
+    public BulkUploadJobResponse submit(MultipartFile file) throws IOException {
+        // The multipart temp file goes away with the request, so keep our own copy for the worker.
+        Path upload = Files.createTempFile("bulk-upload-", ".csv");
+        file.transferTo(upload);
+
+        BulkUploadJob job = new BulkUploadJob(UUID.randomUUID().toString(), file.getOriginalFilename());
+        jobs.put(job.getId(), job);
+        try {
+            bulkUploadExecutor.execute(() -> run(job, upload));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getId());
+            Files.deleteIfExists(upload);
+            throw e;
+        }
+        log.info("Queued bulk upload job {} for file {}", job.getId(), job.getFileName());
+        return job.toResponse();
+    }
+
+    private void run(BulkUploadJob job, Path upload) {
+        job.start();
+        try (InputStream inputStream = Files.newInputStream(upload)) {
+            BulkUploadResponse result = productService.importProductsFromCsv(inputStream, job);
+            job.finishParsing(result.getMessage());
+            log.info("Bulk upload job {} finished parsing: {}", job.getId(), result.getMessage());
+        } catch (Exception e) {
+            log.error("Bulk upload job {} failed", job.getId(), e);
+            job.fail("Failed to import products: " + e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(upload);
+            } catch (IOException e) {
+                log.warn("Could not delete upload file {} for job {}", upload, job.getId());
+            }
+        }
+    }
+
+    @Override
+    public BulkUploadJobResponse getJob(String jobId) {
+        BulkUploadJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Bulk upload job", "id", jobId);
+        }
+        return job.toResponse();
+    }
+
+    @Override
+    public void recordConsumed(String jobId, int persisted, int skipped) {
+        BulkUploadJob job = jobs.get(jobId);
+        if (job == null) {
+            log.debug("Ignoring consumer progress for unknown or expired bulk upload job {}", jobId);
+            return;
+        }
+        job.recordPersisted(persisted);
+        job.recordConsumerSkipped(skipped);
+    }
+
+    @Scheduled(fixedDelayString = "${product.upload.job-sweep-interval-ms:60000}")
+    public void removeExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(jobRetentionMinutes);
+        int before = jobs.size();
+        jobs.values().removeIf(job -> job.isFinished() && job.getCompletedAt().isBefore(cutoff));
+        int removed = before - jobs.size();
+        if (removed > 0) {
+            log.info("Removed {} finished bulk upload jobs older than {} minutes.", removed, jobRetentionMinutes);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.acc.serviceImpl;
+
+import com.acc.entity.Cart;
+import com.acc.entity.CartItem;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A live cart as held by {@link InMemoryCartStore}: the cart row plus its lines keyed by
+ * product id. Lines are immutable; carts are copied before they are changed, so a grid
+ * entry is never modified after it has been published.
+ */
+final class CachedCart {
+
+    static final class Line {
+        final Long itemId;
+        final Long productId;
+        final String productName;
+        final boolean active;
+        final int quantity;
+        final BigDecimal price;
+        final Double discountPercentage;
+        final BigDecimal discountedPrice;
+        final BigDecimal lineTotal;
+
+        Line(Long itemId, Long productId, String productName, boolean active, int quantity,
+             BigDecimal price, Double discountPercentage) {
+            this.itemId = itemId;
+            this.productId = productId;
+            this.productName = productName;
+            this.active = active;
+            this.quantity = quantity;
+            this.price = price;
+            this.discountPercentage = discountPercentage;
+            this.discountedPrice = CartItem.discountedUnitPrice(price, discountPercentage);
+            this.lineTotal = discountedPrice.multiply(BigDecimal.valueOf(quantity));
+        }
+
+        Line withQuantity(int newQuantity, Double newDiscountPercentage) {
+            return new Line(itemId, productId, productName, active, newQuantity, price, newDiscountPercentage);
+        }
+    }
+
+    final Long cartId;
+    final Long customerId;
+    final LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private BigDecimal totalAmount;
+    private final Map<Long, Line> lines;
+
+    private CachedCart(Long cartId, Long customerId, LocalDateTime createdAt, LocalDateTime updatedAt,
+                       BigDecimal totalAmount, Map<Long, Line> lines) {
+        this.cartId = cartId;
+        this.customerId = customerId;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.totalAmount = totalAmount;
+        this.lines = lines;
+    }
+
+    /**
+     * Snapshot of a cart loaded with its lines and products. Lines stored before line totals
+     * existed are priced with the product's current discount, and the total is rebuilt from
+     * the lines, so the first write-back also repairs any drift.
+     */
+    static CachedCart of(Cart cart) {
+        Map<Long, Line> lines = new LinkedHashMap<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (CartItem item : cart.getCartItems()) {
+            Double discount = item.getLineTotal() != null
+                    ? item.getDiscountPercentage()
+                    : item.getProduct().getDiscountPercentage();
+            Line line = new Line(item.getId(), item.getProduct().getId(), item.getProduct().getName(),
+                    item.getProduct().isActive(), item.getQuantity(), item.getPrice(), discount);
+            lines.put(line.productId, line);
+            total = total.add(line.lineTotal);
+        }
+        return new CachedCart(cart.getId(), cart.getCustomer().getId(), cart.getCreatedAt(), cart.getUpdatedAt(),
+                total, lines);
+    }
+
+    CachedCart copy() {
+        return new CachedCart(cartId, customerId, createdAt, updatedAt, totalAmount, new LinkedHashMap<>(lines));
+    }
+
+    Line getLine(Long productId) {
+        return lines.get(productId);
+    }
+
+    Collection<Line> getLines() {
+        return lines.values();
+    }
+
+    void putLine(Line line) {
+        Line previous = lines.put(line.productId, line);
+        totalAmount = totalAmount.add(line.lineTotal);
+        if (previous != null) {
+            totalAmount = totalAmount.subtract(previous.lineTotal);
+        }
+        updatedAt = LocalDateTime.now();
+    }
+
+    void removeLine(Long productId) {
+        Line previous = lines.remove(productId);
+        if (previous != null) {
+            totalAmount = totalAmount.subtract(previous.lineTotal);
+        }
+        updatedAt = LocalDateTime.now();
+    }
+
+    void clearLines() {
+        lines.clear();
+        totalAmount = BigDecimal.ZERO;
+        updatedAt = LocalDateTime.now();
+    }
+
+    LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+}
@@ -0,0 +1,31 @@
+package com.acc.serviceImpl;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * The {@code cart_items} statements shared by the batch cart endpoint in
+ * {@link CartServiceImpl} and the write-back in {@link InMemoryCartStore}, which both
+ * write lines with plain JDBC batches rather than through the entity.
+ */
+final class CartItemRows {
+
+    static final String INSERT_SQL =
+            "INSERT INTO cart_items (cart_id, product_id, quantity, price, discount_percentage, discounted_price, line_total) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    static final String UPDATE_SQL =
+            "UPDATE cart_items SET quantity = ?, discount_percentage = ?, discounted_price = ?, line_total = ? WHERE id = ?";
+    static final String DELETE_SQL = "DELETE FROM cart_items WHERE id = ?";
+
+    private CartItemRows() {
+    }
+
+    static void setDiscount(PreparedStatement ps, int index, Double discountPercentage) throws SQLException {
+        if (discountPercentage != null) {
+            ps.setDouble(index, discountPercentage);
+        } else {
+            ps.setNull(index, Types.DOUBLE);
+        }
+    }
+}
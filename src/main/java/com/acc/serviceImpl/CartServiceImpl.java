@@ -1,8 +1,13 @@
 package com.acc.serviceImpl;
 
 import com.acc.dto.AddItemToCartRequestDTO;
+import com.acc.dto.CartBatchRequestDTO;
+import com.acc.dto.CartBatchResponseDTO;
 import com.acc.dto.CartDTO;
 import com.acc.dto.CartItemDTO;
+import com.acc.dto.CartItemOperationDTO;
+import com.acc.dto.CartItemOperationResultDTO;
+import com.acc.dto.CartPageResponse;
 import com.acc.entity.Cart;
 import com.acc.entity.CartItem;
 import com.acc.entity.Customer;
@@ -13,18 +18,27 @@ import com.acc.repository.CartRepository;
 import com.acc.repository.CustomerRepository;
 import com.acc.repository.ProductRepository;
 import com.acc.service.CartService;
+import com.acc.service.StockReservationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,6 +46,29 @@ public class CartServiceImpl implements CartService {
 
     private static final Logger log = LoggerFactory.getLogger(CartServiceImpl.class);
 
+    private static final int MAX_PAGE_SIZE = 100;
+
+    /** A cart line as it will be written by the batch endpoint. */
+    private static final class PricedLine {
+        private final Long itemId;
+        private final Long productId;
+        private final int quantity;
+        private final BigDecimal price;
+        private final Double discountPercentage;
+        private final BigDecimal discountedPrice;
+        private final BigDecimal lineTotal;
+
+        private PricedLine(Long itemId, Long productId, int quantity, BigDecimal price, Double discountPercentage) {
+            this.itemId = itemId;
+            this.productId = productId;
+            this.quantity = quantity;
+            this.price = price;
+            this.discountPercentage = discountPercentage;
+            this.discountedPrice = CartItem.discountedUnitPrice(price, discountPercentage);
+            this.lineTotal = discountedPrice.multiply(BigDecimal.valueOf(quantity));
+        }
+    }
+
     @Autowired
     private CartRepository cartRepository;
     @Autowired
@@ -40,6 +77,15 @@ public class CartServiceImpl implements CartService {
     private CustomerRepository customerRepository;
     @Autowired
     private ProductRepository productRepository;
+    @Autowired
+    private StockReservationService stockReservationService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${cart.batch.max-operations:500}")
+    private int maxBatchOperations;
 
     private Cart getOrCreateCartEntity(Long customerId) {
         log.debug("Attempting to find or create a cart for customer ID: {}", customerId);
@@ -67,7 +113,8 @@ public class CartServiceImpl implements CartService {
     @Transactional
     public CartDTO getOrCreateCart(Long customerId) {
         log.info("Fetching or creating cart for customer ID: {}", customerId);
-        return convertToDTO(getOrCreateCartEntity(customerId));
+        return convertToDTO(cartRepository.findWithItemsByCustomer_Id(customerId)
+                .orElseGet(() -> getOrCreateCartEntity(customerId)));
     }
 
     @Override
@@ -112,20 +159,12 @@ public class CartServiceImpl implements CartService {
             log.debug("Adding new product ID {} to cart.", product.getId());
         }
 
-        if (product.getStockQuantity() < quantityToAdd) {
-            log.error("Insufficient stock for product: {}. Available: {}, Requested: {}",
-                    product.getName(), product.getStockQuantity(), quantityToAdd);
-            throw new IllegalArgumentException("Not enough stock for product: " + product.getName());
-        }
-
         cartItem.setQuantity(newQuantity);
+        reserveStock(cart, product, newQuantity);
+        applyLineChange(cart, cartItem, product.getDiscountPercentage());
         cartItemRepository.save(cartItem);
         log.debug("Saved cart item with ID: {}", cartItem.getId());
-        product.setStockQuantity(product.getStockQuantity() - quantityToAdd);
-        productRepository.save(product);
-        log.debug("Updated stock for product ID {}. New quantity: {}", product.getId(), product.getStockQuantity());
 
-        updateCartTotal(cart);
         cart.setUpdatedAt(LocalDateTime.now());
         cartRepository.save(cart);
 
@@ -160,16 +199,11 @@ public class CartServiceImpl implements CartService {
                     log.error("Cart item not found for product ID: {} in cart ID: {}", productId, cart.getId());
                     return new ResourceNotFoundException("CartItem", "Product Not Found in Cart", productId);
                 });
-        if (newQuantity > product.getStockQuantity()) {
-            log.error("Requested quantity ({}) exceeds available stock ({}) for product: {}",
-                    newQuantity, product.getStockQuantity(), product.getName());
-            throw new IllegalArgumentException("Not enough stock for product: " + product.getName());
-        }
-
         cartItem.setQuantity(newQuantity);
+        reserveStock(cart, product, newQuantity);
+        applyLineChange(cart, cartItem, product.getDiscountPercentage());
         cartItemRepository.save(cartItem);
 
-        updateCartTotal(cart);
         cart.setUpdatedAt(LocalDateTime.now());
         cartRepository.save(cart);
 
@@ -194,14 +228,16 @@ public class CartServiceImpl implements CartService {
                     return new ResourceNotFoundException("CartItem", "Product Not Found in Cart", productId);
                 });
 
-        product.setStockQuantity(product.getStockQuantity() + cartItem.getQuantity());
-        productRepository.save(product);
-        log.info("Restored {} units to stock for product ID: {} after removing from cart.", cartItem.getQuantity(), product.getId());
+        stockReservationService.release(cart.getId(), product.getId());
+        log.info("Released reservation of {} units for product ID: {} after removing from cart.", cartItem.getQuantity(), product.getId());
 
-        cart.removeCartItem(cartItem);
+        boolean legacyLine = cartItem.getLineTotal() == null;
+        cart.removeCartItems(List.of(cartItem));
         cartItemRepository.delete(cartItem);
+        if (legacyLine) {
+            recalculateCartTotal(cart);
+        }
 
-        updateCartTotal(cart);
         cart.setUpdatedAt(LocalDateTime.now());
         cartRepository.save(cart);
 
@@ -209,34 +245,213 @@ public class CartServiceImpl implements CartService {
         return convertToDTO(cart);
     }
 
+    /**
+     * Applies a list of add/update/remove operations in one transaction. Operations on the
+     * same product are folded in order into one target quantity; every referenced product is
+     * loaded with one IN query, stock for all changed lines is checked and reserved in one
+     * pass, and line writes go out as JDBC batches. Invalid or out-of-stock operations are
+     * reported per line and leave that product's line as it was.
+     */
     @Override
     @Transactional
-    public void clearCart(Long customerId) {
-        log.info("Clearing cart for customer ID: {}", customerId);
+    public CartBatchResponseDTO applyCartBatch(Long customerId, CartBatchRequestDTO request) {
+        List<CartItemOperationDTO> operations = request.getOperations() != null ? request.getOperations() : List.of();
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("At least one cart operation is required.");
+        }
+        if (operations.size() > maxBatchOperations) {
+            throw new IllegalArgumentException("A cart batch may contain at most " + maxBatchOperations + " operations.");
+        }
+        log.info("Applying {} cart operations for customer ID: {}", operations.size(), customerId);
+
         Cart cart = getOrCreateCartEntity(customerId);
-        List<CartItem> itemsToClear = new ArrayList<>(cart.getCartItems());
-        log.debug("Found {} items to clear from cart ID: {}", itemsToClear.size(), cart.getId());
-
-        for (CartItem item : itemsToClear) {
-            Product product = item.getProduct();
-            product.setStockQuantity(product.getStockQuantity() + item.getQuantity());
-            productRepository.save(product);
-            log.debug("Restored {} units to stock for product ID: {}", item.getQuantity(), product.getId());
-            cart.removeCartItem(item);
-            cartItemRepository.delete(item);
+        Map<Long, Product> products = new HashMap<>();
+        productRepository.findAllById(operations.stream()
+                        .map(CartItemOperationDTO::getProductId)
+                        .filter(id -> id != null)
+                        .collect(Collectors.toSet()))
+                .forEach(product -> products.put(product.getId(), product));
+        Map<Long, CartItem> lines = new HashMap<>();
+        for (CartItem item : cart.getCartItems()) {
+            lines.put(item.getProduct().getId(), item);
         }
 
-        updateCartTotal(cart);
-        cart.setUpdatedAt(LocalDateTime.now());
-        cartRepository.save(cart);
-        log.info("Cart ID: {} cleared successfully. All items removed and stock restored.", cart.getId());
+        List<CartItemOperationResultDTO> results = new ArrayList<>(operations.size());
+        Map<Long, Integer> targets = new LinkedHashMap<>();
+        Map<Long, List<CartItemOperationResultDTO>> resultsByProduct = new HashMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            CartItemOperationDTO operation = operations.get(i);
+            CartItemOperationResultDTO result = new CartItemOperationResultDTO(i, operation.getType(), operation.getProductId());
+            results.add(result);
+            Long productId = operation.getProductId();
+            int current = productId == null ? 0 : targets.getOrDefault(productId, originalQuantity(lines.get(productId)));
+            String error = validateOperation(operation, products.get(productId), current);
+            if (error != null) {
+                result.rejected(current, error);
+                continue;
+            }
+            int next = switch (operation.getType()) {
+                case ADD -> current + operation.getQuantity();
+                case UPDATE -> operation.getQuantity();
+                case REMOVE -> 0;
+            };
+            targets.put(productId, next);
+            result.applied(next);
+            resultsByProduct.computeIfAbsent(productId, id -> new ArrayList<>()).add(result);
+        }
+
+        Map<Long, Integer> toReserve = new LinkedHashMap<>();
+        List<Long> toRelease = new ArrayList<>();
+        for (Map.Entry<Long, Integer> target : targets.entrySet()) {
+            int original = originalQuantity(lines.get(target.getKey()));
+            if (target.getValue() == original) {
+                continue;
+            }
+            if (target.getValue() > 0) {
+                toReserve.put(target.getKey(), target.getValue());
+            } else {
+                toRelease.add(target.getKey());
+            }
+        }
+        Set<Long> outOfStock = stockReservationService.reserveAll(cart.getId(), toReserve);
+        for (Long productId : outOfStock) {
+            int original = originalQuantity(lines.get(productId));
+            targets.put(productId, original);
+            for (CartItemOperationResultDTO result : resultsByProduct.get(productId)) {
+                result.rejected(original, "Not enough stock for product: " + products.get(productId).getName());
+            }
+        }
+        stockReservationService.releaseAll(cart.getId(), toRelease);
+
+        List<PricedLine> inserts = new ArrayList<>();
+        List<PricedLine> updates = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        BigDecimal totalDelta = BigDecimal.ZERO;
+        boolean legacyLineTouched = false;
+        for (Map.Entry<Long, Integer> target : targets.entrySet()) {
+            CartItem line = lines.get(target.getKey());
+            int quantity = target.getValue();
+            if (quantity == originalQuantity(line)) {
+                continue;
+            }
+            if (line != null) {
+                legacyLineTouched |= line.getLineTotal() == null;
+                if (line.getLineTotal() != null) {
+                    totalDelta = totalDelta.subtract(line.getLineTotal());
+                }
+            }
+            Product product = products.get(target.getKey());
+            if (quantity == 0) {
+                deletes.add(line.getId());
+            } else if (line == null) {
+                PricedLine priced = new PricedLine(null, product.getId(), quantity, product.getPrice(), product.getDiscountPercentage());
+                inserts.add(priced);
+                totalDelta = totalDelta.add(priced.lineTotal);
+            } else {
+                PricedLine priced = new PricedLine(line.getId(), product.getId(), quantity, line.getPrice(), product.getDiscountPercentage());
+                updates.add(priced);
+                totalDelta = totalDelta.add(priced.lineTotal);
+            }
+        }
+        writeCartLines(cart.getId(), inserts, updates, deletes);
+
+        // The managed cart still holds the pre-batch lines; reload it with the rows just written.
+        Long cartId = cart.getId();
+        entityManager.detach(cart);
+        Cart updatedCart = cartRepository.findWithItemsById(cartId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cart", "Id", cartId));
+        if (legacyLineTouched) {
+            recalculateCartTotal(updatedCart);
+        } else {
+            updatedCart.adjustTotal(totalDelta);
+        }
+        updatedCart.setUpdatedAt(LocalDateTime.now());
+        cartRepository.save(updatedCart);
+
+        CartBatchResponseDTO response = new CartBatchResponseDTO(convertToDTO(updatedCart), results);
+        log.info("Cart ID {} batch: {} operations applied, {} rejected ({} inserted, {} updated, {} removed lines).",
+                cartId, response.getApplied(), response.getRejected(), inserts.size(), updates.size(), deletes.size());
+        return response;
+    }
+
+    private static int originalQuantity(CartItem line) {
+        return line != null ? line.getQuantity() : 0;
+    }
+
+    private static String validateOperation(CartItemOperationDTO operation, Product product, int currentQuantity) {
+        if (operation.getType() == null || operation.getProductId() == null) {
+            return "Operation type and productId are required.";
+        }
+        if (operation.getType() == CartItemOperationDTO.Type.ADD
+                && (operation.getQuantity() == null || operation.getQuantity() <= 0)) {
+            return "Quantity must be greater than zero.";
+        }
+        if (operation.getType() == CartItemOperationDTO.Type.UPDATE
+                && (operation.getQuantity() == null || operation.getQuantity() < 0)) {
+            return "Quantity cannot be negative.";
+        }
+        if (product == null) {
+            return "Product not found with Id : '" + operation.getProductId() + "'";
+        }
+        boolean adds = operation.getType() == CartItemOperationDTO.Type.ADD
+                || (operation.getType() == CartItemOperationDTO.Type.UPDATE && operation.getQuantity() > 0);
+        if (adds && !product.isActive()) {
+            return "Product is not available for purchase.";
+        }
+        if (operation.getType() != CartItemOperationDTO.Type.ADD && currentQuantity == 0) {
+            return "Product is not in the cart.";
+        }
+        return null;
+    }
+
+    private void writeCartLines(Long cartId, List<PricedLine> inserts, List<PricedLine> updates, List<Long> deletes) {
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(CartItemRows.INSERT_SQL, inserts, inserts.size(), (ps, line) -> {
+                ps.setLong(1, cartId);
+                ps.setLong(2, line.productId);
+                ps.setInt(3, line.quantity);
+                ps.setBigDecimal(4, line.price);
+                CartItemRows.setDiscount(ps, 5, line.discountPercentage);
+                ps.setBigDecimal(6, line.discountedPrice);
+                ps.setBigDecimal(7, line.lineTotal);
+            });
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(CartItemRows.UPDATE_SQL, updates, updates.size(), (ps, line) -> {
+                ps.setInt(1, line.quantity);
+                CartItemRows.setDiscount(ps, 2, line.discountPercentage);
+                ps.setBigDecimal(3, line.discountedPrice);
+                ps.setBigDecimal(4, line.lineTotal);
+                ps.setLong(5, line.itemId);
+            });
+        }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(CartItemRows.DELETE_SQL, deletes, deletes.size(), (ps, id) -> ps.setLong(1, id));
+        }
+    }
+
+    @Override
+    @Transactional
+    public void clearCart(Long customerId) {
+        log.info("Clearing cart for customer ID: {}", customerId);
+        Cart cart = getOrCreateCartEntity(customerId);
+        Long cartId = cart.getId();
+
+        // Set-based: one delete for the reservations, one for the lines and one update for the
+        // total, however many lines the cart has. The managed cart would still hold the deleted
+        // lines, so it is detached rather than saved.
+        stockReservationService.releaseAll(cartId);
+        int removed = cartItemRepository.deleteAllByCartId(cartId);
+        cartRepository.resetTotal(cartId, LocalDateTime.now());
+        entityManager.detach(cart);
+        log.info("Cart ID: {} cleared successfully. {} items removed and reservations released.", cartId, removed);
     }
 
     @Override
     @Transactional(readOnly = true)
     public CartDTO getCartById(Long cartId) {
         log.info("Fetching cart with ID: {}", cartId);
-        Cart cart = cartRepository.findById(cartId)
+        Cart cart = cartRepository.findWithItemsById(cartId)
                 .orElseThrow(() -> {
                     log.error("Cart not found with ID: {}", cartId);
                     return new ResourceNotFoundException("Cart", "Id", cartId);
@@ -244,39 +459,103 @@ public class CartServiceImpl implements CartService {
         return convertToDTO(cart);
     }
 
+    /**
+     * Keyset page of carts ordered by id. Costs two selects whatever the page holds: one for
+     * the page's ids and one loading those carts with their lines and products.
+     */
     @Override
-    public List<CartDTO> getAllCarts() {
-        log.info("Fetching all carts.");
-        List<CartDTO> carts = cartRepository.findAll()
+    @Transactional(readOnly = true)
+    public CartPageResponse getAllCarts(String afterCursor, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        long afterId = 0L;
+        if (afterCursor != null) {
+            try {
+                afterId = Long.parseLong(afterCursor);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + afterCursor);
+            }
+        }
+        log.info("Fetching carts after cursor '{}' (limit: {}).", afterCursor, pageSize);
+
+        // One extra id tells us whether another page exists without a count query.
+        List<Long> ids = cartRepository.findIdsAfter(afterId, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = ids.size() > pageSize;
+        List<Long> pageIds = hasMore ? ids.subList(0, pageSize) : ids;
+        List<CartDTO> carts = pageIds.isEmpty() ? new ArrayList<>() : cartRepository.findByIdInOrderByIdAsc(pageIds)
                 .stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
-        log.info("Found {} carts in total.", carts.size());
-        return carts;
+        String nextCursor = hasMore ? String.valueOf(pageIds.get(pageIds.size() - 1)) : null;
+        log.info("Returning {} carts. Next cursor: {}", carts.size(), nextCursor);
+        return new CartPageResponse(carts, nextCursor, pageSize);
     }
 
-    private void updateCartTotal(Cart cart) {
+    private void reserveStock(Cart cart, Product product, int quantity) {
+        try {
+            stockReservationService.reserve(cart.getId(), product.getId(), quantity);
+        } catch (IllegalArgumentException e) {
+            log.error("Insufficient stock for product: {}. Requested: {}", product.getName(), quantity);
+            throw new IllegalArgumentException("Not enough stock for product: " + product.getName());
+        }
+    }
+
+    /**
+     * Re-prices one line and moves the cart total by its delta. Lines stored before line
+     * totals existed have no baseline to diff against, so they trigger one full pass.
+     */
+    private void applyLineChange(Cart cart, CartItem item, Double discountPercentage) {
+        boolean legacyLine = item.getId() != null && item.getLineTotal() == null;
+        BigDecimal delta = item.reprice(discountPercentage);
+        if (legacyLine) {
+            recalculateCartTotal(cart);
+        } else {
+            cart.adjustTotal(delta);
+        }
+        log.debug("Cart ID {} total moved by {} to {}.", cart.getId(), delta, cart.getTotalAmount());
+    }
+
+    private void recalculateCartTotal(Cart cart) {
         log.debug("Recalculating total amount for cart ID: {}", cart.getId());
         BigDecimal total = BigDecimal.ZERO;
         for (CartItem item : cart.getCartItems()) {
-            Double discountPercent = item.getProduct().getDiscountPercentage();
-            BigDecimal price = item.getPrice();
-            BigDecimal finalPrice = price;
-
-            if (discountPercent != null && discountPercent > 0.0) {
-                BigDecimal discountAmount = price.multiply(BigDecimal.valueOf(discountPercent))
-                        .divide(BigDecimal.valueOf(100), RoundingMode.HALF_UP);
-                finalPrice = price.subtract(discountAmount);
-                log.trace("Applying {}% discount to product ID {}. Original price: {}, Discounted price: {}",
-                        discountPercent, item.getProduct().getId(), price, finalPrice);
+            if (item.getLineTotal() == null) {
+                item.reprice(item.getProduct().getDiscountPercentage());
             }
-
-            total = total.add(finalPrice.multiply(BigDecimal.valueOf(item.getQuantity())));
+            total = total.add(item.getLineTotal());
         }
         cart.setTotalAmount(total);
         log.debug("New total amount for cart ID {} is: {}", cart.getId(), total);
     }
 
+    @Override
+    @Transactional
+    public boolean repairCartTotals(Long cartId) {
+        Cart cart = cartRepository.findById(cartId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cart", "Id", cartId));
+        BigDecimal previousTotal = cart.getTotalAmount();
+        BigDecimal total = BigDecimal.ZERO;
+        for (CartItem item : cart.getCartItems()) {
+            item.reprice(item.getProduct().getDiscountPercentage());
+            total = total.add(item.getLineTotal());
+        }
+        cart.setTotalAmount(total);
+        boolean drifted = previousTotal == null || previousTotal.compareTo(total) != 0;
+        if (drifted) {
+            log.warn("Cart ID {} total drifted from {} to {}; repaired.", cartId, previousTotal, total);
+        }
+        cartRepository.save(cart);
+        return drifted;
+    }
+
+    // Every change is written through, so there is nothing pending to write before checkout.
+    @Override
+    public void prepareCheckout(Long cartId) {
+    }
+
+    @Override
+    public void prepareCheckoutForCustomer(Long customerId) {
+    }
+
     private CartDTO convertToDTO(Cart cart) {
         log.debug("Converting Cart entity to DTO for ID: {}", cart.getId());
         CartDTO cartDTO = new CartDTO();
@@ -307,16 +586,13 @@ public class CartServiceImpl implements CartService {
         dto.setQuantity(cartItem.getQuantity());
         dto.setPrice(cartItem.getPrice());
 
-        Double discountPercent = cartItem.getProduct().getDiscountPercentage();
-        dto.setDiscountPercentage(discountPercent);
-
-        if (discountPercent != null && discountPercent > 0.0) {
-            BigDecimal discountAmount = cartItem.getPrice()
-                    .multiply(BigDecimal.valueOf(discountPercent))
-                    .divide(BigDecimal.valueOf(100), RoundingMode.HALF_UP);
-            dto.setDiscountedPrice(cartItem.getPrice().subtract(discountAmount));
+        if (cartItem.getDiscountedPrice() != null) {
+            dto.setDiscountPercentage(cartItem.getDiscountPercentage());
+            dto.setDiscountedPrice(cartItem.getDiscountedPrice());
         } else {
-            dto.setDiscountedPrice(cartItem.getPrice());
+            Double discountPercent = cartItem.getProduct().getDiscountPercentage();
+            dto.setDiscountPercentage(discountPercent);
+            dto.setDiscountedPrice(CartItem.discountedUnitPrice(cartItem.getPrice(), discountPercent));
         }
 
         return dto;
@@ -0,0 +1,55 @@
+package com.acc.serviceImpl;
+
+import com.acc.repository.CartRepository;
+import com.acc.service.CartService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Safety net for incrementally maintained cart totals. Finds carts whose lines carry a
+ * stale discount snapshot (or none) and carts whose total no longer equals the sum of
+ * their line totals, and re-prices them from the current products.
+ */
+@Component
+public class CartTotalsReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(CartTotalsReconciler.class);
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartService cartService;
+
+    @Value("${cart.totals.repair-batch-size:200}")
+    private int batchSize;
+
+    @Scheduled(initialDelayString = "${cart.totals.repair-interval-ms:300000}",
+               fixedDelayString = "${cart.totals.repair-interval-ms:300000}")
+    public void reconcile() {
+        Set<Long> cartIds = new LinkedHashSet<>(cartRepository.findCartIdsWithStaleLines(PageRequest.of(0, batchSize)));
+        cartIds.addAll(cartRepository.findCartIdsWithDriftedTotals(PageRequest.of(0, batchSize)));
+        if (cartIds.isEmpty()) {
+            return;
+        }
+        int drifted = 0;
+        for (Long cartId : cartIds) {
+            try {
+                if (cartService.repairCartTotals(cartId)) {
+                    drifted++;
+                }
+            } catch (Exception e) {
+                log.error("Could not repair totals of cart ID {}: {}", cartId, e.getMessage(), e);
+            }
+        }
+        log.info("Re-priced {} carts, {} of which had a drifted total.", cartIds.size(), drifted);
+    }
+}
@@ -0,0 +1,118 @@
+package com.acc.serviceImpl;
+
+import com.acc.dto.CheckoutCommand;
+import com.acc.dto.OrderDTO;
+import com.acc.entity.CheckoutTicket;
+import com.acc.exception.ResourceNotFoundException;
+import com.acc.repository.CheckoutTicketRepository;
+import com.acc.service.OrderService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Processes checkout commands one record at a time. Each partition is owned by one listener
+ * thread, so commands of one customer run in the order they were queued while different
+ * customers run in parallel, up to {@code checkout.consumer.concurrency} threads per node.
+ *
+ * <p>The order and the ticket's {@code COMPLETED} state commit in one transaction, and the
+ * record is acknowledged afterwards. A command redelivered after that finds its ticket no
+ * longer queued and is skipped. Business rejections, which the order service raises as
+ * {@link IllegalArgumentException} (empty cart, missing stock) or
+ * {@link ResourceNotFoundException}, fail the ticket. Anything else propagates, including a
+ * ticket found already completed while committing, so the container retries the record and
+ * hands it to {@link #recover} once the retries are used up.
+ */
+@Service
+public class CheckoutKafkaConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckoutKafkaConsumer.class);
+
+    @Autowired
+    private CheckoutTicketRepository checkoutTicketRepository;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate checkoutTransaction;
+
+    @PostConstruct
+    void init() {
+        checkoutTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @KafkaListener(topics = CheckoutServiceImpl.CHECKOUT_TOPIC, groupId = "checkout-processor-group",
+            containerFactory = "checkoutKafkaListenerContainerFactory")
+    public void processCheckout(ConsumerRecord<String, String> record, Acknowledgment acknowledgment) {
+        CheckoutCommand command;
+        try {
+            command = objectMapper.readValue(record.value(), CheckoutCommand.class);
+        } catch (JsonProcessingException e) {
+            log.error("Skipping malformed checkout command at partition {} offset {}.", record.partition(), record.offset(), e);
+            acknowledgment.acknowledge();
+            return;
+        }
+
+        CheckoutTicket.Status status = checkoutTicketRepository.findStatusById(command.getTicketId()).orElse(null);
+        if (status != CheckoutTicket.Status.QUEUED) {
+            log.info("Skipping checkout ticket {} in state {}.", command.getTicketId(), status);
+            acknowledgment.acknowledge();
+            return;
+        }
+
+        try {
+            OrderDTO order = checkoutTransaction.execute(tx -> {
+                OrderDTO created = command.getType() == CheckoutCommand.Type.PARTIAL
+                        ? orderService.savePartialOrder(command.getCustomerId(), command.getOrder())
+                        : orderService.createOrderFromCart(command.getCartId());
+                if (checkoutTicketRepository.complete(command.getTicketId(), created.getId(), created.getOrderCode(),
+                        LocalDateTime.now()) == 0) {
+                    throw new IllegalStateException("Checkout ticket " + command.getTicketId() + " was already processed.");
+                }
+                return created;
+            });
+            log.info("Checkout ticket {} completed with order {} (partition {}, offset {}).",
+                    command.getTicketId(), order.getOrderCode(), record.partition(), record.offset());
+        } catch (IllegalArgumentException | ResourceNotFoundException e) {
+            log.warn("Checkout ticket {} rejected: {}", command.getTicketId(), e.getMessage());
+            checkoutTicketRepository.fail(command.getTicketId(), truncate(e.getMessage()), LocalDateTime.now());
+        }
+        acknowledgment.acknowledge();
+    }
+
+    /**
+     * Called by the container once a record has failed every retry: the ticket is failed so
+     * that clients polling it get an answer instead of waiting on a record that was skipped.
+     */
+    public void recover(ConsumerRecord<?, ?> record, Exception exception) {
+        try {
+            CheckoutCommand command = objectMapper.readValue(String.valueOf(record.value()), CheckoutCommand.class);
+            log.error("Giving up on checkout ticket {} after retries.", command.getTicketId(), exception);
+            checkoutTicketRepository.fail(command.getTicketId(), "Checkout could not be processed.", LocalDateTime.now());
+        } catch (JsonProcessingException e) {
+            log.error("Giving up on unreadable checkout command at partition {} offset {}.",
+                    record.partition(), record.offset(), exception);
+        }
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return "Checkout failed.";
+        }
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+}
@@ -0,0 +1,180 @@
+package com.acc.serviceImpl;
+
+import com.acc.dto.CartDTO;
+import com.acc.dto.CheckoutCommand;
+import com.acc.dto.CheckoutTicketDTO;
+import com.acc.dto.OrderDTO;
+import com.acc.entity.CheckoutTicket;
+import com.acc.exception.ResourceNotFoundException;
+import com.acc.repository.CartRepository;
+import com.acc.repository.CheckoutTicketRepository;
+import com.acc.repository.CustomerRepository;
+import com.acc.service.CartService;
+import com.acc.service.CheckoutService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Accepting side of asynchronous checkout. A request is validated, recorded as a
+ * {@code QUEUED} ticket and published to {@link #CHECKOUT_TOPIC} keyed by customer id, so
+ * all checkouts of one customer land on one partition and are processed in the order they
+ * were accepted. {@link CheckoutKafkaConsumer} does the actual order creation. The ticket
+ * commits in its own transaction before the command is sent, even when the caller is inside
+ * one (as with an Idempotency-Key), so a consumer never sees a command without its ticket.
+ */
+@Service
+public class CheckoutServiceImpl implements CheckoutService {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckoutServiceImpl.class);
+
+    public static final String CHECKOUT_TOPIC = "checkout.commands";
+
+    @Autowired
+    private CheckoutTicketRepository checkoutTicketRepository;
+    @Autowired
+    private CartRepository cartRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${checkout.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+
+    @Value("${checkout.ticket.retention-hours:24}")
+    private long retentionHours;
+
+    private TransactionTemplate ticketTransaction;
+
+    @PostConstruct
+    void init() {
+        ticketTransaction = new TransactionTemplate(transactionManager);
+        ticketTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public CheckoutTicketDTO submitFromCart(Long cartId) {
+        log.info("Queueing checkout of cart ID: {}", cartId);
+        Long customerId = cartRepository.findCustomerIdById(cartId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cart", "Id", cartId));
+        CartDTO cart = cartService.getCartById(cartId);
+        if (cart.getCartItems() == null || cart.getCartItems().isEmpty()) {
+            throw new IllegalArgumentException("Cannot create an order from an empty cart.");
+        }
+        return enqueue(CheckoutCommand.Type.FROM_CART, customerId, cartId, null);
+    }
+
+    @Override
+    public CheckoutTicketDTO submitPartial(Long customerId, OrderDTO orderDTO) {
+        log.info("Queueing partial checkout for customer ID: {}", customerId);
+        if (orderDTO.getOrderItems() == null || orderDTO.getOrderItems().isEmpty()) {
+            throw new IllegalArgumentException("Order must contain at least one item.");
+        }
+        boolean missingProduct = orderDTO.getOrderItems().stream()
+                .anyMatch(item -> item.getProductDetails() == null || item.getProductDetails().getId() == null
+                        || item.getQuantity() <= 0);
+        if (missingProduct) {
+            throw new IllegalArgumentException("Every item needs a product and a positive quantity.");
+        }
+        if (!customerRepository.existsById(customerId)) {
+            throw new ResourceNotFoundException("Customer", "Id", customerId);
+        }
+        return enqueue(CheckoutCommand.Type.PARTIAL, customerId, null, orderDTO);
+    }
+
+    private CheckoutTicketDTO enqueue(CheckoutCommand.Type type, Long customerId, Long cartId, OrderDTO order) {
+        LocalDateTime now = LocalDateTime.now();
+        CheckoutTicket newTicket = new CheckoutTicket();
+        newTicket.setId(UUID.randomUUID().toString());
+        newTicket.setCustomerId(customerId);
+        newTicket.setCartId(cartId);
+        newTicket.setStatus(CheckoutTicket.Status.QUEUED);
+        newTicket.setCreatedAt(now);
+        newTicket.setUpdatedAt(now);
+        CheckoutTicket ticket = ticketTransaction.execute(status -> checkoutTicketRepository.save(newTicket));
+
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(new CheckoutCommand(ticket.getId(), type, customerId, cartId, order));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize checkout command.", e);
+        }
+        try {
+            // Waiting for the broker's ack is what makes the 202 a promise.
+            kafkaTemplate.send(CHECKOUT_TOPIC, String.valueOf(customerId), payload)
+                    .get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            log.error("Could not queue checkout ticket {} for customer ID: {}", ticket.getId(), customerId, e);
+            throw unavailable(ticket.getId(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw unavailable(ticket.getId(), e);
+        }
+        log.info("Checkout ticket {} queued for customer ID: {}", ticket.getId(), customerId);
+        return convertToDTO(ticket);
+    }
+
+    private IllegalStateException unavailable(String ticketId, Exception cause) {
+        ticketTransaction.execute(status ->
+                checkoutTicketRepository.fail(ticketId, "Checkout could not be queued.", LocalDateTime.now()));
+        return new IllegalStateException("Checkout is temporarily unavailable.", cause);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CheckoutTicketDTO getTicket(String ticketId) {
+        return checkoutTicketRepository.findById(ticketId)
+                .map(this::convertToDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("CheckoutTicket", "Id", ticketId));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${checkout.ticket.sweep-interval-ms:600000}")
+    @Transactional
+    public int deleteFinishedTickets() {
+        int deleted = checkoutTicketRepository.deleteFinishedBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (deleted > 0) {
+            log.info("Deleted {} finished checkout ticket(s).", deleted);
+        }
+        return deleted;
+    }
+
+    private CheckoutTicketDTO convertToDTO(CheckoutTicket ticket) {
+        CheckoutTicketDTO dto = new CheckoutTicketDTO();
+        dto.setId(ticket.getId());
+        dto.setStatus(ticket.getStatus().name());
+        dto.setCustomerId(ticket.getCustomerId());
+        dto.setCartId(ticket.getCartId());
+        dto.setOrderId(ticket.getOrderId());
+        dto.setOrderCode(ticket.getOrderCode());
+        dto.setMessage(ticket.getMessage());
+        dto.setCreatedAt(ticket.getCreatedAt());
+        dto.setUpdatedAt(ticket.getUpdatedAt());
+        return dto;
+    }
+}
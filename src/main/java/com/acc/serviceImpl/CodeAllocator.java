@@ -0,0 +1,136 @@
+package com.acc.serviceImpl;
+
+import com.acc.repository.CodeSequenceRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands out order and customer codes before the row is inserted. Each node leases a block
+ * of {@code codes.block-size} numbers from {@code code_sequences} and serves it with one
+ * atomic increment per code. Only a node that runs out of numbers touches the database
+ * again. Blocks never overlap, so codes are unique across nodes. Numbers left in a block
+ * when a node stops are skipped, which makes codes unique and increasing per node but not
+ * gap-free.
+ *
+ * <p>The sequence rows are created at startup, each by a plain {@code INSERT IGNORE} in its
+ * own transaction. A lease therefore only ever locks a row that exists. Locking a missing row
+ * and then inserting it takes gap locks that deadlock when two nodes lease at once.
+ */
+@Component
+public class CodeAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(CodeAllocator.class);
+
+    static final String ORDER_SEQUENCE = "order_code";
+    static final String CUSTOMER_SEQUENCE = "customer_code";
+
+    private static final DateTimeFormatter ORDER_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final String CUSTOMER_PREFIX = "CH";
+
+    // A sequence created on an existing database starts above every id that codes were
+    // derived from before, so new codes cannot collide with old ones.
+    private static final Map<String, String> FIRST_VALUE_SQL = Map.of(
+            ORDER_SEQUENCE, "SELECT COALESCE(MAX(id), 0) + 1 FROM customer_order",
+            CUSTOMER_SEQUENCE, "SELECT COALESCE(MAX(id), 0) + 1 FROM users");
+
+    private static final Block EXHAUSTED = new Block(0, 0);
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+
+    @Autowired
+    private CodeSequenceRepository codeSequenceRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${codes.block-size:100}")
+    private int blockSize;
+
+    private final Map<String, AtomicReference<Block>> blocks = new ConcurrentHashMap<>();
+    private TransactionTemplate leaseTransaction;
+
+    @PostConstruct
+    void init() {
+        // Leases commit on their own: a rolled-back checkout must not hand its block out again.
+        leaseTransaction = new TransactionTemplate(transactionManager);
+        leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        FIRST_VALUE_SQL.keySet().forEach(this::createSequence);
+    }
+
+    /** {@code ORD-yyyyMMdd-<n>}, the format order codes have always had. */
+    public String nextOrderCode() {
+        return "ORD-" + LocalDate.now().format(ORDER_DATE_FORMAT) + "-" + String.format("%03d", next(ORDER_SEQUENCE));
+    }
+
+    /** {@code CH<n>}, allocated before the customer is inserted. */
+    public String nextCustomerCode() {
+        return CUSTOMER_PREFIX + String.format("%03d", next(CUSTOMER_SEQUENCE));
+    }
+
+    long next(String sequence) {
+        AtomicReference<Block> current = blocks.computeIfAbsent(sequence, s -> new AtomicReference<>(EXHAUSTED));
+        while (true) {
+            Block block = current.get();
+            long value = block.next.getAndIncrement();
+            if (value < block.end) {
+                return value;
+            }
+            synchronized (current) {
+                // Whoever gets here first leases; the others retry on the fresh block.
+                if (current.get() == block) {
+                    current.set(lease(sequence));
+                }
+            }
+        }
+    }
+
+    private Block lease(String sequence) {
+        Long start = leaseTransaction.execute(status -> codeSequenceRepository.lockNextValue(sequence)
+                .map(nextValue -> {
+                    codeSequenceRepository.advance(sequence, blockSize, LocalDateTime.now());
+                    return nextValue;
+                })
+                .orElse(null));
+        if (start == null) {
+            // Only if the row was removed after startup; recreate it outside the locking transaction.
+            createSequence(sequence);
+            return lease(sequence);
+        }
+        log.info("Leased {} codes [{}, {}) from sequence '{}'.", blockSize, start, start + blockSize, sequence);
+        return new Block(start, start + blockSize);
+    }
+
+    private void createSequence(String sequence) {
+        leaseTransaction.executeWithoutResult(status -> {
+            Long firstValue = jdbcTemplate.queryForObject(FIRST_VALUE_SQL.get(sequence), Long.class);
+            if (codeSequenceRepository.createIfAbsent(sequence, firstValue, LocalDateTime.now()) == 1) {
+                log.info("Created code sequence '{}' starting at {}.", sequence, firstValue);
+            }
+        });
+    }
+}
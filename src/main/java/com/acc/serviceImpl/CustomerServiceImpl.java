@@ -14,7 +14,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Set;
@@ -33,23 +32,8 @@ public class CustomerServiceImpl implements CustomerService {
     @Autowired private PasswordEncoder passwordEncoder;
     @Autowired private AuthenticationManager authenticationManager;
     @Autowired private JwtUtil jwtUtil;
-    @Autowired private CustomerCodeGenerator customerCodeGenerator;
-
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    private Customer generateAndSaveCustomerCode(Customer customer) {
-        log.debug("Entering generateAndSaveCustomerCode method in a new transaction.");
-        Customer savedCustomer = customerRepository.save(customer);
-        if (savedCustomer.getId() == null) {
-            log.error("Failed to generate customer ID during initial save.");
-            throw new IllegalStateException("Failed to generate customer ID during initial save.");
-        }
-        String customerCode = customerCodeGenerator.generateCode(savedCustomer.getId());
-        savedCustomer.setCustomerCode(customerCode);
-        Customer customerWithCode = customerRepository.save(savedCustomer);
-        log.info("Generated and saved customer code '{}' for new customer with ID: {}", customerCode, customerWithCode.getId());
-        return customerWithCode;
-    }
-    
+    @Autowired private CodeAllocator codeAllocator;
+
     @Override
     public CustomerDTO saveCustomer(CustomerDTO customerDto) {
         log.info("Attempting to save a new customer with username: {}", customerDto.getUserDetails().getUsername());
@@ -85,11 +69,12 @@ public class CustomerServiceImpl implements CustomerService {
         customer.setRoles(Set.of(role));
         log.debug("Assigned role 'ROLE_CUSTOMER' to customer.");
 
-        customer = generateAndSaveCustomerCode(customer);
+        customer.setCustomerCode(codeAllocator.nextCustomerCode());
+        log.debug("Allocated customer code '{}' for user: {}", customer.getCustomerCode(), userDetails.getUsername());
 
         ProfileDTO profileDTO = customerDto.getProfileDetails();
         if (profileDTO != null) {
-            log.debug("Mapping and setting profile details for customer ID: {}", customer.getId());
+            log.debug("Mapping and setting profile details for customer: {}", customer.getCustomerCode());
             Profile profile = new Profile();
             profile.setFirstName(profileDTO.getFirstName());
             profile.setLastName(profileDTO.getLastName());
@@ -100,7 +85,7 @@ public class CustomerServiceImpl implements CustomerService {
             customer.setProfile(profile);
 
             if (profileDTO.getAddresses() != null) {
-                log.debug("Mapping and setting {} addresses for customer ID: {}", profileDTO.getAddresses().size(), customer.getId());
+                log.debug("Mapping and setting {} addresses for customer: {}", profileDTO.getAddresses().size(), customer.getCustomerCode());
                 for (AddressDTO aDto : profileDTO.getAddresses()) {
                     Address address = mapAddressToEntity(aDto);
                     profile.addAddress(address);
@@ -0,0 +1,202 @@
+package com.acc.serviceImpl;
+
+import com.acc.entity.IdempotencyKey;
+import com.acc.exception.IdempotencyKeyReuseException;
+import com.acc.exception.RequestInProgressException;
+import com.acc.repository.IdempotencyKeyRepository;
+import com.acc.service.IdempotencyService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency keys backed by {@code idempotency_keys}. Keys are scoped to the endpoint and to
+ * the authenticated principal, so two clients that happen to pick the same key never see
+ * each other's results. The first request inserts the key as {@code IN_PROGRESS}, which
+ * commits straight away, and then runs its action in a transaction that also stores the
+ * serialized result. The key is therefore completed exactly when the action's writes commit.
+ * Duplicates that find the key in progress poll until it completes or is released; they never
+ * run the action themselves. An action that fails releases the key, so the client can retry it.
+ *
+ * <p>An {@code IN_PROGRESS} key only holds a short lease (the wait timeout plus
+ * {@code idempotency.lease-margin-ms}), so a key left behind by a crashed instance blocks
+ * retries for seconds rather than for the whole TTL. Completing the key extends it to
+ * {@code idempotency.ttl-hours}. The lease has to outlast the slowest action, or a duplicate
+ * arriving after it lapses runs the action again.
+ */
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyServiceImpl.class);
+
+    static final int MAX_KEY_LENGTH = 100;
+    private static final long MAX_POLL_INTERVAL_MS = 200;
+    private static final String ANONYMOUS = "anonymous";
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMs;
+
+    @Value("${idempotency.lease-margin-ms:30000}")
+    private long leaseMarginMs;
+
+    private TransactionTemplate ownTransaction;
+    private TransactionTemplate actionTransaction;
+
+    @PostConstruct
+    void init() {
+        ownTransaction = new TransactionTemplate(transactionManager);
+        ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        actionTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public <T> T execute(String scope, String key, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters.");
+        }
+        String id = keyId(scope, key);
+        String requestHash = fingerprint(request);
+        long deadline = System.currentTimeMillis() + waitTimeoutMs;
+        long pause = 10;
+
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime leaseEnd = now.plus(waitTimeoutMs + leaseMarginMs, ChronoUnit.MILLIS);
+            Integer claimed = ownTransaction.execute(status ->
+                    idempotencyKeyRepository.claim(id, requestHash, now, leaseEnd));
+            if (claimed != null && claimed == 1) {
+                return runClaimed(id, action);
+            }
+
+            List<Object[]> rows = idempotencyKeyRepository.findStateById(id);
+            if (rows.isEmpty()) {
+                continue; // released by a failed first attempt; claim it again
+            }
+            Object[] state = rows.get(0);
+            if (((LocalDateTime) state[3]).isBefore(now)) {
+                ownTransaction.execute(status -> idempotencyKeyRepository.deleteIfExpired(id, now));
+                continue;
+            }
+            if (!requestHash.equals(state[1])) {
+                log.warn("Idempotency key '{}' reused with a different request.", id);
+                throw new IdempotencyKeyReuseException("Idempotency-Key was already used for a different request.");
+            }
+            if (IdempotencyKey.COMPLETED.equals(state[0])) {
+                log.info("Replaying stored response for idempotency key '{}'.", id);
+                return read((String) state[2], responseType);
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                throw new RequestInProgressException("A request with this Idempotency-Key is still being processed.");
+            }
+            sleep(pause);
+            pause = Math.min(pause * 2, MAX_POLL_INTERVAL_MS);
+        }
+    }
+
+    private <T> T runClaimed(String id, Supplier<T> action) {
+        try {
+            return actionTransaction.execute(status -> {
+                T result = action.get();
+                idempotencyKeyRepository.complete(id, write(result), LocalDateTime.now().plusHours(ttlHours));
+                return result;
+            });
+        } catch (RuntimeException e) {
+            ownTransaction.execute(status -> idempotencyKeyRepository.release(id));
+            throw e;
+        }
+    }
+
+    /**
+     * The stored id: scope, a digest of the caller's principal name and the client's key. The
+     * digest keeps the id within the column whatever the length of the user name.
+     */
+    static String keyId(String scope, String key) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String principal = authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)
+                ? authentication.getName() : ANONYMOUS;
+        return scope + ":" + sha256(principal).substring(0, 16) + ":" + key;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${idempotency.sweep-interval-ms:300000}")
+    public int deleteExpired() {
+        Integer deleted = ownTransaction.execute(status -> idempotencyKeyRepository.deleteExpired(LocalDateTime.now()));
+        if (deleted != null && deleted > 0) {
+            log.info("Deleted {} expired idempotency key(s).", deleted);
+        }
+        return deleted == null ? 0 : deleted;
+    }
+
+    private String fingerprint(Object request) {
+        return sha256(write(request));
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize value for idempotency key.", e);
+        }
+    }
+
+    private <T> T read(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored response for idempotency key.", e);
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RequestInProgressException("Interrupted while waiting for the original request.");
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.acc.serviceImpl;
+
+import com.acc.dto.AddItemToCartRequestDTO;
+import com.acc.dto.CartBatchRequestDTO;
+import com.acc.dto.CartBatchResponseDTO;
+import com.acc.dto.CartDTO;
+import com.acc.dto.CartItemDTO;
+import com.acc.dto.CartPageResponse;
+import com.acc.dto.ProductDTO;
+import com.acc.exception.ResourceNotFoundException;
+import com.acc.service.CartService;
+import com.acc.service.ProductService;
+import com.acc.service.StockReservationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Cart service for {@code cart.store.mode=memory}. Single-line changes are applied to the
+ * cart held in {@link InMemoryCartStore} under the customer's lock, and only the stock
+ * reservation is written synchronously. Batch, repair and listing calls first write the held
+ * cart back and then go to {@link CartServiceImpl}. Methods are deliberately not
+ * transactional: the lock is always taken before any database transaction starts.
+ *
+ * <p>Lines added in memory have no id until their cart is reloaded after a write-back.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "cart.store.mode", havingValue = "memory")
+public class InMemoryCartServiceImpl implements CartService {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryCartServiceImpl.class);
+
+    @Autowired
+    private InMemoryCartStore cartStore;
+    @Autowired
+    private CartServiceImpl databaseCartService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Override
+    public CartDTO getOrCreateCart(Long customerId) {
+        log.info("Fetching or creating cart for customer ID: {}", customerId);
+        return convertToDTO(cartStore.read(customerId));
+    }
+
+    @Override
+    public CartDTO addProductToCart(Long customerId, AddItemToCartRequestDTO addItemToCartDTO) {
+        log.info("Adding product ID: {} with quantity: {} to cart for customer ID: {}",
+                addItemToCartDTO.getProductId(), addItemToCartDTO.getQuantity(), customerId);
+        if (addItemToCartDTO.getQuantity() <= 0) {
+            log.error("Invalid quantity provided: {}", addItemToCartDTO.getQuantity());
+            throw new IllegalArgumentException("Quantity must be greater than zero.");
+        }
+        ProductDTO product = productService.getProductByProductId(addItemToCartDTO.getProductId());
+        if (!product.isActive()) {
+            log.error("Attempted to add inactive product ID: {} to cart.", product.getId());
+            throw new IllegalArgumentException("Product is not available for purchase.");
+        }
+
+        ReentrantLock lock = cartStore.lockFor(customerId);
+        lock.lock();
+        try {
+            CachedCart cart = cartStore.get(customerId).copy();
+            CachedCart.Line existing = cart.getLine(product.getId());
+            int newQuantity = addItemToCartDTO.getQuantity() + (existing != null ? existing.quantity : 0);
+            reserveStock(cart, product, newQuantity);
+            cart.putLine(existing != null
+                    ? existing.withQuantity(newQuantity, product.getDiscountPercentage())
+                    : new CachedCart.Line(null, product.getId(), product.getName(), true, newQuantity,
+                            product.getPrice(), product.getDiscountPercentage()));
+            cartStore.update(cart);
+            log.info("Product ID: {} added to cart successfully. Cart ID: {}", product.getId(), cart.cartId);
+            return convertToDTO(cart);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public CartDTO updateProductQuantityInCart(Long customerId, Long productId, Integer newQuantity) {
+        log.info("Updating quantity for product ID: {} to {} in cart for customer ID: {}", productId, newQuantity, customerId);
+        if (newQuantity < 0) {
+            log.error("Invalid new quantity provided: {}", newQuantity);
+            throw new IllegalArgumentException("Quantity cannot be negative.");
+        }
+        if (newQuantity == 0) {
+            return removeProductFromCart(customerId, productId);
+        }
+        ProductDTO product = productService.getProductByProductId(productId);
+
+        ReentrantLock lock = cartStore.lockFor(customerId);
+        lock.lock();
+        try {
+            CachedCart cart = cartStore.get(customerId).copy();
+            CachedCart.Line line = requireLine(cart, productId);
+            reserveStock(cart, product, newQuantity);
+            cart.putLine(line.withQuantity(newQuantity, product.getDiscountPercentage()));
+            cartStore.update(cart);
+            log.info("Product quantity updated successfully for product ID: {} in cart ID: {}", productId, cart.cartId);
+            return convertToDTO(cart);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public CartDTO removeProductFromCart(Long customerId, Long productId) {
+        log.info("Removing product ID: {} from cart for customer ID: {}", productId, customerId);
+        ReentrantLock lock = cartStore.lockFor(customerId);
+        lock.lock();
+        try {
+            CachedCart cart = cartStore.get(customerId).copy();
+            requireLine(cart, productId);
+            stockReservationService.release(cart.cartId, productId);
+            cart.removeLine(productId);
+            cartStore.update(cart);
+            log.info("Product ID: {} removed from cart ID: {} successfully.", productId, cart.cartId);
+            return convertToDTO(cart);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public CartBatchResponseDTO applyCartBatch(Long customerId, CartBatchRequestDTO request) {
+        ReentrantLock lock = cartStore.lockFor(customerId);
+        lock.lock();
+        try {
+            cartStore.writeBack(customerId);
+            cartStore.evict(customerId);
+            return databaseCartService.applyCartBatch(customerId, request);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clearCart(Long customerId) {
+        log.info("Clearing cart for customer ID: {}", customerId);
+        ReentrantLock lock = cartStore.lockFor(customerId);
+        lock.lock();
+        try {
+            CachedCart cart = cartStore.get(customerId).copy();
+            stockReservationService.releaseAll(cart.cartId);
+            cart.clearLines();
+            cartStore.update(cart);
+            log.info("Cart ID: {} cleared successfully. All items removed and reservations released.", cart.cartId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public CartDTO getCartById(Long cartId) {
+        if (!cartStore.isHeld(cartId)) {
+            return databaseCartService.getCartById(cartId);
+        }
+        Long customerId = cartStore.ownerOf(cartId);
+        return convertToDTO(cartStore.read(customerId));
+    }
+
+    @Override
+    public CartPageResponse getAllCarts(String afterCursor, int limit) {
+        cartStore.flushDirty();
+        return databaseCartService.getAllCarts(afterCursor, limit);
+    }
+
+    @Override
+    public boolean repairCartTotals(Long cartId) {
+        Long customerId = cartStore.ownerOf(cartId);
+        if (customerId == null) {
+            return databaseCartService.repairCartTotals(cartId);
+        }
+        ReentrantLock lock = cartStore.lockFor(customerId);
+        lock.lock();
+        try {
+            cartStore.writeBack(customerId);
+            cartStore.evict(customerId);
+            return databaseCartService.repairCartTotals(cartId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void prepareCheckout(Long cartId) {
+        Long customerId = cartStore.ownerOf(cartId);
+        if (customerId != null) {
+            prepareCheckoutForCustomer(customerId);
+        }
+    }
+
+    /**
+     * Writes the cart back and drops it from memory, then keeps the customer's lock until the
+     * caller's transaction completes. A change arriving mid-checkout would otherwise reload
+     * the pre-order lines and write the ordered ones back afterwards.
+     */
+    @Override
+    public void prepareCheckoutForCustomer(Long customerId) {
+        ReentrantLock lock = cartStore.lockFor(customerId);
+        lock.lock();
+        try {
+            cartStore.writeBack(customerId);
+            cartStore.evict(customerId);
+        } catch (RuntimeException e) {
+            lock.unlock();
+            throw e;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+        } else {
+            lock.unlock();
+        }
+        log.debug("Cart of customer ID {} written back for checkout.", customerId);
+    }
+
+    private void reserveStock(CachedCart cart, ProductDTO product, int quantity) {
+        try {
+            stockReservationService.reserve(cart.cartId, product.getId(), quantity);
+        } catch (IllegalArgumentException e) {
+            log.error("Insufficient stock for product: {}. Requested: {}", product.getName(), quantity);
+            throw new IllegalArgumentException("Not enough stock for product: " + product.getName());
+        }
+    }
+
+    private CachedCart.Line requireLine(CachedCart cart, Long productId) {
+        CachedCart.Line line = cart.getLine(productId);
+        if (line == null) {
+            log.error("Cart item not found for product ID: {} in cart ID: {}", productId, cart.cartId);
+            throw new ResourceNotFoundException("CartItem", "Product Not Found in Cart", productId);
+        }
+        return line;
+    }
+
+    private CartDTO convertToDTO(CachedCart cart) {
+        CartDTO cartDTO = new CartDTO();
+        cartDTO.setId(cart.cartId);
+        cartDTO.setCustomerId(cart.customerId);
+        cartDTO.setCreatedAt(cart.createdAt);
+        cartDTO.setUpdatedAt(cart.getUpdatedAt());
+        cartDTO.setTotalAmount(cart.getTotalAmount());
+        cartDTO.setCartItems(cart.getLines().stream()
+                .filter(line -> line.active)
+                .map(line -> {
+                    CartItemDTO dto = new CartItemDTO();
+                    dto.setId(line.itemId);
+                    dto.setProductId(line.productId);
+                    dto.setProductName(line.productName);
+                    dto.setQuantity(line.quantity);
+                    dto.setPrice(line.price);
+                    dto.setDiscountPercentage(line.discountPercentage);
+                    dto.setDiscountedPrice(line.discountedPrice);
+                    return dto;
+                })
+                .collect(Collectors.toList()));
+        return cartDTO;
+    }
+}
@@ -0,0 +1,337 @@
+package com.acc.serviceImpl;
+
+import com.acc.entity.Cart;
+import com.acc.event.ProductChangedEvent;
+import com.acc.repository.CartRepository;
+import com.acc.util.LocalGrid;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds live carts for {@code cart.store.mode=memory} and writes them back to MySQL behind
+ * the request path. Every change marks the customer's cart dirty; a flush every
+ * {@code cart.store.flush-interval-ms} writes each dirty cart once, however many changes it
+ * took, as a diff against its stored lines. Checkout forces the write first.
+ *
+ * <p>Durability: stock reservations are still written synchronously, so stock is never
+ * oversold. On a clean shutdown every dirty cart is written before the datasource closes.
+ * A crash loses at most the cart changes of the last flush interval. After a restart the
+ * cart reloads as of its last flush. Reservations made by the lost changes stay held until
+ * they expire after {@code cart.reservation.ttl-minutes}. With a shared grid
+ * ({@code cart.store.grid-name}) the carts outlive a single node, and any node's flush
+ * writes them.
+ */
+@Component
+@ConditionalOnProperty(name = "cart.store.mode", havingValue = "memory")
+public class InMemoryCartStore {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryCartStore.class);
+
+    private static final String SELECT_LINES_SQL =
+            "SELECT id, product_id, quantity, line_total FROM cart_items WHERE cart_id = ?";
+    private static final String UPDATE_CART_SQL = "UPDATE carts SET total_amount = ?, updated_at = ?, version = version + 1 WHERE id = ?";
+
+    @Autowired
+    private CartRepository cartRepository;
+    @Autowired
+    private CartServiceImpl databaseCartService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${cart.store.grid-name:}")
+    private String gridName;
+
+    @Value("${cart.store.lock-stripes:256}")
+    private int lockStripes;
+
+    @Value("${cart.store.idle-minutes:30}")
+    private long idleMinutes;
+
+    private LocalGrid<Long, CachedCart> carts;
+    // cart id -> customer id for carts currently held, so checkout by cart id finds the entry.
+    private LocalGrid<Long, Long> owners;
+    private TransactionTemplate writeTransaction;
+
+    private final AtomicLong changes = new AtomicLong();
+    private final AtomicLong cartWrites = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        if (gridName.isBlank()) {
+            carts = new LocalGrid<>(lockStripes);
+            owners = new LocalGrid<>(1);
+        } else {
+            carts = LocalGrid.named(gridName + ".carts", lockStripes);
+            owners = LocalGrid.named(gridName + ".owners", 1);
+        }
+        // Write-backs commit on their own, so a checkout that rolls back cannot undo them.
+        writeTransaction = new TransactionTemplate(transactionManager);
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        log.info("In-memory cart store ready ({} grid, {} lock stripes).",
+                gridName.isBlank() ? "node-local" : "shared '" + gridName + "'", lockStripes);
+    }
+
+    public ReentrantLock lockFor(Long customerId) {
+        return carts.lockFor(customerId);
+    }
+
+    /** Current cart for reading; loads it under the customer's lock on a miss. */
+    CachedCart read(Long customerId) {
+        CachedCart cart = carts.get(customerId);
+        if (cart != null) {
+            return cart;
+        }
+        ReentrantLock lock = lockFor(customerId);
+        lock.lock();
+        try {
+            return get(customerId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Current cart, loaded from the database (and created) if not held. Caller holds the lock. */
+    CachedCart get(Long customerId) {
+        CachedCart cart = carts.get(customerId);
+        if (cart != null) {
+            return cart;
+        }
+        Cart entity = cartRepository.findWithItemsByCustomer_Id(customerId).orElse(null);
+        if (entity == null) {
+            databaseCartService.getOrCreateCart(customerId);
+            entity = cartRepository.findWithItemsByCustomer_Id(customerId).orElseThrow();
+        }
+        cart = CachedCart.of(entity);
+        carts.put(customerId, cart);
+        owners.put(cart.cartId, customerId);
+        log.debug("Loaded cart ID {} for customer ID {} into memory with {} lines.", cart.cartId, customerId,
+                cart.getLines().size());
+        return cart;
+    }
+
+    /** Publishes a changed copy of the cart and queues it for write-back. Caller holds the lock. */
+    void update(CachedCart cart) {
+        carts.put(cart.customerId, cart);
+        carts.markDirty(cart.customerId);
+        changes.incrementAndGet();
+    }
+
+    /** Customer owning a held cart, or the cart's owner read from the database. */
+    Long ownerOf(Long cartId) {
+        Long customerId = owners.get(cartId);
+        if (customerId != null) {
+            return customerId;
+        }
+        // In its own transaction so the caller's read view is not opened before the write-back.
+        return writeTransaction.execute(status -> cartRepository.findCustomerIdById(cartId).orElse(null));
+    }
+
+    boolean isHeld(Long cartId) {
+        return owners.get(cartId) != null;
+    }
+
+    /**
+     * Writes the cart back now if it has unwritten changes. Caller holds the lock.
+     *
+     * @return true if anything was written
+     */
+    boolean writeBack(Long customerId) {
+        if (!carts.clearDirty(customerId)) {
+            return false;
+        }
+        CachedCart cart = carts.get(customerId);
+        if (cart == null) {
+            return false;
+        }
+        try {
+            writeTransaction.executeWithoutResult(status -> persist(cart));
+        } catch (RuntimeException e) {
+            carts.markDirty(customerId);
+            throw e;
+        }
+        cartWrites.incrementAndGet();
+        return true;
+    }
+
+    /** Drops the cart from memory; unwritten changes are lost, so write back first. Caller holds the lock. */
+    void evict(Long customerId) {
+        CachedCart cart = carts.remove(customerId);
+        if (cart != null) {
+            owners.remove(cart.cartId);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${cart.store.flush-interval-ms:500}",
+               fixedDelayString = "${cart.store.flush-interval-ms:500}")
+    public int flushDirty() {
+        int written = 0;
+        for (Long customerId : carts.dirtyKeys()) {
+            ReentrantLock lock = lockFor(customerId);
+            lock.lock();
+            try {
+                if (writeBack(customerId)) {
+                    written++;
+                }
+            } catch (RuntimeException e) {
+                log.error("Write-back of the cart for customer ID {} failed, will retry: {}", customerId, e.getMessage(), e);
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (written > 0) {
+            log.debug("Wrote back {} carts ({} changes so far, {} cart writes).", written, changes.get(), cartWrites.get());
+        }
+        return written;
+    }
+
+    /** Bounds memory: carts untouched for {@code cart.store.idle-minutes} are dropped once written. */
+    @Scheduled(fixedDelayString = "${cart.store.idle-sweep-interval-ms:60000}")
+    public int evictIdle() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(idleMinutes);
+        int evicted = 0;
+        for (Long customerId : carts.keys()) {
+            ReentrantLock lock = lockFor(customerId);
+            lock.lock();
+            try {
+                CachedCart cart = carts.get(customerId);
+                if (cart != null && !carts.isDirty(customerId) && cart.getUpdatedAt().isBefore(cutoff)) {
+                    evict(customerId);
+                    evicted++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (evicted > 0) {
+            log.info("Evicted {} idle carts from memory; {} still held.", evicted, carts.size());
+        }
+        return evicted;
+    }
+
+    // Deleted products lose their cart lines in the database; drop them from held carts too,
+    // or the next write-back would re-insert them.
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() != ProductChangedEvent.Type.DELETED) {
+            return;
+        }
+        Set<Long> deleted = new HashSet<>(event.getProductIds());
+        for (Long customerId : carts.keys()) {
+            ReentrantLock lock = lockFor(customerId);
+            lock.lock();
+            try {
+                CachedCart cart = carts.get(customerId);
+                if (cart == null || cart.getLines().stream().noneMatch(line -> deleted.contains(line.productId))) {
+                    continue;
+                }
+                CachedCart changed = cart.copy();
+                deleted.forEach(changed::removeLine);
+                update(changed);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /** Runs before the datasource closes, since this bean depends on it. */
+    @PreDestroy
+    public void shutdown() {
+        int written = flushDirty();
+        log.info("Cart store shut down after writing back {} carts; {} still dirty.", written, carts.dirtyCount());
+    }
+
+    public long getChangeCount() {
+        return changes.get();
+    }
+
+    public long getCartWriteCount() {
+        return cartWrites.get();
+    }
+
+    public int getHeldCount() {
+        return carts.size();
+    }
+
+    public int getDirtyCount() {
+        return carts.dirtyCount();
+    }
+
+    // Diffs the cart against its stored lines: unchanged rows are skipped, every other change
+    // goes out in one JDBC batch per statement type.
+    private void persist(CachedCart cart) {
+        List<Object[]> updates = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        Set<Long> stored = new HashSet<>();
+        jdbcTemplate.query(SELECT_LINES_SQL, rs -> {
+            long itemId = rs.getLong(1);
+            long productId = rs.getLong(2);
+            CachedCart.Line line = cart.getLine(productId);
+            if (line == null || !stored.add(productId)) {
+                deletes.add(itemId);
+                return;
+            }
+            BigDecimal storedTotal = rs.getBigDecimal(4);
+            if (rs.getInt(3) != line.quantity || storedTotal == null || storedTotal.compareTo(line.lineTotal) != 0) {
+                updates.add(new Object[] {itemId, line});
+            }
+        }, cart.cartId);
+        List<CachedCart.Line> inserts = new ArrayList<>();
+        for (CachedCart.Line line : cart.getLines()) {
+            if (!stored.contains(line.productId)) {
+                inserts.add(line);
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(CartItemRows.INSERT_SQL, inserts, inserts.size(), (ps, line) -> {
+                ps.setLong(1, cart.cartId);
+                ps.setLong(2, line.productId);
+                ps.setInt(3, line.quantity);
+                ps.setBigDecimal(4, line.price);
+                CartItemRows.setDiscount(ps, 5, line.discountPercentage);
+                ps.setBigDecimal(6, line.discountedPrice);
+                ps.setBigDecimal(7, line.lineTotal);
+            });
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(CartItemRows.UPDATE_SQL, updates, updates.size(), (ps, row) -> {
+                CachedCart.Line line = (CachedCart.Line) row[1];
+                ps.setInt(1, line.quantity);
+                CartItemRows.setDiscount(ps, 2, line.discountPercentage);
+                ps.setBigDecimal(3, line.discountedPrice);
+                ps.setBigDecimal(4, line.lineTotal);
+                ps.setLong(5, (Long) row[0]);
+            });
+        }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(CartItemRows.DELETE_SQL, deletes, deletes.size(), (ps, id) -> ps.setLong(1, id));
+        }
+        jdbcTemplate.update(UPDATE_CART_SQL, cart.getTotalAmount(), Timestamp.valueOf(cart.getUpdatedAt()), cart.cartId);
+        log.debug("Wrote back cart ID {}: {} inserted, {} updated, {} deleted lines.", cart.cartId,
+                inserts.size(), updates.size(), deletes.size());
+    }
+}
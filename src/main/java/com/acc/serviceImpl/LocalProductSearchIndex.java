@@ -0,0 +1,340 @@
+package com.acc.serviceImpl;
+
+import com.acc.dto.FacetBucket;
+import com.acc.dto.ProductSearchCriteria;
+import com.acc.dto.ProductSearchFacets;
+import com.acc.dto.ProductSearchResponse;
+import com.acc.dto.ProductSearchSort;
+import com.acc.elasticsearch.entity.ProductDocument;
+import com.acc.entity.Product;
+import com.acc.event.ProductChangedEvent;
+import com.acc.repository.ProductRepository;
+import com.acc.util.Bm25Index;
+import com.acc.util.FacetBands;
+import com.acc.util.SearchCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process product search used when Elasticsearch is unavailable (or configured away).
+ * Built from {@link ProductRepository} at startup, patched from product change events and
+ * rebuilt periodically to compact away ordinals left behind by updates. Answers the same
+ * {@link ProductSearchCriteria} as the Elasticsearch path, including cursors and facets.
+ */
+@Component
+public class LocalProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalProductSearchIndex.class);
+
+    private static final int NAME_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${search.local.page-size:1000}")
+    private int pageSize;
+
+    @Value("${search.facets.price-interval:50}")
+    private double priceFacetInterval;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Serialises rebuild and patching, so a change drained mid-rebuild is not applied to the
+    // index that the rebuild is about to replace.
+    private final Lock refreshLock = new ReentrantLock();
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    // Guarded by lock; documents is indexed by ordinal and holds null for removed ordinals.
+    private Bm25Index index;
+    private List<ProductDocument> documents = new ArrayList<>();
+    private Map<Long, Integer> ordinals = new HashMap<>();
+
+    private static final class Hit {
+        private final ProductDocument document;
+        private final double primary;
+
+        private Hit(ProductDocument document, double primary) {
+            this.document = document;
+            this.primary = primary;
+        }
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return index != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${search.local.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        refreshLock.lock();
+        try {
+            rebuildIndex();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void rebuildIndex() {
+        long start = System.nanoTime();
+        Bm25Index freshIndex = new Bm25Index();
+        List<ProductDocument> freshDocuments = new ArrayList<>();
+        Map<Long, Integer> freshOrdinals = new HashMap<>();
+
+        long afterId = 0;
+        List<Product> page;
+        while (!(page = productRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, pageSize))).isEmpty()) {
+            for (Product product : page) {
+                add(freshIndex, freshDocuments, freshOrdinals, ProductDocument.fromProduct(product));
+                afterId = product.getId();
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            index = freshIndex;
+            documents = freshDocuments;
+            ordinals = freshOrdinals;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Built local product search index with {} products in {} ms.",
+                freshOrdinals.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        pending.addAll(event.getProductIds());
+    }
+
+    @Scheduled(fixedDelayString = "${search.local.refresh-interval-ms:1000}")
+    public void applyPendingChanges() {
+        // While a rebuild runs the changes stay pending and are applied to the new index.
+        if (pending.isEmpty() || !refreshLock.tryLock()) {
+            return;
+        }
+        try {
+            patchIndex();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void patchIndex() {
+        List<Long> ids = new ArrayList<>();
+        for (Iterator<Long> iterator = pending.iterator(); iterator.hasNext(); ) {
+            ids.add(iterator.next());
+            iterator.remove();
+        }
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(ids)) {
+            products.put(product.getId(), product);
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (index == null) {
+                return;
+            }
+            for (Long id : ids) {
+                Integer ordinal = ordinals.remove(id);
+                if (ordinal != null) {
+                    index.remove(ordinal);
+                    documents.set(ordinal, null);
+                }
+                Product product = products.get(id);
+                if (product != null) {
+                    add(index, documents, ordinals, ProductDocument.fromProduct(product));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Applied {} product changes to the local search index.", ids.size());
+    }
+
+    private static void add(Bm25Index target, List<ProductDocument> targetDocuments, Map<Long, Integer> targetOrdinals,
+                            ProductDocument document) {
+        Map<String, Integer> fields = new LinkedHashMap<>();
+        fields.put(document.getName() != null ? document.getName() : "", NAME_WEIGHT);
+        fields.merge(document.getDescription() != null ? document.getDescription() : "", DESCRIPTION_WEIGHT, Integer::sum);
+        int ordinal = target.add(fields);
+        targetDocuments.add(document);
+        targetOrdinals.put(document.getId(), ordinal);
+    }
+
+    public ProductSearchResponse search(ProductSearchCriteria criteria) {
+        int size = criteria.getEffectiveSize();
+        boolean firstPage = criteria.getAfter() == null || criteria.getAfter().isEmpty();
+        boolean relevance = criteria.getSort() == ProductSearchSort.RELEVANCE && criteria.hasQuery();
+        List<Object> cursor = firstPage ? null : SearchCursor.decode(criteria.getAfter());
+
+        List<Hit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (index == null) {
+                throw new IllegalStateException("Local search index is not built yet.");
+            }
+            float[] scores = criteria.hasQuery() ? index.score(criteria.getQuery()) : null;
+            for (int ordinal = 0; ordinal < documents.size(); ordinal++) {
+                ProductDocument document = documents.get(ordinal);
+                if (document == null || (scores != null && scores[ordinal] <= 0) || !matchesFilters(document, criteria)) {
+                    continue;
+                }
+                hits.add(new Hit(document, primarySortValue(document, criteria.getSort(), scores, ordinal)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        ProductSearchFacets facets = criteria.isFacets() && firstPage ? facetsOf(hits) : null;
+
+        Comparator<Hit> order = hitOrder(criteria.getSort(), relevance);
+        hits.sort(order);
+        List<ProductDocument> items = new ArrayList<>(size);
+        Hit last = null;
+        for (Hit hit : hits) {
+            if (cursor != null && compareToCursor(hit, cursor, criteria.getSort(), relevance) <= 0) {
+                continue;
+            }
+            if (items.size() == size) {
+                break;
+            }
+            items.add(hit.document);
+            last = hit;
+        }
+
+        String nextCursor = items.size() == size && last != null ? SearchCursor.encode(sortValues(last, criteria.getSort(), relevance)) : null;
+        ProductSearchResponse response = new ProductSearchResponse(items, hits.size(), nextCursor, size);
+        response.setFacets(facets);
+        return response;
+    }
+
+    private static boolean matchesFilters(ProductDocument document, ProductSearchCriteria criteria) {
+        if (criteria.getCategory() != null && !criteria.getCategory().name().equals(document.getCategory())) {
+            return false;
+        }
+        if (criteria.getMinPrice() != null && (document.getPrice() == null || document.getPrice().compareTo(criteria.getMinPrice()) < 0)) {
+            return false;
+        }
+        if (criteria.getMaxPrice() != null && (document.getPrice() == null || document.getPrice().compareTo(criteria.getMaxPrice()) > 0)) {
+            return false;
+        }
+        return !criteria.isInStock() || (document.getStockQuantity() != null && document.getStockQuantity() > 0);
+    }
+
+    private static double primarySortValue(ProductDocument document, ProductSearchSort sort, float[] scores, int ordinal) {
+        return switch (sort) {
+            case PRICE_ASC, PRICE_DESC -> document.getPrice() != null ? document.getPrice().doubleValue() : 0;
+            case DISCOUNT_DESC -> document.getDiscountPercentage() != null ? document.getDiscountPercentage() : 0;
+            default -> scores != null ? scores[ordinal] : 0;
+        };
+    }
+
+    // Mirrors the Elasticsearch sort: optional primary key, then id ascending.
+    private static Comparator<Hit> hitOrder(ProductSearchSort sort, boolean relevance) {
+        Comparator<Hit> byId = Comparator.comparingLong(hit -> hit.document.getId());
+        return switch (sort) {
+            case PRICE_ASC -> Comparator.<Hit>comparingDouble(hit -> hit.primary).thenComparing(byId);
+            case PRICE_DESC, DISCOUNT_DESC -> Comparator.<Hit>comparingDouble(hit -> hit.primary).reversed().thenComparing(byId);
+            default -> relevance ? Comparator.<Hit>comparingDouble(hit -> hit.primary).reversed().thenComparing(byId) : byId;
+        };
+    }
+
+    private static boolean hasPrimary(ProductSearchSort sort, boolean relevance) {
+        return sort != ProductSearchSort.RELEVANCE || relevance;
+    }
+
+    private static List<Object> sortValues(Hit hit, ProductSearchSort sort, boolean relevance) {
+        List<Object> values = new ArrayList<>(2);
+        if (hasPrimary(sort, relevance)) {
+            values.add(hit.primary);
+        }
+        values.add(hit.document.getId());
+        return values;
+    }
+
+    private static int compareToCursor(Hit hit, List<Object> cursor, ProductSearchSort sort, boolean relevance) {
+        int idIndex = 0;
+        if (hasPrimary(sort, relevance)) {
+            if (cursor.size() < 2) {
+                throw new IllegalArgumentException("Invalid cursor for sort " + sort);
+            }
+            int primary = Double.compare(hit.primary, ((Number) cursor.get(0)).doubleValue());
+            if (sort != ProductSearchSort.PRICE_ASC) {
+                primary = -primary;
+            }
+            if (primary != 0) {
+                return primary;
+            }
+            idIndex = 1;
+        }
+        return Long.compare(hit.document.getId(), ((Number) cursor.get(idIndex)).longValue());
+    }
+
+    private ProductSearchFacets facetsOf(List<Hit> hits) {
+        ProductSearchFacets facets = new ProductSearchFacets();
+        Map<String, Long> categories = new HashMap<>();
+        TreeMap<Double, Long> prices = new TreeMap<>();
+        long[] discountCounts = new long[FacetBands.DISCOUNT_BANDS.length];
+
+        for (Hit hit : hits) {
+            ProductDocument document = hit.document;
+            if (document.getCategory() != null) {
+                categories.merge(document.getCategory(), 1L, Long::sum);
+            }
+            if (document.getPrice() != null) {
+                double bucket = Math.floor(document.getPrice().doubleValue() / priceFacetInterval) * priceFacetInterval;
+                prices.merge(bucket, 1L, Long::sum);
+            }
+            double discount = document.getDiscountPercentage() != null ? document.getDiscountPercentage() : 0;
+            for (int b = 0; b < FacetBands.DISCOUNT_BANDS.length; b++) {
+                double[] band = FacetBands.DISCOUNT_BANDS[b];
+                if (discount >= band[0] && (band.length == 1 || discount < band[1])) {
+                    discountCounts[b]++;
+                }
+            }
+            if (document.getStockQuantity() != null && document.getStockQuantity() > 0) {
+                facets.setInStock(facets.getInStock() + 1);
+            } else {
+                facets.setOutOfStock(facets.getOutOfStock() + 1);
+            }
+        }
+
+        categories.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(e -> facets.getCategories().add(new FacetBucket(e.getKey(), null, null, e.getValue())));
+        prices.forEach((from, count) -> facets.getPriceRanges().add(
+                new FacetBucket(FacetBands.rangeKey(from, from + priceFacetInterval), from, from + priceFacetInterval, count)));
+        for (int b = 0; b < FacetBands.DISCOUNT_BANDS.length; b++) {
+            double[] band = FacetBands.DISCOUNT_BANDS[b];
+            facets.getDiscountBands().add(new FacetBucket(FacetBands.discountBandKey(band), band[0],
+                    band.length > 1 ? band[1] : null, discountCounts[b]));
+        }
+        return facets;
+    }
+}
@@ -2,11 +2,13 @@ package com.acc.serviceImpl;
 
 import com.acc.exception.ResourceNotFoundException;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.acc.dto.OrderItemDTO;
@@ -14,6 +16,7 @@ import com.acc.dto.ProductDTO;
 import com.acc.entity.Order;
 import com.acc.entity.OrderItem;
 import com.acc.entity.Product;
+import com.acc.event.ProductChangedEvent;
 import com.acc.repository.OrderItemRepository;
 import com.acc.repository.OrderRepository;
 import com.acc.repository.ProductRepository;
@@ -30,6 +33,8 @@ public class OrderItemServiceImpl implements OrderItemService {
     private ProductRepository productRepository;
     @Autowired
     private OrderRepository orderRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     private OrderItemDTO convertToDTO(OrderItem orderItem) {
         log.debug("Converting OrderItem entity to DTO for ID: {}", orderItem.getId());
@@ -87,12 +92,6 @@ public class OrderItemServiceImpl implements OrderItemService {
                     return new ResourceNotFoundException("Product", "Id", productDto.getId());
                 });
 
-        if (product.getStockQuantity() < orderItemDTO.getQuantity()) {
-            log.error("Insufficient stock for product: {}. Available: {}, Requested: {}",
-                    product.getName(), product.getStockQuantity(), orderItemDTO.getQuantity());
-            throw new IllegalArgumentException("Insufficient stock for product: " + product.getName() + ". Available: " + product.getStockQuantity() + ", Requested: " + orderItemDTO.getQuantity());
-        }
-
         if (orderItemDTO.getOrderId() == null) {
             log.error("Order ID is missing for the order item.");
             throw new IllegalArgumentException("Order ID is required for an order item.");
@@ -108,10 +107,13 @@ public class OrderItemServiceImpl implements OrderItemService {
         orderItem.setPrice(product.getPrice());
         orderItem.setOrder(order);
 
-        product.setStockQuantity(product.getStockQuantity() - orderItemDTO.getQuantity());
-        productRepository.save(product);
-        log.info("Stock updated for product ID {}. New quantity: {}", product.getId(), product.getStockQuantity());
-        
+        if (productRepository.decrementUnreservedStock(product.getId(), orderItemDTO.getQuantity(), LocalDateTime.now()) == 0) {
+            log.error("Insufficient stock for product: {}. Requested: {}", product.getName(), orderItemDTO.getQuantity());
+            throw new IllegalArgumentException("Insufficient stock for product: " + product.getName() + ". Requested: " + orderItemDTO.getQuantity());
+        }
+        eventPublisher.publishEvent(ProductChangedEvent.of(ProductChangedEvent.Type.STOCK_CHANGED, product.getId()));
+        log.info("Stock decremented for product ID {} by {}.", product.getId(), orderItemDTO.getQuantity());
+
         OrderItem savedOrderItem = orderItemRepository.save(orderItem);
         log.info("Order item saved successfully with ID: {}", savedOrderItem.getId());
 
@@ -142,17 +144,16 @@ public class OrderItemServiceImpl implements OrderItemService {
 
         if (quantityDifference < 0) {
             int stockToReduce = Math.abs(quantityDifference);
-            if (product.getStockQuantity() < stockToReduce) {
-                log.error("Insufficient stock to update order item ID {}. Product: {}. Available: {}, Requested increase: {}",
-                        id, product.getName(), product.getStockQuantity(), stockToReduce);
-                throw new IllegalArgumentException("Insufficient stock for product: " + product.getName() + ". Available: " + product.getStockQuantity() + ", Requested increase: " + stockToReduce);
+            if (productRepository.decrementUnreservedStock(product.getId(), stockToReduce, LocalDateTime.now()) == 0) {
+                log.error("Insufficient stock to update order item ID {}. Product: {}. Requested increase: {}",
+                        id, product.getName(), stockToReduce);
+                throw new IllegalArgumentException("Insufficient stock for product: " + product.getName() + ". Requested increase: " + stockToReduce);
             }
-            product.setStockQuantity(product.getStockQuantity() - stockToReduce);
         } else if (quantityDifference > 0) {
-            product.setStockQuantity(product.getStockQuantity() + quantityDifference);
+            productRepository.incrementStock(product.getId(), quantityDifference);
         }
-        productRepository.save(product);
-        log.info("Stock updated for product ID {} during update of order item {}. New quantity: {}", product.getId(), id, product.getStockQuantity());
+        eventPublisher.publishEvent(ProductChangedEvent.of(ProductChangedEvent.Type.STOCK_CHANGED, product.getId()));
+        log.info("Stock adjusted for product ID {} during update of order item {} by {}.", product.getId(), id, -quantityDifference);
 
         existingOrderItem.setQuantity(newQuantity);
         existingOrderItem.setPrice(product.getPrice());
@@ -174,8 +175,8 @@ public class OrderItemServiceImpl implements OrderItemService {
                 });
 
         Product product = existingOrderItem.getProduct();
-        product.setStockQuantity(product.getStockQuantity() + existingOrderItem.getQuantity());
-        productRepository.save(product);
+        productRepository.incrementStock(product.getId(), existingOrderItem.getQuantity());
+        eventPublisher.publishEvent(ProductChangedEvent.of(ProductChangedEvent.Type.STOCK_CHANGED, product.getId()));
         log.info("Restored {} units to stock for product ID {} after deleting order item {}.", existingOrderItem.getQuantity(), product.getId(), id);
 
         if (existingOrderItem.getOrder() != null) {
@@ -2,42 +2,67 @@
 package com.acc.serviceImpl;
 import com.acc.dto.OrderDTO;
 import com.acc.dto.OrderItemDTO;
+import com.acc.dto.OrderPageResponse;
+import com.acc.dto.OrderSummary;
+import com.acc.dto.OrderSummaryPageResponse;
 import com.acc.dto.ProductDTO;
 import com.acc.entity.*;
+import com.acc.event.ProductChangedEvent;
 import com.acc.exception.ResourceNotFoundException;
 import com.acc.repository.*;
+import com.acc.service.CartService;
 import com.acc.service.OrderService;
+import com.acc.service.StockReservationService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter; // Import the Date formatter
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class OrderServiceImpl implements OrderService {
 
     private static final Logger log = LoggerFactory.getLogger(OrderServiceImpl.class);
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final LocalDateTime EARLIEST_ORDER_DATE = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST_ORDER_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
 
     @Autowired private OrderRepository orderRepository;
     @Autowired private CustomerRepository customerRepository;
     @Autowired private ProductRepository productRepository;
     @Autowired private CartRepository cartRepository;
+    @Autowired private CartItemRepository cartItemRepository;
     @Autowired private AddressRepository addressRepository;
     @Autowired private PaymentRepository paymentRepository;
+    @Autowired private StockReservationService stockReservationService;
+    @Autowired private CartService cartService;
+    @Autowired private CodeAllocator codeAllocator;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @PersistenceContext private EntityManager entityManager;
 
     @Override
     @Transactional
     public OrderDTO createOrderFromCart(Long cartId) {
         log.info("Attempting to create an order from cart with ID: {}", cartId);
-        Cart cart = cartRepository.findById(cartId)
+        // Must precede the first read here: that read opens the transaction's snapshot.
+        cartService.prepareCheckout(cartId);
+        Cart cart = cartRepository.findWithItemsById(cartId)
                 .orElseThrow(() -> {
                     log.error("Cart not found with ID: {}", cartId);
                     return new ResourceNotFoundException("Cart", "Id", cartId);
@@ -58,6 +83,14 @@ public class OrderServiceImpl implements OrderService {
         List<OrderItem> orderItems = new ArrayList<>();
         List<CartItem> itemsToBeRemoved = new ArrayList<>();
 
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (CartItem cartItem : cart.getCartItems()) {
+            if (cartItem.getProduct() != null) {
+                quantities.merge(cartItem.getProduct().getId(), cartItem.getQuantity(), Integer::sum);
+            }
+        }
+        Set<Long> outOfStock = stockReservationService.commitAll(cartId, quantities);
+
         for (CartItem cartItem : cart.getCartItems()) {
             Product product = cartItem.getProduct();
             if (product == null) {
@@ -65,7 +98,7 @@ public class OrderServiceImpl implements OrderService {
                 continue;
             }
 
-            if (product.getStockQuantity() >= cartItem.getQuantity()) {
+            if (!outOfStock.contains(product.getId())) {
                 log.debug("Processing product '{}' (ID: {}) with quantity {} from cart.",
                         product.getName(), product.getId(), cartItem.getQuantity());
 
@@ -83,18 +116,15 @@ public class OrderServiceImpl implements OrderService {
 
                 orderItem.setOrder(order);
                 orderItems.add(orderItem);
-
-                product.setStockQuantity(product.getStockQuantity() - cartItem.getQuantity());
-                productRepository.save(product);
-                log.debug("Updated stock for product ID {}. New quantity: {}", product.getId(), product.getStockQuantity());
+                log.debug("Committed {} reserved units of stock for product ID {}.", cartItem.getQuantity(), product.getId());
 
                 totalOrderAmount = totalOrderAmount.add(itemTotal);
                 totalDiscountedAmount = totalDiscountedAmount.add(itemDiscountedPrice);
 
                 itemsToBeRemoved.add(cartItem);
             } else {
-                log.warn("Insufficient stock for product '{}' (ID: {}). Available: {}, Requested: {}. Skipping.",
-                        product.getName(), product.getId(), product.getStockQuantity(), cartItem.getQuantity());
+                log.warn("Insufficient stock for product '{}' (ID: {}). Requested: {}. Skipping.",
+                        product.getName(), product.getId(), cartItem.getQuantity());
             }
         }
 
@@ -107,44 +137,37 @@ public class OrderServiceImpl implements OrderService {
         order.setTotalAmount(totalOrderAmount);
         order.setDiscountAmount(totalOrderAmount.subtract(totalDiscountedAmount));
         order.setDiscountedAmount(totalDiscountedAmount);
+        order.setOrderCode(codeAllocator.nextOrderCode());
 
         Order savedOrder = orderRepository.save(order);
-        
-        
-        generateAndSetOrderCode(savedOrder);
-        
         log.info("Order created successfully with ID: {} from cart ID: {}", savedOrder.getId(), cartId);
 
-        cart.getCartItems().removeAll(itemsToBeRemoved);
-        cart.setTotalAmount(cart.getCartItems().stream()
-                .map(ci -> ci.getProduct().getPrice().multiply(BigDecimal.valueOf(ci.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add));
-        cartRepository.save(cart);
-        log.info("Removed {} items from cart ID: {}. Remaining cart total: {}", itemsToBeRemoved.size(), cartId, cart.getTotalAmount());
+        removeOrderedLines(cart, itemsToBeRemoved);
+        log.info("Removed {} items from cart ID: {}.", itemsToBeRemoved.size(), cartId);
 
         return convertToDTO(savedOrder);
     }
 
     @Override
-    public List<OrderDTO> getOrdersByCustomerId(Long customerId) {
-        log.info("Fetching all orders for customer with ID: {}", customerId);
-        List<OrderDTO> orders = orderRepository.findByCustomerId(customerId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        log.info("Found {} orders for customer ID: {}", orders.size(), customerId);
-        return orders;
+    @Transactional(readOnly = true)
+    public OrderSummaryPageResponse getOrderSummariesForCustomer(Long customerId, LocalDateTime from, LocalDateTime to,
+                                                                 String afterCursor, int limit) {
+        log.info("Fetching order summaries for customer ID: {} between {} and {} after cursor '{}'.",
+                customerId, from, to, afterCursor);
+        return findSummaryPage(customerId, from, to, afterCursor, limit);
     }
 
     @Override
     @Transactional
     public OrderDTO savePartialOrder(Long customerId, OrderDTO orderDTO) {
         log.info("Attempting to save partial order for customer ID: {}", customerId);
+        cartService.prepareCheckoutForCustomer(customerId);
         Customer customer = customerRepository.findById(customerId)
                 .orElseThrow(() -> {
                     log.error("Customer not found with ID: {}", customerId);
                     return new ResourceNotFoundException("Customer", "Id", customerId);
                 });
-        Cart cart = cartRepository.findByCustomerId(customerId)
+        Cart cart = cartRepository.findWithItemsByCustomer_Id(customerId)
                 .orElseThrow(() -> {
                     log.error("Cart not found for customer ID: {}", customerId);
                     return new ResourceNotFoundException("Cart", "CustomerId", customerId);
@@ -174,6 +197,8 @@ public class OrderServiceImpl implements OrderService {
         BigDecimal totalDiscountedAmount = BigDecimal.ZERO;
         List<OrderItem> orderItems = new ArrayList<>();
         List<CartItem> toBeRemoved = new ArrayList<>();
+        Map<Long, Integer> quantities = new HashMap<>();
+        Map<Long, Product> products = new HashMap<>();
 
         for (OrderItemDTO itemDTO : selectedItems) {
             Long productId = itemDTO.getProductDetails().getId();
@@ -191,11 +216,8 @@ public class OrderServiceImpl implements OrderService {
                         return new ResourceNotFoundException("CartItem", "ProductId", productId);
                     });
 
-            if (product.getStockQuantity() < itemDTO.getQuantity()) {
-                log.error("Insufficient stock for product: {} (ID: {}). Available: {}, Requested: {}",
-                        product.getName(), productId, product.getStockQuantity(), itemDTO.getQuantity());
-                throw new IllegalArgumentException("Insufficient stock for product: " + product.getName());
-            }
+            quantities.merge(productId, itemDTO.getQuantity(), Integer::sum);
+            products.put(productId, product);
 
             OrderItem orderItem = new OrderItem();
             orderItem.setProduct(product);
@@ -212,37 +234,54 @@ public class OrderServiceImpl implements OrderService {
             orderItem.setOrder(order);
             orderItems.add(orderItem);
 
-            product.setStockQuantity(product.getStockQuantity() - itemDTO.getQuantity());
-            productRepository.save(product);
-            log.debug("Updated stock for product ID {}. New quantity: {}", product.getId(), product.getStockQuantity());
-
             total = total.add(itemTotal);
             totalDiscountedAmount = totalDiscountedAmount.add(itemDiscountedPrice);
             toBeRemoved.add(matchingCartItem);
         }
 
+        Set<Long> outOfStock = stockReservationService.commitAll(cart.getId(), quantities);
+        if (!outOfStock.isEmpty()) {
+            Product product = products.get(outOfStock.iterator().next());
+            log.error("Insufficient stock for product: {} (ID: {}). Requested: {}",
+                    product.getName(), product.getId(), quantities.get(product.getId()));
+            throw new IllegalArgumentException("Insufficient stock for product: " + product.getName());
+        }
+
         order.setOrderItems(orderItems);
         order.setTotalAmount(total);
         order.setDiscountAmount(total.subtract(totalDiscountedAmount));
         order.setDiscountedAmount(totalDiscountedAmount);
+        order.setOrderCode(codeAllocator.nextOrderCode());
 
         Order savedOrder = orderRepository.save(order);
-        
-        // Generate and set the order code after saving for the first time
-        generateAndSetOrderCode(savedOrder);
-        
         log.info("Partial order created successfully with ID: {}", savedOrder.getId());
 
-        cart.getCartItems().removeAll(toBeRemoved);
-        cart.setTotalAmount(cart.getCartItems().stream()
-                .map(ci -> ci.getProduct().getPrice().multiply(BigDecimal.valueOf(ci.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add));
-        cartRepository.save(cart);
+        removeOrderedLines(cart, toBeRemoved);
         log.debug("Removed {} items from cart for customer ID {}.", toBeRemoved.size(), customerId);
 
         return convertToDTO(savedOrder);
     }
 
+    /**
+     * Deletes the ordered lines with one statement and takes their stored line totals off the
+     * cart with one update. The cart is detached afterwards because its loaded collection
+     * still holds the deleted rows.
+     */
+    private void removeOrderedLines(Cart cart, List<CartItem> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        Map<Long, CartItem> byId = new HashMap<>();
+        lines.forEach(line -> byId.put(line.getId(), line));
+        BigDecimal removedTotal = byId.values().stream()
+                .map(CartItem::getLineTotal)
+                .filter(Objects::nonNull)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        cartItemRepository.deleteByCartIdAndIdIn(cart.getId(), byId.keySet());
+        cartRepository.subtractFromTotal(cart.getId(), removedTotal, LocalDateTime.now());
+        entityManager.detach(cart);
+    }
+
     @Override
     @Transactional
     public OrderDTO saveOrder(OrderDTO orderDTO) {
@@ -281,11 +320,7 @@ public class OrderServiceImpl implements OrderService {
                         return new ResourceNotFoundException("Product", "Id", itemDto.getProductDetails().getId());
                     });
 
-            if (product.getStockQuantity() < itemDto.getQuantity()) {
-                log.error("Insufficient stock for product: {} (ID: {}). Available: {}, Requested: {}",
-                        product.getName(), product.getId(), product.getStockQuantity(), itemDto.getQuantity());
-                throw new IllegalArgumentException("Insufficient stock for product: " + product.getName());
-            }
+            decrementStockOrThrow(product, itemDto.getQuantity());
 
             OrderItem orderItem = new OrderItem();
             orderItem.setProduct(product);
@@ -301,10 +336,6 @@ public class OrderServiceImpl implements OrderService {
 
             order.addOrderItem(orderItem);
 
-            product.setStockQuantity(product.getStockQuantity() - itemDto.getQuantity());
-            productRepository.save(product);
-            log.debug("Updated stock for product ID {}. New quantity: {}", product.getId(), product.getStockQuantity());
-
             totalAmount = totalAmount.add(itemTotal);
             totalDiscountedAmount = totalDiscountedAmount.add(itemDiscountedPrice);
         }
@@ -312,30 +343,84 @@ public class OrderServiceImpl implements OrderService {
         order.setTotalAmount(totalAmount);
         order.setDiscountAmount(totalAmount.subtract(totalDiscountedAmount));
         order.setDiscountedAmount(totalDiscountedAmount);
-        
+        order.setOrderCode(codeAllocator.nextOrderCode());
+
         Order savedOrder = orderRepository.save(order);
-        generateAndSetOrderCode(savedOrder);
-        
         log.info("Order saved successfully with ID: {}", savedOrder.getId());
         return convertToDTO(savedOrder);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<OrderDTO> getAllOrders() {
-        log.info("Fetching all orders.");
-        List<OrderDTO> orders = orderRepository.findAll().stream()
+    public OrderSummaryPageResponse getOrderSummaries(LocalDateTime from, LocalDateTime to, String afterCursor, int limit) {
+        log.info("Fetching order summaries between {} and {} after cursor '{}'.", from, to, afterCursor);
+        return findSummaryPage(null, from, to, afterCursor, limit);
+    }
+
+    /**
+     * Full orders for one customer, newest first. The page is chosen by the summary query,
+     * so both endpoints share cursors, and its orders are then loaded with their details by id.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public OrderPageResponse getOrderHistoryForCustomer(Long customerId, LocalDateTime from, LocalDateTime to,
+                                                        String afterCursor, int limit) {
+        log.info("Fetching order history for customer ID: {} between {} and {} after cursor '{}'.",
+                customerId, from, to, afterCursor);
+        OrderSummaryPageResponse page = findSummaryPage(customerId, from, to, afterCursor, limit);
+        List<Long> ids = page.getItems().stream().map(OrderSummary::getId).collect(Collectors.toList());
+        List<OrderDTO> orders = ids.isEmpty() ? new ArrayList<>() : orderRepository
+                .findWithDetailsByIdInOrderByOrderDateDescIdDesc(ids).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
-        log.info("Found {} orders.", orders.size());
-        return orders;
+        return new OrderPageResponse(orders, page.getNextCursor(), page.getLimit());
+    }
+
+    private OrderSummaryPageResponse findSummaryPage(Long customerId, LocalDateTime from, LocalDateTime to,
+                                                     String afterCursor, int limit) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'.");
+        }
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        // Open bounds become the ends of the DATETIME range, so the queries need no IS NULL branches.
+        LocalDateTime lower = from != null ? from : EARLIEST_ORDER_DATE;
+        LocalDateTime upper = to != null ? to : LATEST_ORDER_DATE;
+        LocalDateTime afterDate = upper;
+        long afterId = Long.MAX_VALUE;
+        if (afterCursor != null) {
+            int separator = afterCursor.lastIndexOf('_');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + afterCursor);
+            }
+            try {
+                afterDate = LocalDateTime.parse(afterCursor.substring(0, separator));
+                afterId = Long.parseLong(afterCursor.substring(separator + 1));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + afterCursor);
+            }
+        }
+
+        // One extra row tells us whether another page exists without a count query.
+        PageRequest firstRows = PageRequest.of(0, pageSize + 1);
+        List<OrderSummary> rows = customerId == null
+                ? orderRepository.findSummaries(lower, upper, afterDate, afterId, firstRows)
+                : orderRepository.findSummariesByCustomer(customerId, lower, upper, afterDate, afterId, firstRows);
+        boolean hasMore = rows.size() > pageSize;
+        List<OrderSummary> items = hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            OrderSummary last = items.get(items.size() - 1);
+            nextCursor = last.getOrderDate() + "_" + last.getId();
+        }
+        log.info("Returning {} order summaries. Next cursor: {}", items.size(), nextCursor);
+        return new OrderSummaryPageResponse(items, nextCursor, pageSize);
     }
 
     @Override
     @Transactional(readOnly = true)
     public OrderDTO getOrderById(Long id) {
         log.info("Fetching order with ID: {}", id);
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findWithDetailsById(id)
                 .orElseThrow(() -> {
                     log.error("Order not found with ID: {}", id);
                     return new ResourceNotFoundException("Order", "Id", id);
@@ -401,8 +486,8 @@ public class OrderServiceImpl implements OrderService {
         for (OrderItem oldItem : existingOrder.getOrderItems()) {
             Product product = oldItem.getProduct();
             if (product != null) {
-                product.setStockQuantity(product.getStockQuantity() + oldItem.getQuantity());
-                productRepository.save(product);
+                productRepository.incrementStock(product.getId(), oldItem.getQuantity());
+                eventPublisher.publishEvent(ProductChangedEvent.of(ProductChangedEvent.Type.STOCK_CHANGED, product.getId()));
                 log.debug("Restored {} units to stock for product ID {}.", oldItem.getQuantity(), product.getId());
             }
         }
@@ -419,11 +504,7 @@ public class OrderServiceImpl implements OrderService {
                             return new ResourceNotFoundException("Product", "Id", itemDto.getProductDetails().getId());
                         });
 
-                if (product.getStockQuantity() < itemDto.getQuantity()) {
-                    log.error("Insufficient stock for new product: {} (ID: {}). Available: {}, Requested: {}",
-                            product.getName(), product.getId(), product.getStockQuantity(), itemDto.getQuantity());
-                    throw new IllegalArgumentException("Insufficient stock for product: " + product.getName());
-                }
+                decrementStockOrThrow(product, itemDto.getQuantity());
 
                 OrderItem newItem = new OrderItem();
                 newItem.setProduct(product);
@@ -439,10 +520,6 @@ public class OrderServiceImpl implements OrderService {
 
                 existingOrder.addOrderItem(newItem);
 
-                product.setStockQuantity(product.getStockQuantity() - itemDto.getQuantity());
-                productRepository.save(product);
-                log.debug("Updated stock for new product ID {}. New quantity: {}", product.getId(), product.getStockQuantity());
-
                 newTotalAmount = newTotalAmount.add(itemTotal);
                 newDiscountedAmount = newDiscountedAmount.add(itemDiscountedPrice);
             }
@@ -470,8 +547,8 @@ public class OrderServiceImpl implements OrderService {
         for (OrderItem item : existingOrder.getOrderItems()) {
             Product product = item.getProduct();
             if (product != null) {
-                product.setStockQuantity(product.getStockQuantity() + item.getQuantity());
-                productRepository.save(product);
+                productRepository.incrementStock(product.getId(), item.getQuantity());
+                eventPublisher.publishEvent(ProductChangedEvent.of(ProductChangedEvent.Type.STOCK_CHANGED, product.getId()));
                 log.debug("Restored {} units to stock for product ID {}.", item.getQuantity(), product.getId());
             }
         }
@@ -479,16 +556,14 @@ public class OrderServiceImpl implements OrderService {
         log.info("Order with ID {} deleted successfully.", id);
     }
     
-    private void generateAndSetOrderCode(Order order) {
-       
-        String datePart = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        
-        String idPart = String.format("%03d", order.getId()); 
-       
-        String orderCode = "ORD-" + datePart + "-" + idPart;
-        
-        order.setOrderCode(orderCode);
-        orderRepository.save(order);
+    private void decrementStockOrThrow(Product product, int quantity) {
+        if (productRepository.decrementUnreservedStock(product.getId(), quantity, LocalDateTime.now()) == 0) {
+            log.error("Insufficient stock for product: {} (ID: {}). Requested: {}",
+                    product.getName(), product.getId(), quantity);
+            throw new IllegalArgumentException("Insufficient stock for product: " + product.getName());
+        }
+        eventPublisher.publishEvent(ProductChangedEvent.of(ProductChangedEvent.Type.STOCK_CHANGED, product.getId()));
+        log.debug("Decremented stock for product ID {} by {}.", product.getId(), quantity);
     }
 
     private OrderDTO convertToDTO(Order order) {
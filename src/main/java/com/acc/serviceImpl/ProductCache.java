@@ -0,0 +1,76 @@
+package com.acc.serviceImpl;
+
+import com.acc.dto.CacheStatsDTO;
+import com.acc.dto.ProductDTO;
+import com.acc.event.ProductChangedEvent;
+import com.acc.util.BoundedTtlCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of {@link ProductDTO} by product id. Entries live at most
+ * {@code product.cache.ttl-seconds}, which is the staleness bound for changes
+ * made on other nodes; local writes evict immediately and again after commit.
+ */
+@Component
+public class ProductCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCache.class);
+
+    private final BoundedTtlCache<Long, ProductDTO> cache;
+
+    public ProductCache(@Value("${product.cache.max-size:10000}") int maxSize,
+                        @Value("${product.cache.ttl-seconds:30}") long ttlSeconds) {
+        this.cache = new BoundedTtlCache<>(maxSize, ttlSeconds * 1000);
+    }
+
+    public ProductDTO get(Long productId, Supplier<ProductDTO> loader) {
+        return cache.get(productId, loader);
+    }
+
+    public void evict(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        cache.invalidate(productId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A reader may re-cache the pre-commit row before we commit; drop it again afterwards.
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(productId);
+                }
+            });
+        }
+        log.debug("Evicted product ID {} from the product cache.", productId);
+    }
+
+    public void evictAll(Collection<Long> productIds) {
+        for (Long productId : productIds) {
+            evict(productId);
+        }
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        evictAll(event.getProductIds());
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+        log.debug("Cleared the product cache.");
+    }
+
+    public CacheStatsDTO getStats() {
+        return new CacheStatsDTO("products", cache.size(), cache.getMaxSize(), cache.getTtlMillis(),
+                cache.getHits(), cache.getMisses(), cache.getEvictions(), cache.getHitRatio());
+    }
+}
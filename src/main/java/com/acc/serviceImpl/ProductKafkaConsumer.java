@@ -1,65 +1,196 @@
 package com.acc.serviceImpl;
 
+import com.acc.dto.BulkUploadJob;
 import com.acc.dto.ProductDTO;
-import com.acc.entity.Product;
+import com.acc.event.ProductChangedEvent;
 import com.acc.repository.ProductRepository;
+import com.acc.service.BulkUploadJobService;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.springframework.beans.BeanUtils;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import java.io.IOException;
-import java.util.Optional;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class ProductKafkaConsumer {
 
+    private static final Logger log = LoggerFactory.getLogger(ProductKafkaConsumer.class);
+
+    private static final String INSERT_PRODUCT_SQL =
+            "INSERT INTO products (name, description, image_urls, price, stock_quantity, category, active, discount_percentage) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BulkUploadJobService bulkUploadJobService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    @KafkaListener(topics = "bulk-upload.products", groupId = "product-processor-group", containerFactory = "kafkaListenerContainerFactory")
+    /**
+     * Consumes a whole poll at once: duplicates inside the batch are collapsed, names
+     * already in the table are resolved with a single IN query, the rest go in as one
+     * JDBC batch, and the batch is acknowledged once. A database failure rethrows so the
+     * container's error handler redelivers the batch.
+     */
+    @KafkaListener(topics = "bulk-upload.products", groupId = "product-processor-group", containerFactory = "batchKafkaListenerContainerFactory")
     @Transactional
-    public void processProduct(String message, Acknowledgment acknowledgment) {
-        System.out.println("Received message from Kafka: " + message);
-
-        try {
-            ProductDTO productDto = objectMapper.readValue(message, ProductDTO.class);
-            
-            
-            String productName = productDto.getName().trim();
-            productDto.setName(productName);
-            
-           
-            Optional<Product> existingProduct = productRepository.findByName(productName);
-            
-            if (existingProduct.isPresent()) {
-                System.out.println("Skipped duplicate record: A product with name '" + productName + "' already exists.");
-               
-                acknowledgment.acknowledge();
-                return;
+    public void processProducts(List<ConsumerRecord<String, String>> records, Acknowledgment acknowledgment) {
+        log.info("Received batch of {} product messages from Kafka.", records.size());
+
+        // MySQL's default collation compares names case-insensitively, so dedupe the same way.
+        Map<String, ProductDTO> byName = new LinkedHashMap<>();
+        Map<String, String> jobIdByName = new HashMap<>();
+        Map<String, int[]> jobCounts = new HashMap<>();
+        int malformed = 0;
+        for (ConsumerRecord<String, String> record : records) {
+            String jobId = uploadJobId(record);
+            try {
+                ProductDTO productDto = objectMapper.readValue(record.value(), ProductDTO.class);
+                String problem = validate(productDto);
+                if (problem != null) {
+                    log.error("Skipping invalid product message ({}): {}", problem, record.value());
+                    malformed++;
+                    countForJob(jobCounts, jobId, 1);
+                    continue;
+                }
+                productDto.setName(productDto.getName().trim());
+                String key = productDto.getName().toLowerCase(Locale.ROOT);
+                if (byName.putIfAbsent(key, productDto) == null) {
+                    if (jobId != null) {
+                        jobIdByName.put(key, jobId);
+                    }
+                } else {
+                    countForJob(jobCounts, jobId, 1);
+                }
+            } catch (IOException e) {
+                log.error("Error deserializing message, skipping: {} - {}", record.value(), e.getMessage());
+                malformed++;
+                countForJob(jobCounts, jobId, 1);
             }
+        }
+
+        List<ProductDTO> newProducts = new ArrayList<>();
+        if (!byName.isEmpty()) {
+            List<String> names = new ArrayList<>();
+            byName.values().forEach(dto -> names.add(dto.getName()));
+            Set<String> existing = new HashSet<>();
+            for (String name : productRepository.findExistingNames(names)) {
+                existing.add(name.toLowerCase(Locale.ROOT));
+            }
+            byName.forEach((key, dto) -> {
+                if (!existing.contains(key)) {
+                    newProducts.add(dto);
+                    countForJob(jobCounts, jobIdByName.get(key), 0);
+                } else {
+                    countForJob(jobCounts, jobIdByName.get(key), 1);
+                }
+            });
+        }
+
+        if (!newProducts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_PRODUCT_SQL, newProducts, newProducts.size(), (ps, dto) -> {
+                ps.setString(1, dto.getName());
+                ps.setString(2, dto.getDescription());
+                ps.setString(3, (dto.getImages() != null && !dto.getImages().isEmpty()) ? String.join(",", dto.getImages()) : null);
+                ps.setBigDecimal(4, dto.getPrice());
+                ps.setInt(5, dto.getStockQuantity());
+                ps.setInt(6, dto.getCategory().ordinal());
+                ps.setBoolean(7, dto.isActive());
+                ps.setDouble(8, dto.getDiscountPercentage() != null ? dto.getDiscountPercentage() : 0.0);
+            });
+        }
+
+        if (!newProducts.isEmpty()) {
+            List<String> insertedNames = new ArrayList<>(newProducts.size());
+            newProducts.forEach(dto -> insertedNames.add(dto.getName()));
+            eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.CREATED,
+                    productRepository.findIdsByNameIn(insertedNames)));
+        }
+
+        if (!jobCounts.isEmpty()) {
+            reportJobProgressAfterCommit(jobCounts);
+        }
+
+        log.info("Kafka batch processed. Received: {}, Inserted: {}, Duplicates skipped: {}, Malformed: {}.",
+                records.size(), newProducts.size(), records.size() - malformed - newProducts.size(), malformed);
+        acknowledgment.acknowledge();
+    }
+
+    /**
+     * Checks the columns the insert cannot default, so one bad record is counted as malformed
+     * instead of failing the JDBC batch for the whole poll. Returns null when the record is usable.
+     */
+    private static String validate(ProductDTO dto) {
+        if (dto.getName() == null || dto.getName().trim().isEmpty()) {
+            return "blank name";
+        }
+        if (dto.getName().trim().length() > 255
+                || (dto.getDescription() != null && dto.getDescription().length() > 1000)) {
+            return "name or description too long";
+        }
+        if (dto.getPrice() == null || dto.getPrice().signum() < 0) {
+            return "missing or negative price";
+        }
+        if (dto.getCategory() == null) {
+            return "missing category";
+        }
+        if (dto.getStockQuantity() == null || dto.getStockQuantity() < 0) {
+            return "missing or negative stock";
+        }
+        return null;
+    }
+
+    private static String uploadJobId(ConsumerRecord<String, String> record) {
+        Header header = record.headers().lastHeader(BulkUploadJob.KAFKA_HEADER);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+
+    /** Tallies one record for its upload job: slot 0 counts inserts, slot 1 skips. */
+    private static void countForJob(Map<String, int[]> jobCounts, String jobId, int slot) {
+        if (jobId != null) {
+            jobCounts.computeIfAbsent(jobId, id -> new int[2])[slot]++;
+        }
+    }
 
-            Product newProduct = new Product();
-            BeanUtils.copyProperties(productDto, newProduct);
-            newProduct.setImageUrlsList(productDto.getImages());
-
-            productRepository.save(newProduct);
-            
-            System.out.println("New product saved successfully: " + productDto.getName());
-            
-            
-            acknowledgment.acknowledge();
-            
-        } catch (IOException e) {
-            System.err.println("Error deserializing message, skipping: " + message + " - " + e.getMessage());
-            acknowledgment.acknowledge();
-        } catch (Exception e) {
-            System.err.println("Error processing product from Kafka, will retry: " + message + " - " + e.getMessage());
-           
+    private void reportJobProgressAfterCommit(Map<String, int[]> jobCounts) {
+        Runnable report = () -> jobCounts.forEach((jobId, counts) ->
+                bulkUploadJobService.recordConsumed(jobId, counts[0], counts[1]));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    report.run();
+                }
+            });
+        } else {
+            report.run();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,101 @@
+package com.acc.serviceImpl;
+
+import com.acc.dto.CacheStatsDTO;
+import com.acc.dto.ProductSearchCriteria;
+import com.acc.dto.ProductSearchResponse;
+import com.acc.elasticsearch.serviceimpl.ProductDocumentService;
+import com.acc.service.ProductSearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Routes product searches to Elasticsearch and falls back to {@link LocalProductSearchIndex}
+ * while the cluster is unreachable. A failed query marks Elasticsearch down straight away;
+ * the periodic probe brings it back once the cluster answers again.
+ */
+@Service
+public class ProductSearchServiceImpl implements ProductSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchServiceImpl.class);
+
+    static final String ELASTICSEARCH = "elasticsearch";
+    static final String LOCAL = "local";
+
+    @Autowired
+    private ProductDocumentService productDocumentService;
+
+    @Autowired
+    private LocalProductSearchIndex localProductSearchIndex;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Value("${search.engine.primary:elasticsearch}")
+    private String primaryEngine;
+
+    private volatile boolean elasticsearchHealthy = true;
+
+    @Override
+    public ProductSearchResponse search(ProductSearchCriteria criteria) {
+        if (LOCAL.equalsIgnoreCase(primaryEngine) || !elasticsearchHealthy) {
+            return searchLocally(criteria);
+        }
+        try {
+            return searchResultCache.get(criteria, () -> {
+                ProductSearchResponse response = productDocumentService.search(criteria);
+                response.setEngine(ELASTICSEARCH);
+                return response;
+            });
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            markElasticsearchHealthy(false, e);
+            return searchLocally(criteria);
+        }
+    }
+
+    @Override
+    public boolean isElasticsearchHealthy() {
+        return elasticsearchHealthy;
+    }
+
+    @Override
+    public CacheStatsDTO getSearchCacheStats() {
+        return searchResultCache.getStats();
+    }
+
+    @Scheduled(fixedDelayString = "${search.elasticsearch.health-check-interval-ms:10000}")
+    public void checkElasticsearchHealth() {
+        if (LOCAL.equalsIgnoreCase(primaryEngine)) {
+            return;
+        }
+        try {
+            markElasticsearchHealthy(productDocumentService.isAvailable(), null);
+        } catch (RuntimeException e) {
+            markElasticsearchHealthy(false, e);
+        }
+    }
+
+    private void markElasticsearchHealthy(boolean healthy, Exception cause) {
+        if (elasticsearchHealthy == healthy) {
+            return;
+        }
+        elasticsearchHealthy = healthy;
+        if (healthy) {
+            log.info("Elasticsearch is reachable again; product search switched back to it.");
+        } else {
+            log.warn("Elasticsearch unavailable, serving product search from the local index: {}",
+                    cause != null ? cause.getMessage() : "products index missing");
+        }
+    }
+
+    private ProductSearchResponse searchLocally(ProductSearchCriteria criteria) {
+        ProductSearchResponse response = localProductSearchIndex.search(criteria);
+        response.setEngine(LOCAL);
+        return response;
+    }
+}
@@ -1,22 +1,33 @@
 package com.acc.serviceImpl;
 
+import com.acc.dto.BulkUploadJob;
 import com.acc.dto.BulkUploadResponse;
+import com.acc.dto.CacheStatsDTO;
 import com.acc.dto.ProductDTO;
+import com.acc.dto.ProductPageResponse;
+import com.acc.dto.ProductSort;
 import com.acc.elasticsearch.entity.ProductDocument;
 import com.acc.entity.Category;
 import com.acc.entity.Product;
+import com.acc.event.ProductChangedEvent;
 import com.acc.exception.ResourceNotFoundException;
 import com.acc.repository.CartItemRepository;
 import com.acc.repository.ProductRepository;
 import com.acc.service.ProductService;
+import com.acc.service.StockReservationService;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.opencsv.CSVReader;
 import com.opencsv.exceptions.CsvValidationException;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,9 +35,11 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -41,10 +54,23 @@ public class ProductServiceImpl implements ProductService {
     @Autowired
     private CartItemRepository cartItemRepository;
 
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Autowired
     private KafkaTemplate<String, String> kafkaTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
     private static final String PRODUCT_UPLOAD_TOPIC = "bulk-upload.products";
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Value("${product.import.chunk-size:1000}")
+    private int importChunkSize;
 
 
     private ProductDTO convertToDto(Product product) {
@@ -71,6 +97,7 @@ public class ProductServiceImpl implements ProductService {
         Product product = convertToEntity(productDto);
         product.setId(null);
         Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(ProductChangedEvent.Type.CREATED, savedProduct.getId()));
         log.info("Successfully added product with ID: {}", savedProduct.getId());
         return convertToDto(savedProduct);
     }
@@ -87,6 +114,7 @@ public class ProductServiceImpl implements ProductService {
         BeanUtils.copyProperties(productDto, existingProduct);
         existingProduct.setImageUrlsList(productDto.getImages());
         Product updatedProduct = productRepository.save(existingProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.of(ProductChangedEvent.Type.UPDATED, productId));
         log.info("Successfully updated product with ID: {}", updatedProduct.getId());
         return convertToDto(updatedProduct);
     }
@@ -94,13 +122,24 @@ public class ProductServiceImpl implements ProductService {
     @Override
     public ProductDTO getProductByProductId(Long productId) {
         log.info("Fetching product with ID: {}", productId);
+        return productCache.get(productId, () -> loadProduct(productId));
+    }
+
+    @Override
+    public CacheStatsDTO getProductCacheStats() {
+        return productCache.getStats();
+    }
+
+    private ProductDTO loadProduct(Long productId) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> {
                     log.error("Product with ID {} not found.", productId);
                     return new ResourceNotFoundException("Product", "ID", productId);
                 });
         log.debug("Found product: {}", product.getName());
-        return convertToDto(product);
+        ProductDTO dto = convertToDto(product);
+        dto.setAvailableStock(stockReservationService.getAvailableStock(product.getId(), product.getStockQuantity()));
+        return dto;
     }
 
     @Override
@@ -114,6 +153,7 @@ public class ProductServiceImpl implements ProductService {
                 });
         cartItemRepository.deleteByProduct(product);
         productRepository.delete(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(ProductChangedEvent.Type.DELETED, productId));
         log.info("Successfully deleted product with ID: {}", productId);
     }
 
@@ -122,26 +162,103 @@ public class ProductServiceImpl implements ProductService {
         log.info("Fetching all active products.");
         List<Product> products = productRepository.findByActiveTrue();
         log.info("Found {} active products.", products.size());
-        return products.stream()
+        List<ProductDTO> dtos = products.stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
+        applyAvailableStock(dtos, stockReservationService.getReservedQuantities());
+        return dtos;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductPageResponse getProductPage(String afterCursor, int limit, Category category, ProductSort sort) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        log.info("Fetching product page after cursor '{}' (limit: {}, category: {}, sort: {}).", afterCursor, pageSize, category, sort);
+
+        // One extra row tells us whether another page exists without a count query.
+        PageRequest window = PageRequest.of(0, pageSize + 1);
+        List<ProductDTO> rows;
+        if (sort == ProductSort.ID) {
+            long afterId = afterCursor == null ? 0L : parseCursorId(afterCursor);
+            rows = productRepository.findCatalogueAfterId(category, afterId, window);
+        } else {
+            BigDecimal afterPrice = null;
+            long afterId = 0L;
+            if (afterCursor != null) {
+                int separator = afterCursor.lastIndexOf('_');
+                if (separator <= 0) {
+                    throw new IllegalArgumentException("Invalid cursor: " + afterCursor);
+                }
+                try {
+                    afterPrice = new BigDecimal(afterCursor.substring(0, separator));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid cursor: " + afterCursor);
+                }
+                afterId = parseCursorId(afterCursor.substring(separator + 1));
+            }
+            rows = sort == ProductSort.PRICE_ASC
+                    ? productRepository.findCatalogueAfterPriceAsc(category, afterPrice, afterId, window)
+                    : productRepository.findCatalogueAfterPriceDesc(category, afterPrice, afterId, window);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ProductDTO> items = hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            ProductDTO last = items.get(items.size() - 1);
+            nextCursor = sort == ProductSort.ID
+                    ? String.valueOf(last.getId())
+                    : last.getPrice().toPlainString() + "_" + last.getId();
+        }
+
+        applyAvailableStock(items, stockReservationService.getReservedQuantities(
+                items.stream().map(ProductDTO::getId).collect(Collectors.toList())));
+        log.info("Returning {} products. Next cursor: {}", items.size(), nextCursor);
+        return new ProductPageResponse(items, nextCursor, pageSize);
+    }
+
+    private long parseCursorId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+    }
+
+    private void applyAvailableStock(List<ProductDTO> dtos, Map<Long, Long> reserved) {
+        for (ProductDTO dto : dtos) {
+            long held = reserved.getOrDefault(dto.getId(), 0L);
+            dto.setAvailableStock((int) Math.max(0, dto.getStockQuantity() - held));
+        }
     }
 
     @Override
-    @Transactional
     public BulkUploadResponse saveProductsFromCsv(MultipartFile file) throws IOException {
         log.info("Starting bulk product upload from CSV file: {}", file.getOriginalFilename());
-        Set<String> existingUniqueKeys = productRepository.findAll().stream()
-                .map(p -> (p.getName().trim() + "::" + p.getCategory().name()).toLowerCase())
-                .collect(Collectors.toSet());
-        log.debug("Loaded {} existing product unique keys from the database.", existingUniqueKeys.size());
+        try (InputStream inputStream = file.getInputStream()) {
+            return importProductsFromCsv(inputStream);
+        }
+    }
+
+    /**
+     * Streams the CSV and checks duplicates one chunk at a time, so memory stays bounded by
+     * {@code product.import.chunk-size} rather than by the size of the file or the catalogue.
+     * Duplicates that straddle two chunks are left to the consumer, which dedupes by name.
+     */
+    @Override
+    public BulkUploadResponse importProductsFromCsv(InputStream inputStream) throws IOException {
+        return importProductsFromCsv(inputStream, null);
+    }
 
+    @Override
+    public BulkUploadResponse importProductsFromCsv(InputStream inputStream, BulkUploadJob job) throws IOException {
         int totalRecords = 0;
         int publishedCount = 0;
         int skippedCount = 0;
+        List<ProductDTO> chunk = new ArrayList<>(importChunkSize);
 
         try (
-                Reader reader = new BufferedReader(new InputStreamReader(file.getInputStream()));
+                Reader reader = new BufferedReader(new InputStreamReader(inputStream));
                 CSVReader csvReader = new CSVReader(reader)
         ) {
             String[] row;
@@ -155,6 +272,9 @@ public class ProductServiceImpl implements ProductService {
                 }
 
                 totalRecords++;
+                if (job != null) {
+                    job.recordParsed();
+                }
 
                 try {
                     String name = row[0].trim();
@@ -167,13 +287,9 @@ public class ProductServiceImpl implements ProductService {
                     } catch (IllegalArgumentException e) {
                         log.error("Skipping record due to invalid category '{}': {}", categoryStr, Arrays.toString(row));
                         skippedCount++;
-                        continue;
-                    }
-
-                    String uniqueKey = (name + "::" + category.name()).toLowerCase();
-                    if (existingUniqueKeys.contains(uniqueKey)) {
-                        log.warn("Skipping duplicate record based on name and category: {}", name);
-                        skippedCount++;
+                        if (job != null) {
+                            job.recordSkipped(1);
+                        }
                         continue;
                     }
 
@@ -181,6 +297,9 @@ public class ProductServiceImpl implements ProductService {
                     if (priceStr.isEmpty()) {
                         log.error("Skipping record due to invalid price: {}", Arrays.toString(row));
                         skippedCount++;
+                        if (job != null) {
+                            job.recordSkipped(1);
+                        }
                         continue;
                     }
 
@@ -204,20 +323,29 @@ public class ProductServiceImpl implements ProductService {
                     
                     productDto.setCategory(category);
                     productDto.setActive("ACTIVE".equalsIgnoreCase(row[7].trim()));
-
-                    String productJson = objectMapper.writeValueAsString(productDto);
-                    kafkaTemplate.send(PRODUCT_UPLOAD_TOPIC, name, productJson);
-                    
-                    log.info("Product '{}' published to Kafka topic '{}' successfully.", name, PRODUCT_UPLOAD_TOPIC);
-
-                    publishedCount++;
-                    existingUniqueKeys.add(uniqueKey);
+                    chunk.add(productDto);
                 } catch (Exception e) {
                     log.error("Skipping record due to parsing error: {} - {}", Arrays.toString(row), e.getMessage(), e);
                     skippedCount++;
+                    if (job != null) {
+                        job.recordError();
+                    }
+                }
+
+                if (chunk.size() >= importChunkSize) {
+                    int published = publishChunk(chunk, job);
+                    publishedCount += published;
+                    skippedCount += chunk.size() - published;
+                    chunk.clear();
                 }
             }
 
+            if (!chunk.isEmpty()) {
+                int published = publishChunk(chunk, job);
+                publishedCount += published;
+                skippedCount += chunk.size() - published;
+            }
+
         } catch (CsvValidationException e) {
             log.error("CSV validation error occurred during bulk upload.", e);
             throw new IOException("CSV parsing error", e);
@@ -232,6 +360,59 @@ public class ProductServiceImpl implements ProductService {
         return new BulkUploadResponse(message, totalRecords, publishedCount, skippedCount, null);
     }
 
+    private int publishChunk(List<ProductDTO> chunk, BulkUploadJob job) {
+        Set<String> names = new HashSet<>();
+        for (ProductDTO productDto : chunk) {
+            names.add(productDto.getName());
+        }
+        Set<String> existingUniqueKeys = new HashSet<>();
+        for (Object[] key : productRepository.findNameAndCategoryByNameIn(names)) {
+            existingUniqueKeys.add(uniqueKey((String) key[0], (Category) key[1]));
+        }
+
+        int published = 0;
+        for (ProductDTO productDto : chunk) {
+            String uniqueKey = uniqueKey(productDto.getName(), productDto.getCategory());
+            if (!existingUniqueKeys.add(uniqueKey)) {
+                log.warn("Skipping duplicate record based on name and category: {}", productDto.getName());
+                if (job != null) {
+                    job.recordSkipped(1);
+                }
+                continue;
+            }
+            try {
+                String productJson = objectMapper.writeValueAsString(productDto);
+                if (job == null) {
+                    kafkaTemplate.send(PRODUCT_UPLOAD_TOPIC, productDto.getName(), productJson);
+                } else {
+                    ProducerRecord<String, String> record = new ProducerRecord<>(PRODUCT_UPLOAD_TOPIC, productDto.getName(), productJson);
+                    record.headers().add(BulkUploadJob.KAFKA_HEADER, job.getId().getBytes(StandardCharsets.UTF_8));
+                    job.recordSent();
+                    kafkaTemplate.send(record).whenComplete((result, ex) -> {
+                        if (ex == null) {
+                            job.recordPublished();
+                        } else {
+                            log.error("Failed to publish product '{}' for upload job {}", productDto.getName(), job.getId(), ex);
+                            job.recordPublishFailed();
+                        }
+                    });
+                }
+                log.debug("Product '{}' published to Kafka topic '{}' successfully.", productDto.getName(), PRODUCT_UPLOAD_TOPIC);
+                published++;
+            } catch (JsonProcessingException e) {
+                log.error("Skipping record that could not be serialized: {} - {}", productDto.getName(), e.getMessage());
+                if (job != null) {
+                    job.recordError();
+                }
+            }
+        }
+        return published;
+    }
+
+    private static String uniqueKey(String name, Category category) {
+        return (name.trim() + "::" + category.name()).toLowerCase();
+    }
+
 	@Override
 	public Optional<Product> findById(Long id) {
 		
@@ -0,0 +1,231 @@
+package com.acc.serviceImpl;
+
+import com.acc.dto.ProductSuggestionDTO;
+import com.acc.elasticsearch.entity.ProductDocument;
+import com.acc.elasticsearch.serviceimpl.ProductDocumentService;
+import com.acc.entity.Product;
+import com.acc.event.ProductChangedEvent;
+import com.acc.repository.OrderItemRepository;
+import com.acc.repository.ProductRepository;
+import com.acc.service.ProductSuggestService;
+import com.acc.util.PrefixTrie;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead over product names. Active products are held in a {@link PrefixTrie} under
+ * every word-start suffix of their name ("amul milk" is found by "mi"), ranked by units
+ * sold. The trie is rebuilt periodically to refresh popularity and patched from product
+ * change events in between. Short or misspelled prefixes that the trie cannot fill are
+ * topped up from the fuzzy edge-ngram field in Elasticsearch.
+ */
+@Service
+public class ProductSuggestServiceImpl implements ProductSuggestService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSuggestServiceImpl.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ProductDocumentService productDocumentService;
+
+    @Value("${search.suggest.max-results:10}")
+    private int maxResults;
+
+    @Value("${search.suggest.page-size:5000}")
+    private int pageSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Serialises rebuild and patching: a patch drained while a rebuild is still reading would
+    // land on the trie that the rebuild is about to replace, and the change would be lost.
+    private final Lock refreshLock = new ReentrantLock();
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    // Guarded by lock; null until the first build finishes.
+    private PrefixTrie trie;
+    private Map<Long, String> indexedNames = new HashMap<>();
+    private Map<Long, Long> popularity = new HashMap<>();
+
+    @Override
+    public List<ProductSuggestionDTO> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        int size = Math.min(Math.max(limit, 1), maxResults);
+
+        Map<Long, ProductSuggestionDTO> suggestions = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            if (trie != null) {
+                for (PrefixTrie.Entry entry : trie.topMatches(key, size)) {
+                    suggestions.put(entry.getId(), new ProductSuggestionDTO(entry.getId(), entry.getLabel()));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (suggestions.size() < size) {
+            try {
+                for (ProductDocument document : productDocumentService.suggest(prefix.trim(), size)) {
+                    if (suggestions.size() == size) {
+                        break;
+                    }
+                    suggestions.putIfAbsent(document.getId(), new ProductSuggestionDTO(document.getId(), document.getName()));
+                }
+            } catch (Exception e) {
+                log.warn("Fuzzy suggest fallback failed for prefix '{}': {}", prefix, e.getMessage());
+            }
+        }
+        return new ArrayList<>(suggestions.values());
+    }
+
+    @Override
+    @Scheduled(initialDelay = 0, fixedDelayString = "${search.suggest.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        refreshLock.lock();
+        try {
+            rebuildTrie();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void rebuildTrie() {
+        long start = System.nanoTime();
+        Map<Long, Long> sold = new HashMap<>();
+        for (Object[] row : orderItemRepository.sumQuantitiesByProduct()) {
+            sold.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+
+        PrefixTrie fresh = new PrefixTrie(maxResults);
+        Map<Long, String> names = new HashMap<>();
+        long afterId = 0;
+        List<Object[]> page;
+        while (!(page = productRepository.findActiveNamesAfterId(afterId, PageRequest.of(0, pageSize))).isEmpty()) {
+            for (Object[] row : page) {
+                Long id = (Long) row[0];
+                String name = (String) row[1];
+                insert(fresh, id, name, sold.getOrDefault(id, 0L));
+                names.put(id, name);
+                afterId = id;
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            trie = fresh;
+            indexedNames = names;
+            popularity = sold;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Rebuilt product suggest trie with {} names ({} keys) in {} ms.",
+                names.size(), fresh.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() != ProductChangedEvent.Type.STOCK_CHANGED) {
+            pending.addAll(event.getProductIds());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.suggest.refresh-interval-ms:1000}")
+    public void applyPendingChanges() {
+        // While a rebuild runs the changes stay pending and are applied to the new trie.
+        if (pending.isEmpty() || !refreshLock.tryLock()) {
+            return;
+        }
+        try {
+            patchTrie();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void patchTrie() {
+        List<Long> ids = new ArrayList<>();
+        for (Iterator<Long> iterator = pending.iterator(); iterator.hasNext(); ) {
+            ids.add(iterator.next());
+            iterator.remove();
+        }
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(ids)) {
+            products.put(product.getId(), product);
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (trie == null) {
+                return;
+            }
+            for (Long id : ids) {
+                String oldName = indexedNames.remove(id);
+                if (oldName != null) {
+                    for (String key : keysFor(oldName)) {
+                        trie.remove(key, id);
+                    }
+                }
+                Product product = products.get(id);
+                if (product != null && product.isActive()) {
+                    insert(trie, id, product.getName(), popularity.getOrDefault(id, 0L));
+                    indexedNames.put(id, product.getName());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Applied {} product changes to the suggest trie.", ids.size());
+    }
+
+    private static void insert(PrefixTrie target, Long id, String name, long score) {
+        PrefixTrie.Entry entry = new PrefixTrie.Entry(id, name, score);
+        for (String key : keysFor(name)) {
+            target.put(key, entry);
+        }
+    }
+
+    /** The normalised name plus every suffix that starts at a word boundary. */
+    private static List<String> keysFor(String name) {
+        String normalized = normalize(name);
+        List<String> keys = new ArrayList<>();
+        if (normalized.isEmpty()) {
+            return keys;
+        }
+        keys.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            keys.add(normalized.substring(i + 1));
+        }
+        return keys;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
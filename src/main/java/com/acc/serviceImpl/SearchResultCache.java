@@ -0,0 +1,85 @@
+package com.acc.serviceImpl;
+
+import com.acc.dto.CacheStatsDTO;
+import com.acc.dto.ProductSearchCriteria;
+import com.acc.dto.ProductSearchResponse;
+import com.acc.util.BoundedTtlCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of Elasticsearch search pages keyed on the normalised criteria.
+ * Identical concurrent searches share one round trip. A page is dropped as soon as the
+ * indexer rewrites a product it contains. Other staleness is bounded only by
+ * {@code search.cache.ttl-seconds}: a product that starts or stops matching a cached
+ * category, price range or query, and the totals, facets and later pages of that query.
+ * Pages are deliberately not dropped by filter range: stock updates from checkouts reach
+ * the indexer every second, and most cached pages would be emptied that often.
+ */
+@Component
+public class SearchResultCache {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchResultCache.class);
+
+    private final BoundedTtlCache<String, ProductSearchResponse> cache;
+
+    public SearchResultCache(@Value("${search.cache.max-size:1000}") int maxSize,
+                             @Value("${search.cache.ttl-seconds:5}") long ttlSeconds) {
+        this.cache = new BoundedTtlCache<>(maxSize, ttlSeconds * 1000);
+    }
+
+    public ProductSearchResponse get(ProductSearchCriteria criteria, Supplier<ProductSearchResponse> loader) {
+        return cache.get(keyOf(criteria), loader);
+    }
+
+    public void invalidateProducts(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        Set<Long> changed = new HashSet<>(productIds);
+        int removed = cache.invalidateIf(response -> response.getItems().stream()
+                .anyMatch(document -> changed.contains(document.getId())));
+        if (removed > 0) {
+            log.debug("Dropped {} cached search pages containing {} changed products.", removed, changed.size());
+        }
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+        log.debug("Cleared the search result cache.");
+    }
+
+    public CacheStatsDTO getStats() {
+        return new CacheStatsDTO("search-results", cache.size(), cache.getMaxSize(), cache.getTtlMillis(),
+                cache.getHits(), cache.getMisses(), cache.getEvictions(), cache.getHitRatio());
+    }
+
+    static String keyOf(ProductSearchCriteria criteria) {
+        String query = criteria.hasQuery()
+                ? criteria.getQuery().trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ")
+                : "";
+        return String.join("|",
+                query,
+                criteria.getCategory() != null ? criteria.getCategory().name() : "",
+                plain(criteria.getMinPrice()),
+                plain(criteria.getMaxPrice()),
+                String.valueOf(criteria.isInStock()),
+                criteria.getSort().name(),
+                String.valueOf(criteria.getEffectiveSize()),
+                criteria.getAfter() != null ? criteria.getAfter() : "",
+                String.valueOf(criteria.isFacets()));
+    }
+
+    private static String plain(BigDecimal value) {
+        return value != null ? value.stripTrailingZeros().toPlainString() : "";
+    }
+}
@@ -0,0 +1,281 @@
+package com.acc.serviceImpl;
+
+import com.acc.entity.StockReservation;
+import com.acc.event.ProductChangedEvent;
+import com.acc.exception.ResourceNotFoundException;
+import com.acc.repository.ProductRepository;
+import com.acc.repository.StockReservationRepository;
+import com.acc.service.StockReservationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Service
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockReservationServiceImpl.class);
+
+    private static final String UPSERT_RESERVATION_SQL =
+            "INSERT INTO stock_reservations (cart_id, product_id, quantity, expires_at, created_at) VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE quantity = VALUES(quantity), expires_at = VALUES(expires_at)";
+    private static final String DECREMENT_STOCK_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity - ? WHERE id = ?";
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductCache productCache;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${cart.reservation.ttl-minutes:30}")
+    private long reservationTtlMinutes;
+
+    /**
+     * Sets the cart line's reservation to {@code quantity} units and pushes its expiry out.
+     * The product row is locked (read, never written) so concurrent reservations for the
+     * same SKU are checked one at a time.
+     */
+    @Override
+    @Transactional
+    public void reserve(Long cartId, Long productId, int quantity) {
+        int stockQuantity = productRepository.lockStockQuantity(productId)
+                .orElseThrow(() -> {
+                    log.error("Product not found with ID: {}", productId);
+                    return new ResourceNotFoundException("Product", "Id", productId);
+                });
+        LocalDateTime now = LocalDateTime.now();
+        long reservedByOthers = reservationRepository.sumActiveQuantityForOtherCarts(productId, cartId, now);
+        long available = stockQuantity - reservedByOthers;
+        if (available < quantity) {
+            log.error("Insufficient stock for product ID {}. Available: {}, Requested: {}", productId, available, quantity);
+            throw new IllegalArgumentException("Not enough stock for product ID: " + productId);
+        }
+
+        StockReservation reservation = reservationRepository.findByCartIdAndProductId(cartId, productId)
+                .orElseGet(() -> new StockReservation(cartId, productId));
+        reservation.setQuantity(quantity);
+        reservation.setExpiresAt(now.plusMinutes(reservationTtlMinutes));
+        reservationRepository.save(reservation);
+        productCache.evict(productId);
+        log.debug("Reserved {} units of product ID {} for cart ID {} until {}.",
+                quantity, productId, cartId, reservation.getExpiresAt());
+    }
+
+    /**
+     * Batch form of {@link #reserve}: locks every product row with one query, checks all
+     * lines against one aggregate of other carts' holds and upserts the reservations that
+     * fit in a single JDBC batch. Lines that do not fit keep their previous reservation.
+     *
+     * @return ids of the products whose requested quantity exceeded available stock
+     */
+    @Override
+    @Transactional
+    public Set<Long> reserveAll(Long cartId, Map<Long, Integer> quantities) {
+        Set<Long> rejected = new HashSet<>();
+        if (quantities.isEmpty()) {
+            return rejected;
+        }
+        List<Long> productIds = new ArrayList<>(new TreeSet<>(quantities.keySet()));
+        Map<Long, Integer> stock = new HashMap<>();
+        for (Object[] row : productRepository.lockStockQuantities(productIds)) {
+            stock.put(((Number) row[0]).longValue(), ((Number) row[1]).intValue());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Long> reservedByOthers = new HashMap<>();
+        for (Object[] row : reservationRepository.sumActiveQuantitiesForOtherCarts(productIds, cartId, now)) {
+            reservedByOthers.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+
+        List<Long> accepted = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            Integer stockQuantity = stock.get(productId);
+            if (stockQuantity == null) {
+                log.error("Product not found with ID: {}", productId);
+                throw new ResourceNotFoundException("Product", "Id", productId);
+            }
+            long available = stockQuantity - reservedByOthers.getOrDefault(productId, 0L);
+            int quantity = quantities.get(productId);
+            if (available < quantity) {
+                log.warn("Insufficient stock for product ID {}. Available: {}, Requested: {}", productId, available, quantity);
+                rejected.add(productId);
+            } else {
+                accepted.add(productId);
+            }
+        }
+
+        Timestamp createdAt = Timestamp.valueOf(now);
+        Timestamp expiresAt = Timestamp.valueOf(now.plusMinutes(reservationTtlMinutes));
+        jdbcTemplate.batchUpdate(UPSERT_RESERVATION_SQL, accepted, accepted.size(), (ps, productId) -> {
+            ps.setLong(1, cartId);
+            ps.setLong(2, productId);
+            ps.setInt(3, quantities.get(productId));
+            ps.setTimestamp(4, expiresAt);
+            ps.setTimestamp(5, createdAt);
+        });
+        productCache.evictAll(accepted);
+        log.debug("Reserved {} product line(s) for cart ID {}, {} rejected for stock.", accepted.size(), cartId, rejected.size());
+        return rejected;
+    }
+
+    @Override
+    @Transactional
+    public void release(Long cartId, Long productId) {
+        int released = reservationRepository.deleteByCartAndProduct(cartId, productId);
+        productCache.evict(productId);
+        log.debug("Released {} reservation(s) of product ID {} for cart ID {}.", released, productId, cartId);
+    }
+
+    @Override
+    @Transactional
+    public void releaseAll(Long cartId, Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        int released = reservationRepository.deleteByCartAndProducts(cartId, productIds);
+        productCache.evictAll(productIds);
+        log.debug("Released {} reservation(s) of {} products for cart ID {}.", released, productIds.size(), cartId);
+    }
+
+    @Override
+    @Transactional
+    public void releaseAll(Long cartId) {
+        productCache.evictAll(reservationRepository.findProductIdsByCartId(cartId));
+        int released = reservationRepository.deleteAllByCart(cartId);
+        log.debug("Released {} reservation(s) for cart ID {}.", released, cartId);
+    }
+
+    /**
+     * Turns the cart line's reservation into a real stock decrement. The reservation is
+     * dropped first so the guarded decrement only has to compete with other carts' holds;
+     * if the reservation had already lapsed this still succeeds while unreserved stock lasts.
+     */
+    @Override
+    @Transactional
+    public boolean commit(Long cartId, Long productId, int quantity) {
+        reservationRepository.deleteByCartAndProduct(cartId, productId);
+        boolean committed = productRepository.decrementUnreservedStock(productId, quantity, LocalDateTime.now()) == 1;
+        if (committed) {
+            eventPublisher.publishEvent(ProductChangedEvent.of(ProductChangedEvent.Type.STOCK_CHANGED, productId));
+            log.debug("Committed {} reserved units of product ID {} from cart ID {}.", quantity, productId, cartId);
+        } else {
+            productCache.evict(productId);
+            log.warn("Could not commit {} units of product ID {} from cart ID {}: insufficient stock.", quantity, productId, cartId);
+        }
+        return committed;
+    }
+
+    /**
+     * Batch form of {@link #commit} for a whole order: drops the cart's reservations for
+     * these products in one statement, locks the product rows in id order, checks every
+     * line against the other carts' holds in one aggregate and decrements the lines that
+     * fit in a single JDBC batch. Callers pass one entry per product.
+     *
+     * @return ids of the products that could not be committed for lack of stock
+     */
+    @Override
+    @Transactional
+    public Set<Long> commitAll(Long cartId, Map<Long, Integer> quantities) {
+        Set<Long> rejected = new HashSet<>();
+        if (quantities.isEmpty()) {
+            return rejected;
+        }
+        List<Long> productIds = new ArrayList<>(new TreeSet<>(quantities.keySet()));
+        reservationRepository.deleteByCartAndProducts(cartId, productIds);
+        Map<Long, Integer> stock = new HashMap<>();
+        for (Object[] row : productRepository.lockStockQuantities(productIds)) {
+            stock.put(((Number) row[0]).longValue(), ((Number) row[1]).intValue());
+        }
+        Map<Long, Long> reservedByOthers = new HashMap<>();
+        for (Object[] row : reservationRepository.sumActiveQuantitiesForOtherCarts(productIds, cartId, LocalDateTime.now())) {
+            reservedByOthers.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+
+        List<Long> committed = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            long available = stock.getOrDefault(productId, 0) - reservedByOthers.getOrDefault(productId, 0L);
+            int quantity = quantities.get(productId);
+            if (!stock.containsKey(productId) || available < quantity) {
+                log.warn("Could not commit {} units of product ID {} from cart ID {}: insufficient stock.", quantity, productId, cartId);
+                rejected.add(productId);
+            } else {
+                committed.add(productId);
+            }
+        }
+
+        jdbcTemplate.batchUpdate(DECREMENT_STOCK_SQL, committed, committed.size(), (ps, productId) -> {
+            ps.setInt(1, quantities.get(productId));
+            ps.setLong(2, productId);
+        });
+        if (!committed.isEmpty()) {
+            eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.STOCK_CHANGED, committed));
+        }
+        productCache.evictAll(rejected);
+        log.debug("Committed {} product line(s) from cart ID {}, {} rejected for stock.", committed.size(), cartId, rejected.size());
+        return rejected;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int getAvailableStock(Long productId, int stockQuantity) {
+        long reserved = reservationRepository.sumActiveQuantity(productId, LocalDateTime.now());
+        return (int) Math.max(0, stockQuantity - reserved);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Long> getReservedQuantities() {
+        return toReservedMap(reservationRepository.sumActiveQuantitiesByProduct(LocalDateTime.now()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Long> getReservedQuantities(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        return toReservedMap(reservationRepository.sumActiveQuantitiesForProducts(productIds, LocalDateTime.now()));
+    }
+
+    private Map<Long, Long> toReservedMap(List<Object[]> rows) {
+        Map<Long, Long> reserved = new HashMap<>();
+        for (Object[] row : rows) {
+            reserved.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        return reserved;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${cart.reservation.sweep-interval-ms:60000}")
+    @Transactional
+    public int releaseExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        productCache.evictAll(reservationRepository.findProductIdsWithExpiredReservations(now));
+        int released = reservationRepository.deleteExpired(now);
+        if (released > 0) {
+            log.info("Released {} expired cart stock reservation(s).", released);
+        }
+        return released;
+    }
+}
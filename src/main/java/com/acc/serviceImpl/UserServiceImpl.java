@@ -44,6 +44,8 @@ public class UserServiceImpl implements UserService, UserDetailsService {
     private RoleRepository roleRepository;
     @Autowired
     private PasswordEncoder passwordEncoder;
+    @Autowired
+    private CodeAllocator codeAllocator;
 
   
     private String getFullRoleName(String roleName) {
@@ -263,7 +265,9 @@ public class UserServiceImpl implements UserService, UserDetailsService {
         } else if (assignedRoles.stream().anyMatch(r -> r.getName().equals("ROLE_ADMIN"))) {
             user = new Admin();
         } else if (assignedRoles.stream().anyMatch(r -> r.getName().equals("ROLE_CUSTOMER"))) {
-            user = new Customer();
+            Customer customer = new Customer();
+            customer.setCustomerCode(codeAllocator.nextCustomerCode());
+            user = customer;
         } else {
             user = new User();
         }
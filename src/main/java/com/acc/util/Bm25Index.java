@@ -0,0 +1,168 @@
+package com.acc.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Small in-memory inverted index with BM25 scoring. Documents are addressed by dense int
+ * ordinals handed out by {@link #add}; each term's postings are parallel primitive arrays
+ * of ordinals and term frequencies kept in ordinal order. Removing a document deletes its
+ * postings outright, so statistics stay exact. Not thread-safe; callers guard it.
+ */
+public class Bm25Index {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+            "of", "on", "or", "the", "to", "with");
+
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+
+        private void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+
+        private void remove(int doc) {
+            int i = Arrays.binarySearch(docs, 0, size, doc);
+            if (i < 0) {
+                return;
+            }
+            System.arraycopy(docs, i + 1, docs, i, size - i - 1);
+            System.arraycopy(freqs, i + 1, freqs, i, size - i - 1);
+            size--;
+        }
+    }
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private int[] docLengths = new int[1024];
+    private String[][] docTerms = new String[1024][];
+    private int nextOrdinal;
+    private int liveDocs;
+    private long totalLength;
+
+    /**
+     * Indexes a document whose fields are given with a weight each; a term occurring in a
+     * field counts {@code weight} times towards its frequency (a cheap BM25F).
+     */
+    public int add(Map<String, Integer> weightedFields) {
+        Map<String, Integer> termFreqs = new HashMap<>();
+        int length = 0;
+        for (Map.Entry<String, Integer> field : weightedFields.entrySet()) {
+            for (String term : tokenize(field.getKey())) {
+                termFreqs.merge(term, field.getValue(), Integer::sum);
+                length += field.getValue();
+            }
+        }
+
+        int ordinal = nextOrdinal++;
+        if (ordinal == docLengths.length) {
+            docLengths = Arrays.copyOf(docLengths, ordinal * 2);
+            docTerms = Arrays.copyOf(docTerms, ordinal * 2);
+        }
+        docLengths[ordinal] = length;
+        docTerms[ordinal] = termFreqs.keySet().toArray(new String[0]);
+        for (Map.Entry<String, Integer> term : termFreqs.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), t -> new Postings()).add(ordinal, term.getValue());
+        }
+        liveDocs++;
+        totalLength += length;
+        return ordinal;
+    }
+
+    public void remove(int ordinal) {
+        String[] terms = docTerms[ordinal];
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Postings list = postings.get(term);
+            list.remove(ordinal);
+            if (list.size == 0) {
+                postings.remove(term);
+            }
+        }
+        docTerms[ordinal] = null;
+        liveDocs--;
+        totalLength -= docLengths[ordinal];
+    }
+
+    public int getLiveDocs() {
+        return liveDocs;
+    }
+
+    /** Upper bound (exclusive) of ordinals handed out so far, for sizing accumulators. */
+    public int getOrdinalLimit() {
+        return nextOrdinal;
+    }
+
+    /**
+     * Scores every document matching at least one query term. The returned array is indexed
+     * by ordinal; non-matching documents score 0.
+     */
+    public float[] score(String query) {
+        float[] scores = new float[nextOrdinal];
+        if (liveDocs == 0) {
+            return scores;
+        }
+        float avgLength = (float) totalLength / liveDocs;
+        for (String term : new LinkedHashSet<>(tokenize(query))) {
+            Postings list = postings.get(term);
+            if (list == null) {
+                continue;
+            }
+            double idf = Math.log(1 + (liveDocs - list.size + 0.5) / (list.size + 0.5));
+            for (int i = 0; i < list.size; i++) {
+                int doc = list.docs[i];
+                int tf = list.freqs[i];
+                double norm = K1 * (1 - B + B * docLengths[doc] / avgLength);
+                scores[doc] += (float) (idf * tf * (K1 + 1) / (tf + norm));
+            }
+        }
+        return scores;
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String raw : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (raw.isEmpty() || STOP_WORDS.contains(raw)) {
+                continue;
+            }
+            tokens.add(stem(raw));
+        }
+        return tokens;
+    }
+
+    /** Folds the common English plurals so "apples" matches "apple". */
+    private static String stem(String token) {
+        if (token.endsWith("sses")) {
+            return token.substring(0, token.length() - 2);
+        }
+        if (token.length() > 4 && token.endsWith("ies")) {
+            return token.substring(0, token.length() - 3) + "y";
+        }
+        if (token.length() > 3 && token.endsWith("s") && !token.endsWith("ss")) {
+            return token.substring(0, token.length() - 1);
+        }
+        return token;
+    }
+}
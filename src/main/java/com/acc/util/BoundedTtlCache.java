@@ -0,0 +1,170 @@
+package com.acc.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Small LRU cache with a per-entry time-to-live. Reads that race with an
+ * invalidation of their key never re-populate the cache with the value they
+ * loaded; invalidating one key leaves loads of every other key alone.
+ * Concurrent misses on one key share a single load; the callers that waited
+ * on it count as hits, so the hit ratio is the share of reads that did not
+ * reach the loader.
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final ConcurrentHashMap<K, Load<V>> inFlight = new ConcurrentHashMap<>();
+
+    public BoundedTtlCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > BoundedTtlCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        V cached = getIfPresent(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        Load<V> load = new Load<>();
+        Load<V> existing = inFlight.putIfAbsent(key, load);
+        if (existing != null) {
+            hits.incrementAndGet();
+            return join(existing.future);
+        }
+        misses.incrementAndGet();
+        try {
+            V loaded = loader.get();
+            if (loaded != null) {
+                synchronized (this) {
+                    if (!load.stale) {
+                        entries.put(key, new Entry<>(loaded, System.currentTimeMillis() + ttlMillis));
+                    }
+                }
+            }
+            load.future.complete(loaded);
+            return loaded;
+        } catch (RuntimeException | Error e) {
+            load.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public synchronized V getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(key);
+            evictions.incrementAndGet();
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Drops the key and detaches its in-flight load, if any: that load still answers the
+     * callers already waiting on it but is not stored, and later misses start a fresh load.
+     */
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+        Load<V> load = inFlight.remove(key);
+        if (load != null) {
+            load.stale = true;
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        detachAllLoads();
+    }
+
+    /** Drops every entry whose value matches, e.g. cached results that contain a changed row. */
+    public synchronized int invalidateIf(Predicate<V> predicate) {
+        // A value still being loaded cannot be tested yet, so no load in flight is trusted.
+        detachAllLoads();
+        int removed = 0;
+        for (Iterator<Entry<V>> iterator = entries.values().iterator(); iterator.hasNext(); ) {
+            if (predicate.test(iterator.next().value)) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private void detachAllLoads() {
+        for (Iterator<Load<V>> iterator = inFlight.values().iterator(); iterator.hasNext(); ) {
+            iterator.next().stale = true;
+            iterator.remove();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() { return maxSize; }
+    public long getTtlMillis() { return ttlMillis; }
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getEvictions() { return evictions.get(); }
+
+    public double getHitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    private static final class Load<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        // Written and read under the cache's monitor.
+        private boolean stale;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
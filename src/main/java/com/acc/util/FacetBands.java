@@ -0,0 +1,25 @@
+package com.acc.util;
+
+/**
+ * Bucket boundaries shared by every search backend, so facets look the same whichever
+ * engine answered.
+ */
+public final class FacetBands {
+
+    /** Discount bands as [from, to) percentages; a single bound means open-ended. */
+    public static final double[][] DISCOUNT_BANDS = {{0, 10}, {10, 25}, {25, 50}, {50}};
+
+    private FacetBands() {}
+
+    public static String discountBandKey(double[] band) {
+        return band.length > 1 ? formatBound(band[0]) + "-" + formatBound(band[1]) : formatBound(band[0]) + "+";
+    }
+
+    public static String rangeKey(double from, double to) {
+        return formatBound(from) + "-" + formatBound(to);
+    }
+
+    private static String formatBound(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+}
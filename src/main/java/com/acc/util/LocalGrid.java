@@ -0,0 +1,90 @@
+package com.acc.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pure-Java stand-in for a distributed cache such as Redis or Hazelcast: a concurrent map,
+ * a set of dirty keys awaiting write-behind and a fixed array of lock stripes. Grids looked
+ * up through {@link #named} with the same name share all three, so application contexts in
+ * one JVM behave like nodes of one cluster. Treat values as serialized copies: put a new
+ * object rather than mutating one returned by {@link #get}.
+ */
+public class LocalGrid<K, V> {
+
+    private static final Map<String, LocalGrid<?, ?>> NAMED = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<K, V> entries = new ConcurrentHashMap<>();
+    private final Set<K> dirty = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock[] stripes;
+
+    public LocalGrid(int stripeCount) {
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> LocalGrid<K, V> named(String name, int stripeCount) {
+        return (LocalGrid<K, V>) NAMED.computeIfAbsent(name, n -> new LocalGrid<K, V>(stripeCount));
+    }
+
+    /** The lock guarding {@code key}; keys that hash to the same stripe share it. */
+    public ReentrantLock lockFor(K key) {
+        int hash = key.hashCode();
+        return stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)];
+    }
+
+    public V get(K key) {
+        return entries.get(key);
+    }
+
+    public void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    public V remove(K key) {
+        dirty.remove(key);
+        return entries.remove(key);
+    }
+
+    public void markDirty(K key) {
+        dirty.add(key);
+    }
+
+    public boolean isDirty(K key) {
+        return dirty.contains(key);
+    }
+
+    /** @return true if the key was dirty, in which case the caller now owns its write-back */
+    public boolean clearDirty(K key) {
+        return dirty.remove(key);
+    }
+
+    public List<K> dirtyKeys() {
+        return new ArrayList<>(dirty);
+    }
+
+    public List<K> keys() {
+        return new ArrayList<>(entries.keySet());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int dirtyCount() {
+        return dirty.size();
+    }
+
+    /** Drops every entry without writing anything back, as a crashed node would. */
+    public void discardAll() {
+        dirty.clear();
+        entries.clear();
+    }
+}
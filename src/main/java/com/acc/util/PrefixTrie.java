@@ -0,0 +1,183 @@
+package com.acc.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compressed (radix) prefix trie. Every node caches the best {@code topK} entries of its
+ * subtree, so a lookup costs the length of the prefix plus the size of the answer no
+ * matter how many keys share that prefix. Not thread-safe; callers guard it.
+ */
+public class PrefixTrie {
+
+    public static final class Entry {
+        private final long id;
+        private final String label;
+        private final long score;
+
+        public Entry(long id, String label, long score) {
+            this.id = id;
+            this.label = label;
+            this.score = score;
+        }
+
+        public long getId() { return id; }
+        public String getLabel() { return label; }
+        public long getScore() { return score; }
+    }
+
+    private static final Comparator<Entry> BEST_FIRST = Comparator.comparingLong(Entry::getScore).reversed()
+            .thenComparing(Entry::getLabel)
+            .thenComparingLong(Entry::getId);
+
+    private static final class Node {
+        private String edge;
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private final List<Entry> entries = new ArrayList<>(1);
+        private List<Entry> top = Collections.emptyList();
+
+        private Node(String edge) {
+            this.edge = edge;
+        }
+    }
+
+    private final int topK;
+    private final Node root = new Node("");
+    private int size;
+
+    public PrefixTrie(int topK) {
+        this.topK = topK;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void put(String key, Entry entry) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        int i = 0;
+        path.add(node);
+        while (i < key.length()) {
+            char c = key.charAt(i);
+            Node child = node.children.get(c);
+            if (child == null) {
+                child = new Node(key.substring(i));
+                node.children.put(c, child);
+                node = child;
+                path.add(node);
+                i = key.length();
+                break;
+            }
+            int common = commonPrefixLength(child.edge, key, i);
+            if (common < child.edge.length()) {
+                Node split = new Node(child.edge.substring(0, common));
+                child.edge = child.edge.substring(common);
+                split.children.put(child.edge.charAt(0), child);
+                node.children.put(c, split);
+                child = split;
+            }
+            node = child;
+            path.add(node);
+            i += common;
+        }
+        if (!node.entries.removeIf(e -> e.getId() == entry.getId())) {
+            size++;
+        }
+        node.entries.add(entry);
+        refreshTop(path);
+    }
+
+    public void remove(String key, long id) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        int i = 0;
+        path.add(node);
+        while (i < key.length()) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null || !key.startsWith(child.edge, i)) {
+                return;
+            }
+            node = child;
+            path.add(node);
+            i += child.edge.length();
+        }
+        if (!node.entries.removeIf(e -> e.getId() == id)) {
+            return;
+        }
+        size--;
+        // Drop nodes that no longer lead anywhere.
+        for (int p = path.size() - 1; p > 0; p--) {
+            Node current = path.get(p);
+            if (!current.entries.isEmpty() || !current.children.isEmpty()) {
+                break;
+            }
+            path.get(p - 1).children.remove(current.edge.charAt(0));
+            path.remove(p);
+        }
+        refreshTop(path);
+    }
+
+    public List<Entry> topMatches(String prefix, int limit) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            Node child = node.children.get(prefix.charAt(i));
+            if (child == null) {
+                return Collections.emptyList();
+            }
+            int remaining = prefix.length() - i;
+            if (remaining <= child.edge.length()) {
+                if (!child.edge.startsWith(prefix.substring(i))) {
+                    return Collections.emptyList();
+                }
+                node = child;
+                break;
+            }
+            if (!prefix.startsWith(child.edge, i)) {
+                return Collections.emptyList();
+            }
+            node = child;
+            i += child.edge.length();
+        }
+        List<Entry> top = node.top;
+        return top.size() <= limit ? top : top.subList(0, limit);
+    }
+
+    private void refreshTop(List<Node> path) {
+        for (int p = path.size() - 1; p >= 0; p--) {
+            Node node = path.get(p);
+            List<Entry> candidates = new ArrayList<>(node.entries);
+            for (Node child : node.children.values()) {
+                candidates.addAll(child.top);
+            }
+            candidates.sort(BEST_FIRST);
+            List<Entry> top = new ArrayList<>(Math.min(topK, candidates.size()));
+            Set<Long> seen = new HashSet<>();
+            for (Entry entry : candidates) {
+                if (top.size() == topK) {
+                    break;
+                }
+                if (seen.add(entry.getId())) {
+                    top.add(entry);
+                }
+            }
+            node.top = Collections.unmodifiableList(top);
+        }
+    }
+
+    private static int commonPrefixLength(String edge, String key, int offset) {
+        int max = Math.min(edge.length(), key.length() - offset);
+        int n = 0;
+        while (n < max && edge.charAt(n) == key.charAt(offset + n)) {
+            n++;
+        }
+        return n;
+    }
+}
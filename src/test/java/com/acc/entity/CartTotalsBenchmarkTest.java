@@ -0,0 +1,104 @@
+package com.acc.entity;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the old full cart-total recomputation with the incremental line delta on carts
+ * of 1 to 500 lines. Only the in-memory arithmetic is timed; the old path's lazy product
+ * loads (one select per line) come on top of its numbers in production.
+ * Run with {@code -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CartTotalsBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CartTotalsBenchmarkTest.class);
+
+    private static final int[] CART_SIZES = {1, 10, 50, 100, 250, 500};
+    private static final int WARMUP_OPS = 200_000;
+    private static final int MEASURED_OPS = 200_000;
+
+    private long sink;
+
+    @Test
+    void incrementalTotalsBeatFullRecomputation() {
+        for (int lines : CART_SIZES) {
+            Cart fullCart = cartWithLines(lines, new Random(lines));
+            Cart cart = cartWithLines(lines, new Random(lines));
+
+            measure(fullCart, new Random(42), WARMUP_OPS, true);
+            measure(cart, new Random(42), WARMUP_OPS, false);
+            double fullNanos = measure(fullCart, new Random(7), MEASURED_OPS, true);
+            double incrementalNanos = measure(cart, new Random(7), MEASURED_OPS, false);
+
+            log.info("{} lines: full recompute {} ns/op, incremental {} ns/op ({}x)", lines,
+                    Math.round(fullNanos), Math.round(incrementalNanos), Math.round(fullNanos / incrementalNanos));
+            assertEquals(0, sumOfLineTotals(cart).compareTo(cart.getTotalAmount()),
+                    "incremental total must match the sum of line totals");
+        }
+    }
+
+    // One op = change the quantity of a random line and bring the cart total up to date.
+    private double measure(Cart cart, Random random, int ops, boolean fullRecompute) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ops; i++) {
+            CartItem item = cart.getCartItems().get(random.nextInt(cart.getCartItems().size()));
+            item.setQuantity(1 + random.nextInt(5));
+            if (fullRecompute) {
+                cart.setTotalAmount(fullRecomputation(cart));
+            } else {
+                cart.adjustTotal(item.reprice(item.getProduct().getDiscountPercentage()));
+            }
+            sink += cart.getTotalAmount().unscaledValue().longValue();
+        }
+        return (System.nanoTime() - start) / (double) ops;
+    }
+
+    // The pre-incremental CartServiceImpl.updateCartTotal, minus logging.
+    private static BigDecimal fullRecomputation(Cart cart) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (CartItem item : cart.getCartItems()) {
+            Double discountPercent = item.getProduct().getDiscountPercentage();
+            BigDecimal price = item.getPrice();
+            BigDecimal finalPrice = price;
+            if (discountPercent != null && discountPercent > 0.0) {
+                BigDecimal discountAmount = price.multiply(BigDecimal.valueOf(discountPercent))
+                        .divide(BigDecimal.valueOf(100), RoundingMode.HALF_UP);
+                finalPrice = price.subtract(discountAmount);
+            }
+            total = total.add(finalPrice.multiply(BigDecimal.valueOf(item.getQuantity())));
+        }
+        return total;
+    }
+
+    private static BigDecimal sumOfLineTotals(Cart cart) {
+        return cart.getCartItems().stream().map(CartItem::getLineTotal).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static Cart cartWithLines(int lines, Random random) {
+        Cart cart = new Cart();
+        cart.setTotalAmount(BigDecimal.ZERO);
+        for (int i = 0; i < lines; i++) {
+            Product product = new Product();
+            product.setId((long) i);
+            product.setPrice(BigDecimal.valueOf(100 + random.nextInt(10_000), 2));
+            product.setDiscountPercentage(random.nextBoolean() ? (double) random.nextInt(40) : null);
+
+            CartItem item = new CartItem();
+            item.setProduct(product);
+            item.setPrice(product.getPrice());
+            item.setQuantity(1 + random.nextInt(5));
+            cart.addCartItem(item);
+            cart.adjustTotal(item.reprice(product.getDiscountPercentage()));
+        }
+        return cart;
+    }
+}
@@ -0,0 +1,111 @@
+package com.acc.repository;
+
+import com.acc.entity.Category;
+import com.acc.entity.Product;
+import com.acc.entity.StockReservation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ProductRepositoryConcurrencyTest {
+
+    private static final int INITIAL_STOCK = 500;
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_THREAD = 50;
+
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    private Long productId;
+    private Long cartId;
+
+    @BeforeEach
+    void createHotProduct() {
+        Product product = new Product(null, "concurrency-test-sku-" + System.nanoTime(), "hot SKU",
+                null, new BigDecimal("10.00"), INITIAL_STOCK, Category.SNACKS);
+        productId = productRepository.save(product).getId();
+        // Reservations carry no foreign key to carts, so the cart is just an id.
+        cartId = 1_000_000_000_000L + System.nanoTime() % 1_000_000_000L;
+    }
+
+    @AfterEach
+    void removeHotProduct() {
+        reservationRepository.deleteAllByCart(cartId);
+        productRepository.deleteById(productId);
+    }
+
+    @Test
+    void concurrentDecrementsNeverOversell() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger sold = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    sold.addAndGet(productRepository.decrementUnreservedStock(productId, 1, LocalDateTime.now()));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(INITIAL_STOCK, sold.get(), "every unit should be sold exactly once");
+        assertEquals(0, stockOf(productId), "stock must never go negative");
+    }
+
+    @Test
+    void decrementIsRejectedWhenRequestExceedsStock() {
+        assertEquals(0, productRepository.decrementUnreservedStock(productId, INITIAL_STOCK + 1, LocalDateTime.now()));
+        assertEquals(1, productRepository.decrementUnreservedStock(productId, INITIAL_STOCK, LocalDateTime.now()));
+        assertEquals(0, stockOf(productId));
+        assertEquals(1, productRepository.incrementStock(productId, 5));
+        assertEquals(5, stockOf(productId));
+    }
+
+    @Test
+    void unitsHeldByALiveReservationAreNotSold() {
+        StockReservation reservation = new StockReservation(cartId, productId);
+        reservation.setQuantity(INITIAL_STOCK - 1);
+        reservation.setExpiresAt(LocalDateTime.now().plusMinutes(30));
+        reservationRepository.save(reservation);
+
+        assertEquals(0, productRepository.decrementUnreservedStock(productId, 2, LocalDateTime.now()));
+        assertEquals(1, productRepository.decrementUnreservedStock(productId, 1, LocalDateTime.now()));
+        assertEquals(INITIAL_STOCK - 1, stockOf(productId));
+        // Once the hold has expired its units are for sale again.
+        assertEquals(1, productRepository.decrementUnreservedStock(productId, INITIAL_STOCK - 1,
+                LocalDateTime.now().plusHours(1)));
+        assertEquals(0, stockOf(productId));
+    }
+
+    private int stockOf(Long id) {
+        return productRepository.findStockQuantityById(id).orElseThrow();
+    }
+}
@@ -0,0 +1,158 @@
+package com.acc.repository;
+
+import com.acc.entity.Category;
+import com.acc.entity.Product;
+import com.acc.entity.StockReservation;
+import com.acc.service.StockReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The reservation ledger: reserve, commit and the expiry sweep. Reservations carry no
+ * foreign key to carts, so the carts here are just ids.
+ */
+@SpringBootTest
+class StockReservationLedgerTest {
+
+    private static final int INITIAL_STOCK = 5;
+    private static final int CARTS = 16;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+    @Autowired
+    private StockReservationRepository reservationRepository;
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Long productId;
+    private long firstCartId;
+
+    @BeforeEach
+    void createProduct() {
+        Product product = new Product(null, "reservation-test-sku-" + System.nanoTime(), "reserved SKU",
+                null, new BigDecimal("10.00"), INITIAL_STOCK, Category.SNACKS);
+        productId = productRepository.save(product).getId();
+        firstCartId = 1_000_000_000_000L + System.nanoTime() % 1_000_000_000L;
+    }
+
+    @AfterEach
+    void removeProduct() {
+        for (int i = 0; i < CARTS; i++) {
+            reservationRepository.deleteAllByCart(cart(i));
+        }
+        productRepository.deleteById(productId);
+    }
+
+    @Test
+    void concurrentCartsCannotReserveMoreThanTheStock() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CARTS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < CARTS; i++) {
+            Long cartId = cart(i);
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    stockReservationService.reserve(cartId, productId, 1);
+                    reserved.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    refused.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(INITIAL_STOCK, reserved.get());
+        assertEquals(CARTS - INITIAL_STOCK, refused.get());
+        assertEquals(INITIAL_STOCK, reservationRepository.sumActiveQuantity(productId, LocalDateTime.now()));
+        assertEquals(0, stockReservationService.getAvailableStock(productId, INITIAL_STOCK));
+    }
+
+    @Test
+    void aSecondCartCannotTakeStockHeldByTheFirst() {
+        stockReservationService.reserve(cart(0), productId, 3);
+
+        assertThrows(IllegalArgumentException.class, () -> stockReservationService.reserve(cart(1), productId, 3));
+        stockReservationService.reserve(cart(1), productId, 2);
+
+        assertFalse(stockReservationService.commit(cart(1), productId, 3), "cart 1 only held 2 units");
+        assertTrue(stockReservationService.commit(cart(0), productId, 3));
+        assertEquals(INITIAL_STOCK - 3, stockOf(productId));
+    }
+
+    @Test
+    void anExpiredReservationCommitsWhileUnreservedStockLasts() {
+        stockReservationService.reserve(cart(0), productId, 3);
+        expire(cart(0));
+
+        assertTrue(stockReservationService.commit(cart(0), productId, 3));
+        assertEquals(INITIAL_STOCK - 3, stockOf(productId));
+        assertTrue(reservationRepository.findByCartIdAndProductId(cart(0), productId).isEmpty());
+    }
+
+    @Test
+    void anExpiredReservationDoesNotCommitOverAnotherCartsHold() {
+        stockReservationService.reserve(cart(0), productId, 3);
+        expire(cart(0));
+        stockReservationService.reserve(cart(1), productId, INITIAL_STOCK);
+
+        assertFalse(stockReservationService.commit(cart(0), productId, 3));
+        assertEquals(INITIAL_STOCK, stockOf(productId));
+        assertTrue(stockReservationService.commit(cart(1), productId, INITIAL_STOCK));
+        assertEquals(0, stockOf(productId));
+    }
+
+    @Test
+    void theSweeperFreesExpiredReservations() {
+        stockReservationService.reserve(cart(0), productId, INITIAL_STOCK);
+        assertEquals(0, stockReservationService.getAvailableStock(productId, INITIAL_STOCK));
+        expire(cart(0));
+
+        assertTrue(stockReservationService.releaseExpired() >= 1);
+
+        assertTrue(reservationRepository.findByCartIdAndProductId(cart(0), productId).isEmpty());
+        assertEquals(INITIAL_STOCK, stockReservationService.getAvailableStock(productId, INITIAL_STOCK));
+        stockReservationService.reserve(cart(1), productId, INITIAL_STOCK);
+    }
+
+    private Long cart(int index) {
+        return firstCartId + index;
+    }
+
+    private void expire(Long cartId) {
+        StockReservation reservation = reservationRepository.findByCartIdAndProductId(cartId, productId).orElseThrow();
+        reservation.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        reservationRepository.save(reservation);
+    }
+
+    private int stockOf(Long id) {
+        return productRepository.findStockQuantityById(id).orElseThrow();
+    }
+}
@@ -0,0 +1,135 @@
+package com.acc.serviceImpl;
+
+import com.acc.dto.BulkUploadJob;
+import com.acc.dto.BulkUploadJobResponse;
+import com.acc.dto.BulkUploadResponse;
+import com.acc.exception.ResourceNotFoundException;
+import com.acc.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Job lifecycle: the importer is stubbed to parse and send a fixed set of records, and the
+ * test plays the Kafka acknowledgements and the consumer's progress reports.
+ */
+class BulkUploadJobServiceTest {
+
+    private static final int SENT = 3;
+
+    private BulkUploadJobServiceImpl service;
+    private BulkUploadJob job;
+
+    @BeforeEach
+    void createService() throws Exception {
+        ProductService productService = mock(ProductService.class);
+        when(productService.importProductsFromCsv(any(), any())).thenAnswer(call -> {
+            job = call.getArgument(1);
+            for (int i = 0; i < SENT + 1; i++) {
+                job.recordParsed();
+            }
+            job.recordSkipped(1);
+            for (int i = 0; i < SENT; i++) {
+                job.recordSent();
+            }
+            return new BulkUploadResponse("parsed", SENT + 1, SENT, 1, null);
+        });
+
+        service = new BulkUploadJobServiceImpl();
+        ReflectionTestUtils.setField(service, "productService", productService);
+        ReflectionTestUtils.setField(service, "bulkUploadExecutor", (TaskExecutor) Runnable::run);
+        // A negative retention puts the cutoff in the future, so the sweeper drops any finished job.
+        ReflectionTestUtils.setField(service, "jobRetentionMinutes", -1L);
+    }
+
+    @Test
+    void theJobRunsUntilEverySendIsAcknowledged() {
+        String jobId = submit();
+
+        BulkUploadJobResponse parsed = service.getJob(jobId);
+        assertEquals("RUNNING", parsed.getStatus());
+        assertEquals(SENT + 1, parsed.getTotalRecordsProcessed());
+        assertEquals(SENT, parsed.getRecordsAwaitingAck());
+        assertNull(parsed.getCompletedAt());
+
+        job.recordPublished();
+        job.recordPublished();
+        assertEquals("RUNNING", service.getJob(jobId).getStatus());
+        assertEquals(1, service.getJob(jobId).getRecordsAwaitingAck());
+
+        job.recordPublished();
+        BulkUploadJobResponse done = service.getJob(jobId);
+        assertEquals("COMPLETED", done.getStatus());
+        assertEquals("parsed", done.getMessage());
+        assertEquals(SENT, done.getRecordsAdded());
+        assertEquals(0, done.getRecordsAwaitingAck());
+        assertNotNull(done.getCompletedAt());
+    }
+
+    @Test
+    void aRejectedSendIsCountedAndStillFinishesTheJob() {
+        String jobId = submit();
+
+        job.recordPublished();
+        job.recordPublishFailed();
+        job.recordPublished();
+
+        BulkUploadJobResponse done = service.getJob(jobId);
+        assertEquals("COMPLETED", done.getStatus());
+        assertEquals(SENT - 1, done.getRecordsAdded());
+        assertEquals(1, done.getErrorCount());
+        assertTrue(done.getMessage().contains("rejected 1 record"), done.getMessage());
+    }
+
+    @Test
+    void parserAndConsumerSkipsAreCountedSeparately() {
+        String jobId = submit();
+        for (int i = 0; i < SENT; i++) {
+            job.recordPublished();
+        }
+
+        service.recordConsumed(jobId, SENT - 1, 1);
+
+        BulkUploadJobResponse response = service.getJob(jobId);
+        assertEquals(1, response.getRecordsSkipped());
+        assertEquals(1, response.getRecordsSkippedByConsumer());
+        assertEquals(SENT - 1, response.getRecordsPersisted());
+    }
+
+    @Test
+    void theSweeperKeepsJobsThatAreStillWaitingForAcks() {
+        String jobId = submit();
+
+        service.removeExpiredJobs();
+        assertEquals("RUNNING", service.getJob(jobId).getStatus());
+
+        for (int i = 0; i < SENT; i++) {
+            job.recordPublished();
+        }
+        service.removeExpiredJobs();
+        assertThrows(ResourceNotFoundException.class, () -> service.getJob(jobId));
+    }
+
+    private String submit() {
+        try {
+            MockMultipartFile file = new MockMultipartFile("file", "products.csv", "text/csv",
+                    "name,description\n".getBytes(StandardCharsets.UTF_8));
+            return service.submit(file).getJobId();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.acc.serviceImpl;
+
+import com.acc.dto.CartBatchRequestDTO;
+import com.acc.dto.CartBatchResponseDTO;
+import com.acc.dto.CartItemDTO;
+import com.acc.dto.CartItemOperationDTO;
+import com.acc.dto.CartItemOperationResultDTO;
+import com.acc.entity.StockReservation;
+import com.acc.repository.CartRepository;
+import com.acc.repository.CustomerRepository;
+import com.acc.repository.ProductRepository;
+import com.acc.repository.StockReservationRepository;
+import com.acc.service.CartService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The batch cart endpoint: operations on one product fold into one line, a line that runs
+ * out of stock is refused on its own, and a line taken out of the cart gives its hold back.
+ */
+@SpringBootTest
+@Import(TestFixtures.class)
+class CartBatchTest {
+
+    private static final int STOCK = 5;
+
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CartRepository cartRepository;
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    private Long customerId;
+    private Long cartId;
+    private Long first;
+    private Long second;
+
+    @BeforeEach
+    void createCart() {
+        List<Long> productIds = TestFixtures.ids(fixtures.products("cart-batch", 2, new BigDecimal("4.00"), STOCK));
+        first = productIds.get(0);
+        second = productIds.get(1);
+        customerId = fixtures.customer("cart-batch").getId();
+        cartId = cartService.getOrCreateCart(customerId).getId();
+    }
+
+    @AfterEach
+    void removeCart() {
+        cartService.clearCart(customerId);
+        cartRepository.deleteById(cartId);
+        customerRepository.deleteById(customerId);
+        productRepository.deleteAllById(List.of(first, second));
+    }
+
+    @Test
+    void operationsOnOneProductFoldIntoOneLine() {
+        CartBatchResponseDTO response = apply(
+                add(first, 1),
+                add(second, 1),
+                add(first, 2),
+                new CartItemOperationDTO(CartItemOperationDTO.Type.UPDATE, second, 3),
+                add(first, 1));
+
+        assertEquals(5, response.getApplied());
+        assertEquals(0, response.getRejected());
+        assertEquals(List.of(1, 1, 3, 3, 4),
+                response.getResults().stream().map(CartItemOperationResultDTO::getQuantity).toList());
+        assertEquals(Map.of(first, 4, second, 3), quantities(response));
+        assertEquals(0, new BigDecimal("28.00").compareTo(response.getCart().getTotalAmount()));
+        assertEquals(4, reservation(first).orElseThrow().getQuantity().intValue());
+        assertEquals(3, reservation(second).orElseThrow().getQuantity().intValue());
+    }
+
+    @Test
+    void aLineBeyondStockIsRejectedWithoutTheOthers() {
+        apply(add(first, 2));
+
+        CartBatchResponseDTO response = apply(
+                add(first, 2),
+                add(first, STOCK),
+                add(second, 1));
+
+        assertEquals(1, response.getApplied());
+        assertEquals(2, response.getRejected());
+        List<CartItemOperationResultDTO> results = response.getResults();
+        for (CartItemOperationResultDTO result : results.subList(0, 2)) {
+            assertEquals(CartItemOperationResultDTO.Status.REJECTED, result.getStatus());
+            assertEquals(2, result.getQuantity().intValue());
+            assertTrue(result.getMessage().startsWith("Not enough stock"), result.getMessage());
+        }
+        assertEquals(CartItemOperationResultDTO.Status.APPLIED, results.get(2).getStatus());
+        assertEquals(Map.of(first, 2, second, 1), quantities(response));
+        assertEquals(2, reservation(first).orElseThrow().getQuantity().intValue());
+        assertEquals(1, reservation(second).orElseThrow().getQuantity().intValue());
+    }
+
+    @Test
+    void removingALineReleasesItsReservation() {
+        apply(add(first, 2), add(second, 1));
+
+        CartBatchResponseDTO response = apply(
+                new CartItemOperationDTO(CartItemOperationDTO.Type.REMOVE, first, null),
+                new CartItemOperationDTO(CartItemOperationDTO.Type.UPDATE, second, 0));
+
+        assertEquals(2, response.getApplied());
+        assertTrue(response.getCart().getCartItems().isEmpty());
+        assertEquals(0, BigDecimal.ZERO.compareTo(response.getCart().getTotalAmount()));
+        assertFalse(reservation(first).isPresent());
+        assertFalse(reservation(second).isPresent());
+    }
+
+    private CartBatchResponseDTO apply(CartItemOperationDTO... operations) {
+        CartBatchRequestDTO request = new CartBatchRequestDTO();
+        request.setOperations(new ArrayList<>(List.of(operations)));
+        return cartService.applyCartBatch(customerId, request);
+    }
+
+    private static CartItemOperationDTO add(Long productId, int quantity) {
+        return new CartItemOperationDTO(CartItemOperationDTO.Type.ADD, productId, quantity);
+    }
+
+    private static Map<Long, Integer> quantities(CartBatchResponseDTO response) {
+        return response.getCart().getCartItems().stream()
+                .collect(Collectors.toMap(CartItemDTO::getProductId, CartItemDTO::getQuantity));
+    }
+
+    private Optional<StockReservation> reservation(Long productId) {
+        return stockReservationRepository.findByCartIdAndProductId(cartId, productId);
+    }
+}
@@ -0,0 +1,114 @@
+package com.acc.serviceImpl;
+
+import com.acc.dto.CartDTO;
+import com.acc.dto.OrderDTO;
+import com.acc.repository.CartRepository;
+import com.acc.repository.CustomerRepository;
+import com.acc.repository.OrderRepository;
+import com.acc.repository.ProductRepository;
+import com.acc.service.CartService;
+import com.acc.service.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Times clearCart and createOrderFromCart on carts of 50 to 500 lines. Both now clean up
+ * with a fixed number of statements (one reservation delete, one line delete, one total
+ * update), so their time should grow far slower than the line count. Statements prepared
+ * through Hibernate are logged next to each timing, so the flat cleanup cost can be checked
+ * on any machine. Run with {@code -Dbenchmark=true} against a scratch MySQL database.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Import(TestFixtures.class)
+class CartCleanupBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CartCleanupBenchmarkTest.class);
+
+    private static final int[] CART_SIZES = {50, 200, 500};
+
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CartRepository cartRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    private Long customerId;
+    private final List<Long> productIds = new ArrayList<>();
+    private final List<Long> orderIds = new ArrayList<>();
+
+    @BeforeEach
+    void createCustomerAndProducts() {
+        customerId = fixtures.customer("cart-bench").getId();
+        int maxLines = CART_SIZES[CART_SIZES.length - 1];
+        productIds.addAll(TestFixtures.ids(fixtures.products("cart-bench", maxLines, new BigDecimal("10.00"), 1_000_000)));
+    }
+
+    @AfterEach
+    void removeFixtures() {
+        orderRepository.deleteAllById(orderIds);
+        cartRepository.findByCustomer_Id(customerId).ifPresent(cartRepository::delete);
+        productRepository.deleteAllById(productIds);
+        customerRepository.deleteById(customerId);
+    }
+
+    @Test
+    void cleanupCostStaysFlatAsCartsGrow() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int lines : CART_SIZES) {
+            fixtures.fillCart(customerId, productIds.subList(0, lines));
+            statistics.clear();
+            long start = System.nanoTime();
+            cartService.clearCart(customerId);
+            long clearMicros = (System.nanoTime() - start) / 1_000;
+            long clearStatements = statistics.getPrepareStatementCount();
+            assertTrue(cartService.getOrCreateCart(customerId).getCartItems().isEmpty());
+
+            CartDTO cart = fixtures.fillCart(customerId, productIds.subList(0, lines));
+            statistics.clear();
+            start = System.nanoTime();
+            OrderDTO order = orderService.createOrderFromCart(cart.getId());
+            long orderMicros = (System.nanoTime() - start) / 1_000;
+            long orderStatements = statistics.getPrepareStatementCount();
+            orderIds.add(order.getId());
+            assertEquals(lines, order.getOrderItems().size());
+            assertTrue(cartService.getOrCreateCart(customerId).getCartItems().isEmpty());
+
+            log.info("{} lines: clearCart {} us ({} us/line, {} statements), createOrderFromCart {} us ({} us/line, {} statements)",
+                    lines, clearMicros, clearMicros / lines, clearStatements, orderMicros, orderMicros / lines, orderStatements);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.acc.serviceImpl;
+
+import com.acc.dto.AddItemToCartRequestDTO;
+import com.acc.dto.CartDTO;
+import com.acc.dto.CartItemDTO;
+import com.acc.repository.CartRepository;
+import com.acc.repository.CustomerRepository;
+import com.acc.repository.ProductRepository;
+import com.acc.service.CartService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.ConcurrencyFailureException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Concurrent edits of one cart: each moves the total by a delta, so without the cart's
+ * version check one of two overlapping edits would overwrite the other's total.
+ */
+@SpringBootTest
+@Import(TestFixtures.class)
+class CartConcurrentEditTest {
+
+    private static final BigDecimal PRICE = new BigDecimal("5.00");
+    private static final int ADDS_PER_PRODUCT = 20;
+
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CartRepository cartRepository;
+
+    private Long customerId;
+    private Long cartId;
+    private final List<Long> productIds = new ArrayList<>();
+
+    @BeforeEach
+    void createCart() {
+        productIds.addAll(TestFixtures.ids(fixtures.products("concurrent-edit", 2, PRICE, 1_000)));
+        customerId = fixtures.customer("concurrent-edit").getId();
+        cartId = cartService.getOrCreateCart(customerId).getId();
+    }
+
+    @AfterEach
+    void removeCart() {
+        cartService.clearCart(customerId);
+        cartRepository.deleteById(cartId);
+        customerRepository.deleteById(customerId);
+        productRepository.deleteAllById(productIds);
+    }
+
+    @Test
+    void concurrentAddsToOneCartKeepEveryDelta() throws Exception {
+        AtomicInteger conflicts = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(productIds.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long productId : productIds) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < ADDS_PER_PRODUCT; i++) {
+                    addOne(productId, conflicts);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        CartDTO cart = cartService.getCartById(cartId);
+        assertEquals(productIds.size(), cart.getCartItems().size());
+        for (CartItemDTO line : cart.getCartItems()) {
+            assertEquals(ADDS_PER_PRODUCT, line.getQuantity().intValue());
+        }
+        BigDecimal expected = PRICE.multiply(BigDecimal.valueOf((long) ADDS_PER_PRODUCT * productIds.size()));
+        assertEquals(0, expected.compareTo(cart.getTotalAmount()),
+                "total " + cart.getTotalAmount() + " after " + conflicts.get() + " retried conflicts");
+    }
+
+    // A request that loses the version check, or is picked as a deadlock victim while both
+    // bump the cart row, is refused as a whole, so the client just retries it.
+    private void addOne(Long productId, AtomicInteger conflicts) {
+        AddItemToCartRequestDTO request = new AddItemToCartRequestDTO();
+        request.setProductId(productId);
+        request.setQuantity(1);
+        while (true) {
+            try {
+                cartService.addProductToCart(customerId, request);
+                return;
+            } catch (ConcurrencyFailureException e) {
+                conflicts.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.acc.serviceImpl;
+
+import com.acc.dto.CartDTO;
+import com.acc.dto.CartPageResponse;
+import com.acc.repository.CartRepository;
+import com.acc.repository.CustomerRepository;
+import com.acc.repository.ProductRepository;
+import com.acc.service.CartService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pins the number of SQL statements each cart read endpoint issues, so a lazy association
+ * touched during DTO conversion shows up as a failing count rather than as N+1 in production.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(TestFixtures.class)
+class CartFetchPlanTest {
+
+    private static final int CARTS = 3;
+    private static final int LINES_PER_CART = 5;
+
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CartRepository cartRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> customerIds = new ArrayList<>();
+    private final List<Long> cartIds = new ArrayList<>();
+    private final List<Long> productIds = new ArrayList<>();
+    private Statistics statistics;
+
+    @BeforeEach
+    void createCarts() {
+        productIds.addAll(TestFixtures.ids(fixtures.products("fetch-plan", LINES_PER_CART, new BigDecimal("5.00"), 1_000)));
+        for (int c = 0; c < CARTS; c++) {
+            Long customerId = fixtures.customer("fetch-plan-" + c).getId();
+            customerIds.add(customerId);
+            cartIds.add(fixtures.fillCart(customerId, productIds).getId());
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void removeCarts() {
+        customerIds.forEach(cartService::clearCart);
+        cartRepository.deleteAllById(cartIds);
+        customerRepository.deleteAllById(customerIds);
+        productRepository.deleteAllById(productIds);
+    }
+
+    @Test
+    void getCartByIdIsOneStatement() {
+        CartDTO cart = cartService.getCartById(cartIds.get(0));
+
+        assertEquals(LINES_PER_CART, cart.getCartItems().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getOrCreateCartIsOneStatementForAnExistingCart() {
+        CartDTO cart = cartService.getOrCreateCart(customerIds.get(0));
+
+        assertEquals(LINES_PER_CART, cart.getCartItems().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getAllCartsIsTwoStatementsPerPage() {
+        String beforeFirstCart = String.valueOf(cartIds.get(0) - 1);
+
+        CartPageResponse page = cartService.getAllCarts(beforeFirstCart, CARTS);
+
+        assertEquals(cartIds, page.getItems().stream().map(CartDTO::getId).toList());
+        page.getItems().forEach(cart -> assertEquals(LINES_PER_CART, cart.getCartItems().size()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+}
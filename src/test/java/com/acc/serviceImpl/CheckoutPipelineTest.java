@@ -0,0 +1,158 @@
+package com.acc.serviceImpl;
+
+import com.acc.dto.CheckoutTicketDTO;
+import com.acc.dto.OrderDTO;
+import com.acc.dto.OrderItemDTO;
+import com.acc.dto.ProductDTO;
+import com.acc.entity.CheckoutTicket;
+import com.acc.repository.CartRepository;
+import com.acc.repository.CheckoutTicketRepository;
+import com.acc.repository.CustomerRepository;
+import com.acc.repository.OrderRepository;
+import com.acc.repository.ProductRepository;
+import com.acc.service.CartService;
+import com.acc.service.CheckoutService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs asynchronous checkout against an embedded broker. Several customers queue one
+ * partial order per cart line, interleaved, so their commands share partitions and run
+ * concurrently. Order ids grow with insertion order, so each customer's ids must increase
+ * in the order that customer's checkouts were queued.
+ */
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "checkout.topic.partitions=3",
+        "checkout.consumer.concurrency=3"
+})
+@EmbeddedKafka(partitions = 3, topics = CheckoutServiceImpl.CHECKOUT_TOPIC)
+@Import(TestFixtures.class)
+class CheckoutPipelineTest {
+
+    private static final int CUSTOMERS = 4;
+    private static final int LINES_PER_CART = 5;
+    private static final long TIMEOUT_MS = 60_000;
+
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private CheckoutService checkoutService;
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private CheckoutTicketRepository checkoutTicketRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CartRepository cartRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private final List<Long> customerIds = new ArrayList<>();
+    private final List<Long> cartIds = new ArrayList<>();
+    private final List<Long> productIds = new ArrayList<>();
+    private final List<Long> orderIds = new ArrayList<>();
+    private final List<String> ticketIds = new ArrayList<>();
+
+    @BeforeEach
+    void createCarts() {
+        productIds.addAll(TestFixtures.ids(fixtures.products("checkout", LINES_PER_CART, new BigDecimal("3.00"), 1_000)));
+        for (int c = 0; c < CUSTOMERS; c++) {
+            Long customerId = fixtures.customer("checkout-" + c).getId();
+            customerIds.add(customerId);
+            cartIds.add(fixtures.fillCart(customerId, productIds).getId());
+        }
+    }
+
+    @AfterEach
+    void removeFixtures() {
+        orderRepository.deleteAllById(orderIds);
+        checkoutTicketRepository.deleteAllById(ticketIds);
+        customerIds.forEach(cartService::clearCart);
+        cartRepository.deleteAllById(cartIds);
+        customerRepository.deleteAllById(customerIds);
+        productRepository.deleteAllById(productIds);
+    }
+
+    @Test
+    void checkoutsOfOneCustomerRunInTheOrderTheyWereQueued() throws InterruptedException {
+        Map<Long, List<String>> queuedByCustomer = new HashMap<>();
+        for (Long productId : productIds) {
+            for (Long customerId : customerIds) {
+                CheckoutTicketDTO ticket = checkoutService.submitPartial(customerId, orderOf(productId));
+                assertEquals(CheckoutTicket.Status.QUEUED.name(), ticket.getStatus());
+                queuedByCustomer.computeIfAbsent(customerId, id -> new ArrayList<>()).add(ticket.getId());
+                ticketIds.add(ticket.getId());
+            }
+        }
+
+        awaitFinished();
+
+        for (Long customerId : customerIds) {
+            List<Long> customerOrderIds = new ArrayList<>();
+            for (String ticketId : queuedByCustomer.get(customerId)) {
+                CheckoutTicketDTO ticket = checkoutService.getTicket(ticketId);
+                assertEquals(CheckoutTicket.Status.COMPLETED.name(), ticket.getStatus(), ticket.getMessage());
+                customerOrderIds.add(ticket.getOrderId());
+                orderIds.add(ticket.getOrderId());
+            }
+            for (int i = 1; i < customerOrderIds.size(); i++) {
+                assertTrue(customerOrderIds.get(i - 1) < customerOrderIds.get(i),
+                        "customer " + customerId + " orders out of queue order: " + customerOrderIds);
+            }
+            assertTrue(cartService.getOrCreateCart(customerId).getCartItems().isEmpty());
+        }
+    }
+
+    @Test
+    void aRejectedCheckoutFailsItsTicket() throws InterruptedException {
+        Long customerId = customerIds.get(0);
+        OrderDTO tooMany = orderOf(productIds.get(0));
+        tooMany.getOrderItems().get(0).setQuantity(5_000);
+
+        CheckoutTicketDTO ticket = checkoutService.submitPartial(customerId, tooMany);
+        ticketIds.add(ticket.getId());
+        awaitFinished();
+
+        CheckoutTicketDTO result = checkoutService.getTicket(ticket.getId());
+        assertEquals(CheckoutTicket.Status.FAILED.name(), result.getStatus());
+        assertTrue(result.getMessage().contains("stock"), result.getMessage());
+    }
+
+    private OrderDTO orderOf(Long productId) {
+        ProductDTO product = new ProductDTO();
+        product.setId(productId);
+        OrderItemDTO item = new OrderItemDTO();
+        item.setProductDetails(product);
+        item.setQuantity(1);
+        OrderDTO order = new OrderDTO();
+        order.setOrderItems(new ArrayList<>(List.of(item)));
+        return order;
+    }
+
+    private void awaitFinished() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (ticketIds.stream().anyMatch(id -> checkoutTicketRepository.findStatusById(id)
+                .orElseThrow() == CheckoutTicket.Status.QUEUED)) {
+            assertTrue(System.currentTimeMillis() < deadline, "checkouts still queued after " + TIMEOUT_MS + " ms");
+            Thread.sleep(100);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.acc.serviceImpl;
+
+import com.acc.repository.CodeSequenceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Block leasing against an in-memory {@code code_sequences} table. {@code lockNextValue}
+ * takes a row lock that the transaction manager releases on commit, like {@code FOR UPDATE},
+ * so several allocators sharing the table behave like nodes sharing the database.
+ */
+class CodeAllocatorTest {
+
+    private static final long FIRST_VALUE = 42;
+    private static final int BLOCK_SIZE = 3;
+
+    private final Map<String, Long> sequences = new ConcurrentHashMap<>();
+    private final ReentrantLock rowLock = new ReentrantLock();
+    private final AtomicInteger leases = new AtomicInteger();
+    private CodeSequenceRepository codeSequenceRepository;
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void createTable() {
+        codeSequenceRepository = mock(CodeSequenceRepository.class);
+        when(codeSequenceRepository.lockNextValue(any())).thenAnswer(call -> {
+            rowLock.lock();
+            return Optional.ofNullable(sequences.get(call.<String>getArgument(0)));
+        });
+        when(codeSequenceRepository.advance(any(), anyLong(), any())).thenAnswer(call -> {
+            leases.incrementAndGet();
+            sequences.merge(call.getArgument(0), call.<Long>getArgument(1), Long::sum);
+            return 1;
+        });
+        when(codeSequenceRepository.createIfAbsent(any(), anyLong(), any())).thenAnswer(call ->
+                sequences.putIfAbsent(call.getArgument(0), call.<Long>getArgument(1)) == null ? 1 : 0);
+
+        transactionManager = new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+                releaseRowLock();
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+                releaseRowLock();
+            }
+        };
+    }
+
+    @Test
+    void startupCreatesBothSequencesAboveExistingIds() {
+        node();
+
+        assertEquals(Map.of(CodeAllocator.ORDER_SEQUENCE, FIRST_VALUE, CodeAllocator.CUSTOMER_SEQUENCE, FIRST_VALUE),
+                sequences);
+        assertEquals(0, leases.get());
+    }
+
+    @Test
+    void aNodeServesItsBlockBeforeLeasingTheNext() {
+        CodeAllocator allocator = node();
+
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < BLOCK_SIZE + 1; i++) {
+            codes.add(allocator.nextCustomerCode());
+        }
+
+        assertEquals(List.of("CH042", "CH043", "CH044", "CH045"), codes);
+        assertEquals(2, leases.get());
+        assertEquals(FIRST_VALUE + 2 * BLOCK_SIZE, sequences.get(CodeAllocator.CUSTOMER_SEQUENCE));
+        assertEquals(FIRST_VALUE, sequences.get(CodeAllocator.ORDER_SEQUENCE));
+    }
+
+    @Test
+    void aSecondNodeLeasesTheBlockAfterTheFirst() {
+        CodeAllocator first = node();
+        CodeAllocator second = node();
+
+        assertEquals(FIRST_VALUE, first.next(CodeAllocator.ORDER_SEQUENCE));
+        assertEquals(FIRST_VALUE + BLOCK_SIZE, second.next(CodeAllocator.ORDER_SEQUENCE));
+        assertEquals(FIRST_VALUE + 1, first.next(CodeAllocator.ORDER_SEQUENCE));
+    }
+
+    @Test
+    void aSequenceRemovedAfterStartupIsRecreated() {
+        CodeAllocator allocator = node();
+        sequences.clear();
+
+        assertEquals(FIRST_VALUE, allocator.next(CodeAllocator.ORDER_SEQUENCE));
+        assertEquals(FIRST_VALUE + BLOCK_SIZE, sequences.get(CodeAllocator.ORDER_SEQUENCE));
+    }
+
+    @Test
+    void concurrentCallersOnTwoNodesNeverShareACode() throws Exception {
+        List<CodeAllocator> nodes = List.of(node(), node());
+        int threads = 8;
+        int perThread = 500;
+        Set<Long> issued = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            CodeAllocator allocator = nodes.get(t % nodes.size());
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    assertTrue(issued.add(allocator.next(CodeAllocator.ORDER_SEQUENCE)), "duplicate code");
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(threads * perThread, issued.size());
+        long leased = sequences.get(CodeAllocator.ORDER_SEQUENCE) - FIRST_VALUE;
+        assertEquals(leases.get() * (long) BLOCK_SIZE, leased);
+        // Each node may leave at most the rest of its current block unused.
+        assertTrue(leased - issued.size() < nodes.size() * (long) BLOCK_SIZE);
+    }
+
+    private CodeAllocator node() {
+        CodeAllocator allocator = new CodeAllocator();
+        ReflectionTestUtils.setField(allocator, "codeSequenceRepository", codeSequenceRepository);
+        ReflectionTestUtils.setField(allocator, "jdbcTemplate", new JdbcTemplate() {
+            @Override
+            public <T> T queryForObject(String sql, Class<T> requiredType) {
+                return requiredType.cast(FIRST_VALUE);
+            }
+        });
+        ReflectionTestUtils.setField(allocator, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(allocator, "blockSize", BLOCK_SIZE);
+        allocator.init();
+        return allocator;
+    }
+
+    private void releaseRowLock() {
+        if (rowLock.isHeldByCurrentThread()) {
+            rowLock.unlock();
+        }
+    }
+}
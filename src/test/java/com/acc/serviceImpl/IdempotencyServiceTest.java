@@ -0,0 +1,140 @@
+package com.acc.serviceImpl;
+
+import com.acc.exception.IdempotencyKeyReuseException;
+import com.acc.repository.IdempotencyKeyRepository;
+import com.acc.service.IdempotencyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class IdempotencyServiceTest {
+
+    private static final String SCOPE = "idempotency-test";
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private final List<String> ids = new ArrayList<>();
+
+    @AfterEach
+    void removeKeys() {
+        SecurityContextHolder.clearContext();
+        ids.forEach(idempotencyKeyRepository::deleteById);
+    }
+
+    @Test
+    void concurrentDuplicatesWaitForTheFirstResult() throws Exception {
+        String key = newKey();
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    signIn("alice@example.com");
+                    return idempotencyService.execute(SCOPE, key, 42L, String.class, () -> {
+                        runs.incrementAndGet();
+                        sleep(300);
+                        return "result-" + runs.get();
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<String> result : results) {
+                assertEquals("result-1", result.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void aKeyCannotBeReusedForADifferentRequest() {
+        String key = newKey();
+        idempotencyService.execute(SCOPE, key, 1L, String.class, () -> "first");
+
+        assertThrows(IdempotencyKeyReuseException.class,
+                () -> idempotencyService.execute(SCOPE, key, 2L, String.class, () -> "second"));
+    }
+
+    @Test
+    void aFailedAttemptReleasesTheKey() {
+        String key = newKey();
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute(SCOPE, key, 1L, String.class, () -> {
+            throw new IllegalStateException("out of stock");
+        }));
+
+        assertEquals("retried", idempotencyService.execute(SCOPE, key, 1L, String.class, () -> "retried"));
+        assertEquals("retried", idempotencyService.execute(SCOPE, key, 1L, String.class, () -> "ran again"));
+    }
+
+    @Test
+    void callersWithTheSameKeyDoNotShareResults() {
+        String key = newKey();
+        assertEquals("alice's order", idempotencyService.execute(SCOPE, key, 1L, String.class, () -> "alice's order"));
+
+        signIn("bob@example.com");
+        ids.add(IdempotencyServiceImpl.keyId(SCOPE, key));
+        assertEquals("bob's order", idempotencyService.execute(SCOPE, key, 2L, String.class, () -> "bob's order"));
+
+        signIn("alice@example.com");
+        assertEquals("alice's order", idempotencyService.execute(SCOPE, key, 1L, String.class, () -> "ran again"));
+    }
+
+    @Test
+    void anInProgressKeyHoldsOnlyALeaseUntilItCompletes() {
+        String key = newKey();
+        String id = IdempotencyServiceImpl.keyId(SCOPE, key);
+        LocalDateTime[] leaseEnd = new LocalDateTime[1];
+        idempotencyService.execute(SCOPE, key, 1L, String.class, () -> {
+            leaseEnd[0] = (LocalDateTime) idempotencyKeyRepository.findStateById(id).get(0)[3];
+            return "done";
+        });
+        LocalDateTime expiresAt = (LocalDateTime) idempotencyKeyRepository.findStateById(id).get(0)[3];
+
+        assertTrue(leaseEnd[0].isBefore(LocalDateTime.now().plusMinutes(5)), "lease ends " + leaseEnd[0]);
+        assertTrue(expiresAt.isAfter(LocalDateTime.now().plusHours(1)), "completed key expires " + expiresAt);
+    }
+
+    private String newKey() {
+        signIn("alice@example.com");
+        String key = "key-" + System.nanoTime();
+        ids.add(IdempotencyServiceImpl.keyId(SCOPE, key));
+        return key;
+    }
+
+    private static void signIn(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.acc.serviceImpl;
+
+import com.acc.dto.AddItemToCartRequestDTO;
+import com.acc.dto.CartDTO;
+import com.acc.dto.OrderDTO;
+import com.acc.repository.CartRepository;
+import com.acc.repository.CustomerRepository;
+import com.acc.repository.OrderRepository;
+import com.acc.repository.ProductRepository;
+import com.acc.repository.StockReservationRepository;
+import com.acc.service.CartService;
+import com.acc.service.OrderService;
+import com.acc.util.LocalGrid;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Write-behind and durability of {@code cart.store.mode=memory}. The flush interval is set
+ * to an hour so that every write-back in these tests is one the test triggers.
+ */
+@SpringBootTest(properties = {
+        "cart.store.mode=memory",
+        "cart.store.grid-name=" + InMemoryCartStoreTest.GRID,
+        "cart.store.flush-interval-ms=3600000"
+})
+@Import(TestFixtures.class)
+class InMemoryCartStoreTest {
+
+    static final String GRID = "cart-store-test";
+
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private InMemoryCartStore cartStore;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CartRepository cartRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private StockReservationRepository reservationRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long customerId;
+    private Long firstProductId;
+    private Long secondProductId;
+    private final List<Long> orderIds = new ArrayList<>();
+
+    @BeforeEach
+    void createCustomerAndProducts() {
+        customerId = fixtures.customer("cart-store").getId();
+        firstProductId = fixtures.product("cart-store", new BigDecimal("10.00"), 100).getId();
+        secondProductId = fixtures.product("cart-store", new BigDecimal("4.00"), 100).getId();
+    }
+
+    @AfterEach
+    void removeFixtures() {
+        cartService.clearCart(customerId);
+        cartStore.flushDirty();
+        orderRepository.deleteAllById(orderIds);
+        cartRepository.findByCustomer_Id(customerId).ifPresent(cartRepository::delete);
+        productRepository.deleteAllById(List.of(firstProductId, secondProductId));
+        customerRepository.deleteById(customerId);
+    }
+
+    @Test
+    void changesStayInMemoryUntilOneCoalescedWriteBack() {
+        Long cartId = cartService.getOrCreateCart(customerId).getId();
+        long writesBefore = cartStore.getCartWriteCount();
+
+        add(firstProductId, 1);
+        cartService.updateProductQuantityInCart(customerId, firstProductId, 3);
+        add(secondProductId, 2);
+        cartService.removeProductFromCart(customerId, secondProductId);
+
+        assertEquals(0, storedLines(cartId));
+        assertNotNull(LocalGrid.named(GRID + ".carts", 1).get(customerId),
+                "the cart sits in the shared grid, where other nodes with this grid name would see it");
+
+        assertEquals(1, cartStore.flushDirty());
+        assertEquals(writesBefore + 1, cartStore.getCartWriteCount());
+        assertEquals(1, storedLines(cartId));
+        assertEquals(3, (int) jdbcTemplate.queryForObject(
+                "SELECT quantity FROM cart_items WHERE cart_id = ?", Integer.class, cartId));
+        assertEquals(0, new BigDecimal("30.00").compareTo(storedTotal(cartId)));
+    }
+
+    @Test
+    void checkoutWritesTheCartBackFirst() {
+        Long cartId = add(firstProductId, 2).getId();
+        assertEquals(0, storedLines(cartId));
+
+        OrderDTO order = orderService.createOrderFromCart(cartId);
+        orderIds.add(order.getId());
+
+        assertEquals(1, order.getOrderItems().size());
+        assertEquals(2, order.getOrderItems().get(0).getQuantity());
+        assertEquals(0, storedLines(cartId));
+        assertTrue(cartService.getOrCreateCart(customerId).getCartItems().isEmpty());
+    }
+
+    @Test
+    void shutdownWritesBackEveryDirtyCart() {
+        Long cartId = add(firstProductId, 1).getId();
+        assertEquals(0, storedLines(cartId));
+
+        cartStore.shutdown();
+
+        assertEquals(0, cartStore.getDirtyCount());
+        assertEquals(1, storedLines(cartId));
+    }
+
+    @Test
+    void crashLosesOnlyChangesSinceTheLastWriteBack() {
+        Long cartId = add(firstProductId, 1).getId();
+        cartStore.flushDirty();
+        add(secondProductId, 5);
+
+        // What a node crash leaves behind: memory gone, nothing written.
+        LocalGrid.named(GRID + ".carts", 1).discardAll();
+        LocalGrid.named(GRID + ".owners", 1).discardAll();
+
+        CartDTO reloaded = cartService.getOrCreateCart(customerId);
+        assertEquals(1, reloaded.getCartItems().size());
+        assertEquals(firstProductId, reloaded.getCartItems().get(0).getProductId());
+        // The lost line's reservation was written synchronously and is held until it expires.
+        assertTrue(reservationRepository.findByCartIdAndProductId(cartId, secondProductId).isPresent());
+    }
+
+    private CartDTO add(Long productId, int quantity) {
+        AddItemToCartRequestDTO request = new AddItemToCartRequestDTO();
+        request.setProductId(productId);
+        request.setQuantity(quantity);
+        return cartService.addProductToCart(customerId, request);
+    }
+
+    private int storedLines(Long cartId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cart_items WHERE cart_id = ?", Integer.class, cartId);
+    }
+
+    private BigDecimal storedTotal(Long cartId) {
+        return jdbcTemplate.queryForObject("SELECT total_amount FROM carts WHERE id = ?", BigDecimal.class, cartId);
+    }
+}
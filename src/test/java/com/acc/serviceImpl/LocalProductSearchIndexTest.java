@@ -0,0 +1,206 @@
+package com.acc.serviceImpl;
+
+import com.acc.dto.FacetBucket;
+import com.acc.dto.ProductSearchCriteria;
+import com.acc.dto.ProductSearchFacets;
+import com.acc.dto.ProductSearchResponse;
+import com.acc.dto.ProductSearchSort;
+import com.acc.elasticsearch.entity.ProductDocument;
+import com.acc.entity.Category;
+import com.acc.entity.Product;
+import com.acc.event.ProductChangedEvent;
+import com.acc.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LocalProductSearchIndexTest {
+
+    private final List<Product> catalogue = new ArrayList<>();
+    private ProductRepository productRepository;
+    private volatile Runnable afterPageRead = () -> {};
+    private LocalProductSearchIndex index;
+
+    @BeforeEach
+    void createIndex() {
+        catalogue.add(product(1L, "Apple Juice", "fresh pressed apple", "40.00", 5, Category.BEVERAGES, 0.0));
+        catalogue.add(product(2L, "Green Apple", "crisp", "120.00", 0, Category.FRUITS, 15.0));
+        catalogue.add(product(3L, "Apple Pie", "baked with apple", "75.50", 3, Category.BAKERY, 30.0));
+        catalogue.add(product(4L, "Whole Milk", "one litre", "60.00", 10, Category.DAIRY, 5.0));
+        catalogue.add(product(5L, "Banana", "ripe", "40.00", 8, Category.FRUITS, 60.0));
+
+        productRepository = mock(ProductRepository.class);
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class)))
+                .thenAnswer(call -> {
+                    List<Product> page = pageAfter(call.getArgument(0), call.getArgument(1));
+                    afterPageRead.run();
+                    return page;
+                });
+        when(productRepository.findAllById(any())).thenAnswer(call -> {
+            List<Product> found = new ArrayList<>();
+            for (Long id : call.<Iterable<Long>>getArgument(0)) {
+                catalogue.stream().filter(p -> p.getId().equals(id)).forEach(found::add);
+            }
+            return found;
+        });
+
+        index = new LocalProductSearchIndex();
+        ReflectionTestUtils.setField(index, "productRepository", productRepository);
+        ReflectionTestUtils.setField(index, "pageSize", 2);
+        ReflectionTestUtils.setField(index, "priceFacetInterval", 50.0);
+        index.rebuild();
+    }
+
+    @Test
+    void cursorPagesVisitEveryHitOnceInSortOrder() {
+        ProductSearchCriteria criteria = new ProductSearchCriteria();
+        criteria.setSort(ProductSearchSort.PRICE_ASC);
+        criteria.setSize(2);
+        criteria.setFacets(false);
+
+        List<Long> seen = new ArrayList<>();
+        int pages = 0;
+        do {
+            ProductSearchResponse response = index.search(criteria);
+            assertEquals(5L, response.getTotalHits());
+            response.getItems().forEach(document -> seen.add(document.getId()));
+            criteria.setAfter(response.getNextCursor());
+            pages++;
+        } while (criteria.getAfter() != null && pages < 10);
+
+        // Equal prices fall back to id order, as in Elasticsearch.
+        assertEquals(List.of(1L, 5L, 4L, 3L, 2L), seen);
+    }
+
+    @Test
+    void relevancePagesContinueFromTheCursor() {
+        ProductSearchCriteria criteria = new ProductSearchCriteria();
+        criteria.setQuery("apple");
+        criteria.setSize(2);
+
+        ProductSearchResponse first = index.search(criteria);
+        assertEquals(3L, first.getTotalHits());
+        assertEquals(2, first.getItems().size());
+
+        criteria.setAfter(first.getNextCursor());
+        ProductSearchResponse second = index.search(criteria);
+        assertEquals(1, second.getItems().size());
+        assertNull(second.getNextCursor());
+        assertNull(second.getFacets(), "facets are only computed for the first page");
+
+        List<Long> ids = new ArrayList<>();
+        first.getItems().forEach(document -> ids.add(document.getId()));
+        second.getItems().forEach(document -> ids.add(document.getId()));
+        assertTrue(ids.containsAll(List.of(1L, 2L, 3L)), ids.toString());
+    }
+
+    @Test
+    void facetsCountEveryMatchingHit() {
+        ProductSearchCriteria criteria = new ProductSearchCriteria();
+        criteria.setSize(1);
+
+        ProductSearchFacets facets = index.search(criteria).getFacets();
+
+        assertEquals("FRUITS", facets.getCategories().get(0).getKey());
+        assertEquals(2L, facets.getCategories().get(0).getCount());
+        assertEquals(List.of("0-50", "50-100", "100-150"), keys(facets.getPriceRanges()));
+        assertEquals(List.of(2L, 2L, 1L), counts(facets.getPriceRanges()));
+        assertEquals(List.of("0-10", "10-25", "25-50", "50+"), keys(facets.getDiscountBands()));
+        assertEquals(List.of(2L, 1L, 1L, 1L), counts(facets.getDiscountBands()));
+        assertEquals(4L, facets.getInStock());
+        assertEquals(1L, facets.getOutOfStock());
+    }
+
+    @Test
+    void filtersApplyBeforeFacetsAndPaging() {
+        ProductSearchCriteria criteria = new ProductSearchCriteria();
+        criteria.setCategory(Category.FRUITS);
+        criteria.setInStock(true);
+
+        ProductSearchResponse response = index.search(criteria);
+
+        assertEquals(1L, response.getTotalHits());
+        assertEquals(5L, response.getItems().get(0).getId());
+        assertEquals(1L, response.getFacets().getInStock());
+    }
+
+    @Test
+    void aChangeQueuedDuringARebuildIsAppliedToTheNewIndex() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        afterPageRead = () -> {
+            reading.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> rebuild = pool.submit(index::rebuild);
+            assertTrue(reading.await(5, TimeUnit.SECONDS));
+
+            // The rebuild has already read product 1 under its old name.
+            catalogue.get(0).setName("Mango Juice");
+            index.onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.UPDATED, List.of(1L)));
+            index.applyPendingChanges();
+
+            release.countDown();
+            rebuild.get(5, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        index.applyPendingChanges();
+
+        ProductSearchCriteria criteria = new ProductSearchCriteria();
+        criteria.setQuery("mango");
+        List<ProductDocument> items = index.search(criteria).getItems();
+        assertEquals(1, items.size());
+        assertEquals(1L, items.get(0).getId());
+    }
+
+    // Copies, as rows read from the database would be: later edits to the catalogue are not seen.
+    private List<Product> pageAfter(Long afterId, Pageable pageable) {
+        return catalogue.stream()
+                .filter(p -> p.getId() > afterId)
+                .limit(pageable.getPageSize())
+                .map(p -> product(p.getId(), p.getName(), p.getDescription(), p.getPrice().toPlainString(),
+                        p.getStockQuantity(), p.getCategory(), p.getDiscountPercentage()))
+                .toList();
+    }
+
+    private static Product product(Long id, String name, String description, String price, int stock,
+                                   Category category, double discount) {
+        Product product = new Product(id, name, description, null, new BigDecimal(price), stock, category);
+        product.setDiscountPercentage(discount);
+        return product;
+    }
+
+    private static List<String> keys(List<FacetBucket> buckets) {
+        return buckets.stream().map(FacetBucket::getKey).toList();
+    }
+
+    private static List<Long> counts(List<FacetBucket> buckets) {
+        return buckets.stream().map(FacetBucket::getCount).toList();
+    }
+}
@@ -0,0 +1,139 @@
+package com.acc.serviceImpl;
+
+import com.acc.dto.OrderDTO;
+import com.acc.dto.OrderPageResponse;
+import com.acc.entity.Address;
+import com.acc.entity.Customer;
+import com.acc.entity.Invoice;
+import com.acc.entity.Order;
+import com.acc.entity.OrderItem;
+import com.acc.entity.Product;
+import com.acc.repository.AddressRepository;
+import com.acc.repository.CustomerRepository;
+import com.acc.repository.OrderRepository;
+import com.acc.repository.ProductRepository;
+import com.acc.service.InvoiceService;
+import com.acc.service.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pins the number of SQL statements each order detail path issues, independent of how many
+ * lines an order has: the DTO and invoice read lines, products, customer, profile and address.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(TestFixtures.class)
+class OrderFetchPlanTest {
+
+    private static final int ORDERS = 3;
+    private static final int LINES_PER_ORDER = 5;
+
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private InvoiceService invoiceService;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private AddressRepository addressRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long customerId;
+    private Long addressId;
+    private final List<Long> productIds = new ArrayList<>();
+    private final List<Order> orders = new ArrayList<>();
+    private Statistics statistics;
+
+    @BeforeEach
+    void createOrders() {
+        Customer customer = fixtures.customerWithProfile("order-plan", "Order", "Plan");
+        customerId = customer.getId();
+        Address address = fixtures.shippingAddress(customer);
+        addressId = address.getId();
+        List<Product> products = fixtures.products("order-plan", LINES_PER_ORDER, new BigDecimal("5.00"), 1_000);
+        products.forEach(product -> productIds.add(product.getId()));
+
+        LocalDateTime placedAt = LocalDateTime.now().withNano(0);
+        for (int o = 0; o < ORDERS; o++) {
+            Order order = new Order();
+            order.setOrderCode("PLAN-" + System.nanoTime());
+            order.setOrderDate(placedAt.plusMinutes(o));
+            order.setStatus("PENDING");
+            order.setCustomer(customer);
+            order.setShippingAddress(address);
+            order.setTotalAmount(new BigDecimal("25.00"));
+            order.setDiscountAmount(BigDecimal.ZERO);
+            order.setDiscountedAmount(new BigDecimal("25.00"));
+            for (Product product : products) {
+                OrderItem item = new OrderItem();
+                item.setProduct(product);
+                item.setQuantity(1);
+                item.setPrice(product.getPrice());
+                item.setDiscountPercentage(0.0);
+                item.setDiscountedPrice(product.getPrice());
+                order.addOrderItem(item);
+            }
+            orders.add(orderRepository.save(order));
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void removeOrders() {
+        orderRepository.deleteAll(orders);
+        addressRepository.deleteById(addressId);
+        customerRepository.deleteById(customerId);
+        productRepository.deleteAllById(productIds);
+    }
+
+    @Test
+    void getOrderByIdIsOneStatement() {
+        OrderDTO order = orderService.getOrderById(orders.get(0).getId());
+
+        assertEquals(LINES_PER_ORDER, order.getOrderItems().size());
+        assertEquals("Order", order.getCustomerFirstName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void generateInvoiceIsOneStatement() {
+        Invoice invoice = invoiceService.generateInvoice(orders.get(0).getOrderCode());
+
+        assertEquals(LINES_PER_ORDER, invoice.getItems().size());
+        assertEquals("Order Plan", invoice.getCustomerName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void orderHistoryIsTwoStatementsPerPage() {
+        OrderPageResponse page = orderService.getOrderHistoryForCustomer(customerId, null, null, null, ORDERS);
+
+        assertEquals(List.of(orders.get(2).getId(), orders.get(1).getId(), orders.get(0).getId()),
+                page.getItems().stream().map(OrderDTO::getId).toList());
+        page.getItems().forEach(order -> assertEquals(LINES_PER_ORDER, order.getOrderItems().size()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,176 @@
+package com.acc.serviceImpl;
+
+import com.acc.dto.OrderSummary;
+import com.acc.dto.OrderSummaryPageResponse;
+import com.acc.entity.Address;
+import com.acc.entity.Customer;
+import com.acc.entity.Order;
+import com.acc.entity.OrderItem;
+import com.acc.entity.Product;
+import com.acc.repository.AddressRepository;
+import com.acc.repository.CustomerRepository;
+import com.acc.repository.OrderRepository;
+import com.acc.repository.ProductRepository;
+import com.acc.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Keyset paging of order summaries: the cursor, the customer filter and the {@code [from, to)}
+ * range. The orders are placed on a day of their own far in the past, so other data in the
+ * database never falls inside the range the tests ask for.
+ */
+@SpringBootTest
+@Import(TestFixtures.class)
+class OrderSummaryPageTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private AddressRepository addressRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private final List<Long> customerIds = new ArrayList<>();
+    private final List<Long> addressIds = new ArrayList<>();
+    private final List<Order> orders = new ArrayList<>();
+    private Product product;
+    private LocalDateTime day;
+    private Customer first;
+    private Customer second;
+
+    @BeforeEach
+    void createOrders() {
+        day = LocalDateTime.of(1980, 1, 1, 0, 0).plusDays(System.nanoTime() % 1_000_000);
+        product = fixtures.product("order-page", new BigDecimal("5.00"), 1_000);
+        first = customer("order-page-first");
+        second = customer("order-page-second");
+
+        // Two orders share 10:00, so the id has to break the tie across a page boundary.
+        order(first, day.plusHours(9), 1);
+        order(second, day.plusHours(10), 2);
+        order(first, day.plusHours(10), 3);
+        order(first, day.plusHours(11), 4);
+        order(second, day.plusHours(12), 5);
+        order(first, day.plusHours(13), 6);
+    }
+
+    @AfterEach
+    void removeOrders() {
+        orderRepository.deleteAll(orders);
+        addressRepository.deleteAllById(addressIds);
+        customerRepository.deleteAllById(customerIds);
+        productRepository.deleteById(product.getId());
+    }
+
+    @Test
+    void theCursorWalksEveryOrderNewestFirstWithoutRepeats() {
+        List<OrderSummary> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            OrderSummaryPageResponse page = orderService.getOrderSummaries(day, day.plusDays(1), cursor, 2);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(newestFirst(orders), seen.stream().map(OrderSummary::getId).toList());
+        for (OrderSummary summary : seen) {
+            assertEquals(linesOf(summary.getId()), summary.getItemCount());
+        }
+    }
+
+    @Test
+    void theCustomerFilterOnlyReturnsThatCustomersOrders() {
+        OrderSummaryPageResponse page = orderService.getOrderSummariesForCustomer(first.getId(), day,
+                day.plusDays(1), null, 3);
+
+        List<Order> firstOrders = orders.stream()
+                .filter(order -> order.getCustomer().getId().equals(first.getId())).toList();
+        assertEquals(newestFirst(firstOrders).subList(0, 3), page.getItems().stream().map(OrderSummary::getId).toList());
+        page.getItems().forEach(summary -> assertEquals(first.getId(), summary.getCustomerId()));
+        assertNotNull(page.getNextCursor());
+
+        OrderSummaryPageResponse rest = orderService.getOrderSummariesForCustomer(first.getId(), day,
+                day.plusDays(1), page.getNextCursor(), 3);
+        assertEquals(newestFirst(firstOrders).subList(3, 4), rest.getItems().stream().map(OrderSummary::getId).toList());
+        assertNull(rest.getNextCursor());
+    }
+
+    @Test
+    void theDateRangeIncludesFromAndExcludesTo() {
+        OrderSummaryPageResponse page = orderService.getOrderSummaries(day.plusHours(10), day.plusHours(12), null, 10);
+
+        List<Order> inRange = orders.stream()
+                .filter(order -> !order.getOrderDate().isBefore(day.plusHours(10))
+                        && order.getOrderDate().isBefore(day.plusHours(12)))
+                .toList();
+        assertEquals(3, inRange.size());
+        assertEquals(newestFirst(inRange), page.getItems().stream().map(OrderSummary::getId).toList());
+        assertNull(page.getNextCursor());
+    }
+
+    private Customer customer(String name) {
+        Customer customer = fixtures.customerWithProfile(name, "Order", "Page");
+        customerIds.add(customer.getId());
+        return customer;
+    }
+
+    private void order(Customer customer, LocalDateTime placedAt, int lines) {
+        Address address = fixtures.shippingAddress(customer);
+        addressIds.add(address.getId());
+        Order order = new Order();
+        order.setOrderCode("PAGE-" + System.nanoTime());
+        order.setOrderDate(placedAt);
+        order.setStatus("PENDING");
+        order.setCustomer(customer);
+        order.setShippingAddress(address);
+        order.setTotalAmount(new BigDecimal("5.00").multiply(BigDecimal.valueOf(lines)));
+        order.setDiscountAmount(BigDecimal.ZERO);
+        order.setDiscountedAmount(order.getTotalAmount());
+        for (int i = 0; i < lines; i++) {
+            OrderItem item = new OrderItem();
+            item.setProduct(product);
+            item.setQuantity(1);
+            item.setPrice(product.getPrice());
+            item.setDiscountPercentage(0.0);
+            item.setDiscountedPrice(product.getPrice());
+            order.addOrderItem(item);
+        }
+        orders.add(orderRepository.save(order));
+    }
+
+    private long linesOf(Long orderId) {
+        return orders.stream().filter(order -> order.getId().equals(orderId)).findFirst().orElseThrow()
+                .getOrderItems().size();
+    }
+
+    private static List<Long> newestFirst(List<Order> orders) {
+        return orders.stream()
+                .sorted(Comparator.comparing(Order::getOrderDate).thenComparing(Order::getId).reversed())
+                .map(Order::getId)
+                .toList();
+    }
+}
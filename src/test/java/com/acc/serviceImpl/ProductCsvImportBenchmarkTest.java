@@ -0,0 +1,80 @@
+package com.acc.serviceImpl;
+
+import com.acc.dto.BulkUploadResponse;
+import com.acc.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Imports a 1M-row synthetic CSV with Kafka mocked out, so the timing covers parsing and the
+ * chunked duplicate checks only. Run with {@code -Dbenchmark=true}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProductCsvImportBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCsvImportBenchmarkTest.class);
+
+    private static final int ROWS = 1_000_000;
+
+    @Autowired
+    private ProductService productService;
+
+    @MockBean
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    private Path csv;
+
+    @BeforeEach
+    void writeSyntheticCsv() throws Exception {
+        csv = Files.createTempFile("products-bench", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(csv)) {
+            writer.write("name,description,price,discount,stock,images,category,status\n");
+            for (int i = 0; i < ROWS; i++) {
+                writer.write("csv-bench-" + i + ",synthetic product," + (i % 500 + 1) + ".99,5," + (i % 100)
+                        + ",\"http://img/" + i + ".png\",SNACKS,ACTIVE\n");
+            }
+        }
+    }
+
+    @AfterEach
+    void deleteCsv() throws Exception {
+        Files.deleteIfExists(csv);
+    }
+
+    @Test
+    void importsMillionRowsWithFlatMemory() throws Exception {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+
+        long start = System.nanoTime();
+        BulkUploadResponse response;
+        try (InputStream in = Files.newInputStream(csv)) {
+            response = productService.importProductsFromCsv(in);
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+
+        log.info("Imported {} rows in {} ms ({} rows/second), heap delta {} MB", ROWS, elapsedMillis,
+                ROWS * 1000L / Math.max(1, elapsedMillis), (heapAfter - heapBefore) / (1024 * 1024));
+
+        assertEquals(ROWS, response.getTotalRecordsProcessed());
+        assertEquals(ROWS, response.getRecordsAdded());
+    }
+}
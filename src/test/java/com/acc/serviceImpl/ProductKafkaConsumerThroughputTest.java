@@ -0,0 +1,81 @@
+package com.acc.serviceImpl;
+
+import com.acc.repository.ProductRepository;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class ProductKafkaConsumerThroughputTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductKafkaConsumerThroughputTest.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final int BATCHES = 40;
+
+    @Autowired
+    private ProductKafkaConsumer productKafkaConsumer;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void removeBenchmarkProducts() {
+        jdbcTemplate.update("DELETE FROM products WHERE name LIKE 'ingest-bench-%'");
+    }
+
+    @Test
+    void batchListenerInsertsAndReportsThroughput() {
+        String run = Long.toString(System.nanoTime());
+        AtomicInteger acks = new AtomicInteger();
+        int total = BATCH_SIZE * BATCHES;
+
+        long start = System.nanoTime();
+        for (int b = 0; b < BATCHES; b++) {
+            List<ConsumerRecord<String, String>> batch = new ArrayList<>(BATCH_SIZE + 2);
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                batch.add(record(message("ingest-bench-" + run + "-" + (b * BATCH_SIZE + i))));
+            }
+            // in-batch duplicate and a malformed record must both be skipped
+            batch.add(batch.get(0));
+            batch.add(record("{not json"));
+            productKafkaConsumer.processProducts(batch, acks::incrementAndGet);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        log.info("Ingested {} products in {} ms ({} records/second)", total, elapsedNanos / 1_000_000,
+                String.format("%.0f", total / (elapsedNanos / 1_000_000_000.0)));
+
+        assertEquals(BATCHES, acks.get(), "each batch should be acknowledged exactly once");
+        int inserted = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM products WHERE name LIKE ?", Integer.class, "ingest-bench-" + run + "-%");
+        assertEquals(total, inserted);
+
+        // replaying a batch must not create duplicates
+        productKafkaConsumer.processProducts(List.of(record(message("ingest-bench-" + run + "-0"))), acks::incrementAndGet);
+        assertEquals(1, productRepository.findExistingNames(List.of("ingest-bench-" + run + "-0")).size());
+    }
+
+    private static ConsumerRecord<String, String> record(String value) {
+        return new ConsumerRecord<>("bulk-upload.products", 0, 0L, null, value);
+    }
+
+    private static String message(String name) {
+        return "{\"name\":\"" + name + "\",\"description\":\"bench\",\"price\":9.99,\"stockQuantity\":10,"
+                + "\"category\":\"SNACKS\",\"active\":true,\"discountPercentage\":0.0}";
+    }
+}
@@ -0,0 +1,90 @@
+package com.acc.serviceImpl;
+
+import com.acc.dto.CartBatchRequestDTO;
+import com.acc.dto.CartDTO;
+import com.acc.dto.CartItemOperationDTO;
+import com.acc.entity.Address;
+import com.acc.entity.Category;
+import com.acc.entity.Customer;
+import com.acc.entity.Product;
+import com.acc.entity.Profile;
+import com.acc.repository.AddressRepository;
+import com.acc.repository.CustomerRepository;
+import com.acc.repository.ProductRepository;
+import com.acc.service.CartService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rows the database tests build on. Every name gets a fresh suffix, so tests can run against
+ * a shared schema without colliding; removing what they created stays with each test, since
+ * the order it has to go in depends on what the test built on top.
+ */
+@TestComponent
+class TestFixtures {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private AddressRepository addressRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CartService cartService;
+
+    Customer customer(String name) {
+        return customerRepository.save(newCustomer(name));
+    }
+
+    Customer customerWithProfile(String name, String firstName, String lastName) {
+        Customer customer = newCustomer(name);
+        customer.setProfile(new Profile(firstName, lastName, "0000000000", customer.getUsername() + "@profile.example.com"));
+        return customerRepository.save(customer);
+    }
+
+    Address shippingAddress(Customer customer) {
+        return addressRepository.save(new Address(null, "1 Test Street", "Pune", "MH", "India", "411001",
+                "SHIPPING", customer.getProfile(), true));
+    }
+
+    Product product(String name, BigDecimal price, int stock) {
+        return products(name, 1, price, stock).get(0);
+    }
+
+    List<Product> products(String name, int count, BigDecimal price, int stock) {
+        String prefix = name + "-" + System.nanoTime();
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(new Product(null, prefix + "-" + i, name + " SKU", null, price, stock, Category.SNACKS));
+        }
+        return productRepository.saveAll(products);
+    }
+
+    /** Adds one unit of each product to the customer's cart in a single batch. */
+    CartDTO fillCart(Long customerId, List<Long> productIds) {
+        List<CartItemOperationDTO> operations = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            operations.add(new CartItemOperationDTO(CartItemOperationDTO.Type.ADD, productId, 1));
+        }
+        CartBatchRequestDTO request = new CartBatchRequestDTO();
+        request.setOperations(operations);
+        return cartService.applyCartBatch(customerId, request).getCart();
+    }
+
+    static List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+
+    private static Customer newCustomer(String name) {
+        String username = name + "-" + System.nanoTime();
+        Customer customer = new Customer();
+        customer.setUsername(username);
+        customer.setEmail(username + "@example.com");
+        customer.setPassword("not-a-real-password");
+        return customer;
+    }
+}
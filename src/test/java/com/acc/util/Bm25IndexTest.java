@@ -0,0 +1,74 @@
+package com.acc.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Bm25IndexTest {
+
+    @Test
+    void aTermInTheHeavierFieldScoresHigher() {
+        Bm25Index index = new Bm25Index();
+        int inName = index.add(fields("apple juice", "fresh drink"));
+        int inDescription = index.add(fields("orange juice", "made with apple"));
+        int neither = index.add(fields("whole milk", "dairy"));
+
+        float[] scores = index.score("apple");
+
+        assertTrue(scores[inName] > scores[inDescription], "name match should outrank description match");
+        assertTrue(scores[inDescription] > 0);
+        assertEquals(0f, scores[neither]);
+    }
+
+    @Test
+    void pluralsAndStopWordsAreFolded() {
+        assertEquals(List.of("apple", "berry", "glass"), Bm25Index.tokenize("The Apples and BERRIES of glasses"));
+
+        Bm25Index index = new Bm25Index();
+        int doc = index.add(fields("strawberries", ""));
+        assertTrue(index.score("strawberry")[doc] > 0);
+        assertEquals(0f, index.score("the and of")[doc]);
+    }
+
+    @Test
+    void removingADocumentLeavesTheSameScoresAsNeverAddingIt() {
+        Bm25Index patched = new Bm25Index();
+        int kept = patched.add(fields("green tea", "loose leaf"));
+        int removed = patched.add(fields("green apple", "tea time snack"));
+        patched.add(fields("black coffee", "ground"));
+        patched.remove(removed);
+        patched.remove(removed);
+
+        Bm25Index fresh = new Bm25Index();
+        int freshKept = fresh.add(fields("green tea", "loose leaf"));
+        fresh.add(fields("black coffee", "ground"));
+
+        assertEquals(2, patched.getLiveDocs());
+        assertEquals(0f, patched.score("green tea")[removed]);
+        assertEquals(fresh.score("green tea")[freshKept], patched.score("green tea")[kept], 1e-6);
+    }
+
+    @Test
+    void ordinalsKeepGrowingPastTheInitialCapacity() {
+        Bm25Index index = new Bm25Index();
+        int last = -1;
+        for (int i = 0; i < 3_000; i++) {
+            last = index.add(fields("item " + i, ""));
+        }
+        assertEquals(2_999, last);
+        assertEquals(3_000, index.getOrdinalLimit());
+        assertTrue(index.score("2999")[last] > 0);
+    }
+
+    private static Map<String, Integer> fields(String name, String description) {
+        Map<String, Integer> fields = new LinkedHashMap<>();
+        fields.put(name, 2);
+        fields.merge(description, 1, Integer::sum);
+        return fields;
+    }
+}
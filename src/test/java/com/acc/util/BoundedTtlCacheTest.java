@@ -0,0 +1,127 @@
+package com.acc.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedTtlCacheTest {
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntryBeyondMaxSize() {
+        BoundedTtlCache<Integer, String> cache = new BoundedTtlCache<>(2, 60_000);
+        cache.get(1, () -> "one");
+        cache.get(2, () -> "two");
+        cache.getIfPresent(1);
+        cache.get(3, () -> "three");
+
+        assertEquals(2, cache.size());
+        assertEquals("one", cache.getIfPresent(1));
+        assertNull(cache.getIfPresent(2));
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    void entriesExpireAfterTheirTtl() throws InterruptedException {
+        BoundedTtlCache<Integer, String> cache = new BoundedTtlCache<>(10, 50);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1, () -> "v" + loads.incrementAndGet());
+        assertEquals("v1", cache.get(1, () -> "v" + loads.incrementAndGet()));
+
+        Thread.sleep(80);
+
+        assertEquals("v2", cache.get(1, () -> "v" + loads.incrementAndGet()));
+        assertEquals(2, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void aLoadRacingAnInvalidationOfItsKeyIsNotStored() throws Exception {
+        BoundedTtlCache<Integer, String> cache = new BoundedTtlCache<>(10, 60_000);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> read = pool.submit(() -> cache.get(1, () -> {
+                loading.countDown();
+                await(release);
+                return "before-write";
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            cache.invalidate(1);
+            release.countDown();
+
+            assertEquals("before-write", read.get(5, TimeUnit.SECONDS));
+            assertNull(cache.getIfPresent(1));
+            assertEquals("after-write", cache.get(1, () -> "after-write"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void invalidatingOneKeyDoesNotStopLoadsOfOtherKeys() throws Exception {
+        BoundedTtlCache<Integer, String> cache = new BoundedTtlCache<>(10, 60_000);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> read = pool.submit(() -> cache.get(1, () -> {
+                loading.countDown();
+                await(release);
+                return "one";
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            cache.invalidate(2);
+            release.countDown();
+
+            assertEquals("one", read.get(5, TimeUnit.SECONDS));
+            assertEquals("one", cache.getIfPresent(1));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        BoundedTtlCache<Integer, String> cache = new BoundedTtlCache<>(10, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] reads = new Future<?>[4];
+            for (int i = 0; i < reads.length; i++) {
+                reads[i] = pool.submit(() -> cache.get(1, () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "shared";
+                }));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<?> read : reads) {
+                assertEquals("shared", read.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getMisses());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}